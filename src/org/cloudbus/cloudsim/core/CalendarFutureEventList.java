@@ -0,0 +1,360 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Future event list implemented as a calendar queue (R. Brown, 1988). Time is divided in days of
+ * equal width and each day is mapped to a bucket, the buckets forming a year that wraps around.
+ * Each bucket holds a sorted linked list of its events. When the day width matches the spacing of
+ * the events, adding and polling an event take O(1) on average.
+ * <p>
+ * The calendar doubles or halves its number of buckets when the number of events crosses twice or
+ * half of it, and the day width is then re-estimated from the spacing of the first events. Removed
+ * nodes are kept for reuse so that a steady simulation does not allocate.
+ *
+ * @see FutureEventList
+ */
+public class CalendarFutureEventList implements FutureEventList {
+
+	/** The minimal number of buckets. */
+	private static final int MIN_BUCKETS = 2;
+
+	/** The number of first events sampled to estimate the day width. */
+	private static final int WIDTH_SAMPLE = 25;
+
+	/**
+	 * An event with its sort keys, linked to the next event of its bucket.
+	 */
+	private static final class Node {
+
+		SimEvent event;
+
+		double time;
+
+		double sendTime;
+
+		long serial;
+
+		long sequence;
+
+		Node next;
+	}
+
+	/** The buckets, each one the head of a sorted list. */
+	private Node[] buckets = new Node[MIN_BUCKETS];
+
+	/** The last node of each bucket, where events sent later at the same time go. */
+	private Node[] tails = new Node[MIN_BUCKETS];
+
+	/** The width of a day. */
+	private double width = 1.0;
+
+	/** The number of events. */
+	private int size = 0;
+
+	/** The next insertion number. */
+	private long sequence = 0;
+
+	/** The day from which the search for the first event starts, no event is earlier. */
+	private long currentDay = 0;
+
+	/** The node of the first event if it is known, otherwise <tt>null</tt>. */
+	private Node first = null;
+
+	/** The removed nodes, linked by their next field. */
+	private Node freeNodes = null;
+
+	@Override
+	public void add(SimEvent event) {
+		Node node = freeNodes;
+		if (node == null) {
+			node = new Node();
+		} else {
+			freeNodes = node.next;
+		}
+		node.event = event;
+		node.time = event.eventTime();
+		node.sendTime = event.getSendTime();
+		node.serial = event.getSerial();
+		node.sequence = sequence++;
+		insert(node);
+		size++;
+		if (first != null && precedes(node, first)) {
+			first = node;
+		}
+		if (size > buckets.length << 1) {
+			resize(buckets.length << 1);
+		}
+	}
+
+	@Override
+	public SimEvent peek() {
+		Node node = findFirst();
+		return node == null ? null : node.event;
+	}
+
+	@Override
+	public SimEvent poll() {
+		Node node = findFirst();
+		if (node == null) {
+			return null;
+		}
+		int bucket = bucketOf(node.time);
+		unlink(bucket, null, node);
+		SimEvent event = node.event;
+		recycle(node);
+		if (size < buckets.length >> 1 && buckets.length > MIN_BUCKETS) {
+			resize(buckets.length >> 1);
+		}
+		return event;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean remove(SimEvent event) {
+		int bucket = bucketOf(event.eventTime());
+		Node previous = null;
+		for (Node node = buckets[bucket]; node != null; node = node.next) {
+			if (node.event == event) {
+				unlink(bucket, previous, node);
+				recycle(node);
+				return true;
+			}
+			previous = node;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean removeIf(java.util.function.Predicate<? super SimEvent> filter) {
+		boolean removed = false;
+		for (int bucket = 0; bucket < buckets.length; bucket++) {
+			Node previous = null;
+			Node node = buckets[bucket];
+			while (node != null) {
+				Node next = node.next;
+				if (filter.test(node.event)) {
+					unlink(bucket, previous, node);
+					recycle(node);
+					removed = true;
+				} else {
+					previous = node;
+				}
+				node = next;
+			}
+		}
+		return removed;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(buckets, null);
+		Arrays.fill(tails, null);
+		size = 0;
+		first = null;
+		currentDay = 0;
+	}
+
+	@Override
+	public Iterator<SimEvent> iterator() {
+		return new Iterator<SimEvent>() {
+
+			private int bucket = -1;
+
+			private Node next = null;
+
+			@Override
+			public boolean hasNext() {
+				while (next == null && bucket + 1 < buckets.length) {
+					next = buckets[++bucket];
+				}
+				return next != null;
+			}
+
+			@Override
+			public SimEvent next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				SimEvent event = next.event;
+				next = next.next;
+				return event;
+			}
+		};
+	}
+
+	/**
+	 * Finds the first event: scans the year from the current day for a bucket whose head falls in
+	 * the day being scanned, or falls back to the earliest bucket head after a whole empty year.
+	 *
+	 * @return the node of the first event, or <tt>null</tt> if the list is empty
+	 */
+	private Node findFirst() {
+		if (first != null || size == 0) {
+			return first;
+		}
+		int bucket = (int) (currentDay % buckets.length);
+		for (int i = 0; i < buckets.length; i++) {
+			Node head = buckets[bucket];
+			if (head != null && dayOf(head.time) == currentDay) {
+				first = head;
+				return first;
+			}
+			currentDay++;
+			if (++bucket == buckets.length) {
+				bucket = 0;
+			}
+		}
+
+		// Sparse year, jump directly to the earliest event
+		for (Node head : buckets) {
+			if (head != null && (first == null || precedes(head, first))) {
+				first = head;
+			}
+		}
+		currentDay = dayOf(first.time);
+		return first;
+	}
+
+	/**
+	 * Inserts a node at its place in the sorted list of its bucket.
+	 *
+	 * @param node the node
+	 */
+	private void insert(Node node) {
+		long day = dayOf(node.time);
+		if (day < currentDay) {
+			currentDay = day;
+		}
+		int bucket = (int) (day % buckets.length);
+		Node tail = tails[bucket];
+		if (tail == null || precedes(tail, node)) {
+			node.next = null;
+			if (tail == null) {
+				buckets[bucket] = node;
+			} else {
+				tail.next = node;
+			}
+			tails[bucket] = node;
+			return;
+		}
+
+		Node previous = null;
+		Node current = buckets[bucket];
+		while (!precedes(node, current)) {
+			previous = current;
+			current = current.next;
+		}
+		node.next = current;
+		if (previous == null) {
+			buckets[bucket] = node;
+		} else {
+			previous.next = node;
+		}
+	}
+
+	private void unlink(int bucket, Node previous, Node node) {
+		if (previous == null) {
+			buckets[bucket] = node.next;
+		} else {
+			previous.next = node.next;
+		}
+		if (node == tails[bucket]) {
+			tails[bucket] = previous;
+		}
+		if (node == first) {
+			first = null;
+		}
+		size--;
+	}
+
+	private void recycle(Node node) {
+		node.event = null;
+		node.next = freeNodes;
+		freeNodes = node;
+	}
+
+	/**
+	 * Rebuilds the calendar with another number of buckets and a day width estimated from the
+	 * average spacing of the first events, ignoring the gaps larger than twice that average.
+	 *
+	 * @param bucketCount the new number of buckets
+	 */
+	private void resize(int bucketCount) {
+		Node[] nodes = new Node[size];
+		int count = 0;
+		for (Node head : buckets) {
+			for (Node node = head; node != null; node = node.next) {
+				nodes[count++] = node;
+			}
+		}
+		Arrays.sort(nodes, (a, b) -> precedes(a, b) ? -1 : (precedes(b, a) ? 1 : 0));
+
+		int sample = Math.min(count, WIDTH_SAMPLE);
+		if (sample > 1) {
+			double average = (nodes[sample - 1].time - nodes[0].time) / (sample - 1);
+			double total = 0;
+			int gaps = 0;
+			for (int i = 1; i < sample; i++) {
+				double gap = nodes[i].time - nodes[i - 1].time;
+				if (gap <= 2 * average) {
+					total += gap;
+					gaps++;
+				}
+			}
+			if (total > 0) {
+				width = 3 * total / gaps;
+			}
+		}
+
+		buckets = new Node[bucketCount];
+		tails = new Node[bucketCount];
+		currentDay = count > 0 ? dayOf(nodes[0].time) : 0;
+		// Insert backwards so that each node goes to the head of its bucket
+		for (int i = count - 1; i >= 0; i--) {
+			int bucket = bucketOf(nodes[i].time);
+			if (buckets[bucket] == null) {
+				tails[bucket] = nodes[i];
+			}
+			nodes[i].next = buckets[bucket];
+			buckets[bucket] = nodes[i];
+		}
+		first = count > 0 ? nodes[0] : null;
+	}
+
+	private long dayOf(double time) {
+		return (long) (time / width);
+	}
+
+	private int bucketOf(double time) {
+		return (int) (dayOf(time) % buckets.length);
+	}
+
+	private static boolean precedes(Node node, Node other) {
+		if (node.time != other.time) {
+			return node.time < other.time;
+		}
+		if (node.sendTime != other.sendTime) {
+			return node.sendTime < other.sendTime;
+		}
+		if (node.serial != other.serial) {
+			return node.serial < other.serial;
+		}
+		return node.sequence < other.sequence;
+	}
+
+}
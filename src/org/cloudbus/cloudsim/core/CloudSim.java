@@ -9,13 +9,18 @@
 package org.cloudbus.cloudsim.core;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.core.predicates.Predicate;
@@ -39,31 +44,9 @@ public class CloudSim {
 	/** The Constant CLOUDSIM_VERSION_STRING. */
 	private static final String CLOUDSIM_VERSION_STRING = "3.0";
 
-	/** The id of CIS entity. */
-	private static int cisId = -1;
-
-	/** The id of CloudSimShutdown entity. */
-	@SuppressWarnings("unused")
-	private static int shutdownId = -1;
-
-	/** The CIS object. */
-	private static CloudInformationService cis = null;
-
 	/** The Constant NOT_FOUND. */
 	private static final int NOT_FOUND = -1;
 
-	/** The trace flag. */
-	@SuppressWarnings("unused")
-	private static boolean traceFlag = false;
-
-	/** The calendar. */
-	private static Calendar calendar = null;
-
-	/** The termination time. */
-	private static double terminateAt = -1;
-
-	/** The minimal time between events. Events within shorter periods after the last event are discarded. */
-	private static double minTimeBetweenEvents = 0.1;
 	
 	/**
 	 * Initialises all the common attributes.
@@ -78,21 +61,22 @@ public class CloudSim {
 	 */
 	private static void initCommonVariable(Calendar _calendar, boolean _traceFlag, int numUser)
 			throws Exception {
+		SimulationContext context = SimulationContext.current();
 		initialize();
 		// NOTE: the order for the below 3 lines are important
-		traceFlag = _traceFlag;
+		context.traceFlag = _traceFlag;
 
 		// Set the current Wall clock time as the starting time of
 		// simulation
 		if (_calendar == null) {
-			calendar = Calendar.getInstance();
+			context.calendar = Calendar.getInstance();
 		} else {
-			calendar = _calendar;
+			context.calendar = _calendar;
 		}
 
 		// creates a CloudSimShutdown object
 		CloudSimShutdown shutdown = new CloudSimShutdown("CloudSimShutdown", numUser);
-		shutdownId = shutdown.getId();
+		context.shutdownId = shutdown.getId();
 	}
 
 	/**
@@ -117,14 +101,15 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static void init(int numUser, Calendar cal, boolean traceFlag) {
+		SimulationContext context = SimulationContext.current();
 		try {
 			initCommonVariable(cal, traceFlag, numUser);
 
 			// create a GIS object
-			cis = new CloudInformationService("CloudInformationService");
+			context.cis = new CloudInformationService("CloudInformationService");
 
 			// set all the above entity IDs
-			cisId = cis.getId();
+			context.cisId = context.cis.getId();
 		} catch (IllegalArgumentException s) {
 			Log.printLine("CloudSim.init(): The simulation has been terminated due to an unexpected error");
 			Log.printLine(s.getMessage());
@@ -158,12 +143,120 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static void init(int numUser, Calendar cal, boolean traceFlag, double periodBetweenEvents) {
+		SimulationContext context = SimulationContext.current();
 	    if (periodBetweenEvents <= 0) {
 		throw new IllegalArgumentException("The minimal time between events should be positive, but is:" + periodBetweenEvents);
 	    }
 	    
 	    init(numUser, cal, traceFlag);
-	    minTimeBetweenEvents = periodBetweenEvents;
+	    context.minTimeBetweenEvents = periodBetweenEvents;
+	}
+
+	/**
+	 * Initialises CloudSim parameters with a given implementation of the future event list. This
+	 * method should be called before creating any entities. The implementation is kept for the
+	 * following simulations.
+	 * <p>
+	 * All implementations process the events in the same order: by time, then in the order they
+	 * were sent. The tree set is the original implementation; the heap and the calendar queue are
+	 * faster when many events are pending.
+	 * 
+	 * @param numUser the number of User Entities created
+	 * @param cal starting time for this simulation. If it is <tt>null</tt>, then the time will be
+	 *            taken from <tt>Calendar.getInstance()</tt>
+	 * @param traceFlag <tt>true</tt> if CloudSim trace need to be written
+	 * @param implementation the implementation of the future event list
+	 * @see #init(int, Calendar, boolean)
+	 * @pre numUser >= 0
+	 * @post $none
+	 */
+	public static void init(int numUser, Calendar cal, boolean traceFlag, FutureQueue.Implementation implementation) {
+		SimulationContext context = SimulationContext.current();
+		if (implementation == null) {
+			throw new IllegalArgumentException("The future event list implementation should not be null.");
+		}
+
+		context.futureQueueImplementation = implementation;
+		init(numUser, cal, traceFlag);
+	}
+
+	/**
+	 * Returns the implementation of the future event list.
+	 * 
+	 * @return the implementation of the future event list
+	 */
+	public static FutureQueue.Implementation getFutureQueueImplementation() {
+		SimulationContext context = SimulationContext.current();
+		return context.futureQueueImplementation;
+	}
+
+	/**
+	 * Runs the next simulation in parallel. The entities are partitioned into logical processes,
+	 * each one with its own clock and event queues, and the logical processes advance together by
+	 * time windows as wide as the lookahead (conservative time-window synchronization). Within a
+	 * window, each logical process runs on one of the threads and processes its events without
+	 * waiting for the others, since no event sent by another logical process can be due before the
+	 * end of the window. The events sent between logical processes are delivered at the end of the
+	 * window.
+	 * <p>
+	 * The simulation gives the same results as a sequential run as long as:
+	 * <ul>
+	 * <li>every event sent to an entity of another logical process is due at least one lookahead
+	 * later, which is checked;
+	 * <li>the entities of different logical processes share no mutable state, except through
+	 * {@link #runInOrder(Runnable)} or during the synchronous ticks;
+	 * <li>no entity is added while the simulation runs.
+	 * </ul>
+	 * The ticks at the start time and at the time of the synchronous events are run on the main
+	 * thread, like a sequential run, so the events sent by these ticks may have any delay.
+	 * <p>
+	 * This method should be called after creating all the entities and before starting the
+	 * simulation. The partition holds for one simulation only.
+	 * 
+	 * @param processOfEntity the index of the logical process of each entity, by entity id
+	 * @param lookahead the minimal delay of the events sent between logical processes
+	 * @param numThreads the number of threads running the logical processes
+	 * @see #sendSynchronous(int, int, double, int, Object)
+	 * @see #runInOrder(Runnable)
+	 */
+	public static void enableParallelExecution(int[] processOfEntity, double lookahead, int numThreads) {
+		SimulationContext context = SimulationContext.current();
+		if (context.running) {
+			throw new IllegalStateException("The parallel execution should be enabled before starting the simulation.");
+		}
+		if (lookahead <= 0) {
+			throw new IllegalArgumentException("The lookahead should be positive, but is:" + lookahead);
+		}
+		if (numThreads < 1) {
+			throw new IllegalArgumentException("The number of threads should be positive, but is:" + numThreads);
+		}
+		if (processOfEntity.length >= 1 << LogicalProcess.ENTITY_BITS) {
+			throw new IllegalArgumentException("Too many entities for a parallel run: " + processOfEntity.length);
+		}
+		for (int process : processOfEntity) {
+			if (process < 0) {
+				throw new IllegalArgumentException("The logical processes should have non negative indexes, but one is:"
+						+ process);
+			}
+		}
+
+		context.processOfEntity = processOfEntity.clone();
+		context.lookahead = lookahead;
+		context.numThreads = numThreads;
+	}
+
+	/**
+	 * Checks if two entities belong to the same logical process, which is always the case unless
+	 * the simulation runs in parallel.
+	 * 
+	 * @param id the id of an entity
+	 * @param otherId the id of another entity
+	 * @return true, if the entities may share mutable state
+	 * @see #enableParallelExecution(int[], double, int)
+	 */
+	public static boolean inSameLogicalProcess(int id, int otherId) {
+		SimulationContext context = SimulationContext.current();
+		return context.processOfEntity == null || context.processOfEntity[id] == context.processOfEntity[otherId];
 	}
 	
 	
@@ -183,16 +276,17 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static double startSimulation() throws NullPointerException {
+		SimulationContext context = SimulationContext.current();
 		Log.printLine("Starting CloudSim version " + CLOUDSIM_VERSION_STRING);
 		try {
 			double clock = run();
 
 			// reset all static variables
-			cisId = -1;
-			shutdownId = -1;
-			cis = null;
-			calendar = null;
-			traceFlag = false;
+			context.cisId = -1;
+			context.shutdownId = -1;
+			context.cis = null;
+			context.calendar = null;
+			context.traceFlag = false;
 
 			return clock;
 		} catch (IllegalArgumentException e) {
@@ -229,7 +323,8 @@ public class CloudSim {
 	 * @return true, if successful; false otherwise.
 	 */
 	public static boolean terminateSimulation() {
-		running = false;
+		SimulationContext context = SimulationContext.current();
+		context.running = false;
 		printMessage("Simulation: Reached termination time.");
 		return true;
 	}
@@ -241,10 +336,11 @@ public class CloudSim {
 	 * @return true, if successful otherwise.
 	 */
 	public static boolean terminateSimulation(double time) {
-		if (time <= clock) {
+		SimulationContext context = SimulationContext.current();
+		if (time <= clock()) {
 			return false;
 		} else {
-			terminateAt = time;
+			context.terminateAt = time;
 		}
 		return true;
 	}
@@ -255,7 +351,8 @@ public class CloudSim {
 	 * @return the minimum time between events.
 	 */
 	public static double getMinTimeBetweenEvents() {
-	    return minTimeBetweenEvents;
+		SimulationContext context = SimulationContext.current();
+	    return context.minTimeBetweenEvents;
 	}
 
 	/**
@@ -268,10 +365,11 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static Calendar getSimulationCalendar() {
+		SimulationContext context = SimulationContext.current();
 		// make a new copy
-		Calendar clone = calendar;
-		if (calendar != null) {
-			clone = (Calendar) calendar.clone();
+		Calendar clone = context.calendar;
+		if (context.calendar != null) {
+			clone = (Calendar) context.calendar.clone();
 		}
 
 		return clone;
@@ -285,7 +383,8 @@ public class CloudSim {
 	 * @post $result >= -1
 	 */
 	public static int getCloudInfoServiceEntityId() {
-		return cisId;
+		SimulationContext context = SimulationContext.current();
+		return context.cisId;
 	}
 
 	/**
@@ -298,59 +397,28 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static List<Integer> getCloudResourceList() {
-		if (cis == null) {
+		SimulationContext context = SimulationContext.current();
+		if (context.cis == null) {
 			return null;
 		}
 
-		return cis.getList();
+		return context.cis.getList();
 	}
 
 	// ======== SIMULATION METHODS ===============//
 
-	/** The entities. */
-	private static List<SimEntity> entities;
-
-	/** The future event queue. */
-	protected static FutureQueue future;
-
-	/** The deferred event queue. */
-	protected static DeferredQueue deferred;
-
-	/** The simulation clock. */
-	private static double clock;
-
-	/** Flag for checking if the simulation is running. */
-	private static boolean running;
-
-	/** The entities by name. */
-	private static Map<String, SimEntity> entitiesByName;
-
-	// The predicates used in entity wait methods
-	/** The wait predicates. */
-	private static Map<Integer, Predicate> waitPredicates;
-
-	/** The paused. */
-	private static boolean paused = false;
-
-	/** The pause at. */
-	private static long pauseAt = -1;
-
-	/** The abrupt terminate. */
-	private static boolean abruptTerminate = false;
-
 	/**
 	 * Initialise the simulation for stand alone simulations. This function should be called at the
 	 * start of the simulation.
 	 */
 	protected static void initialize() {
+		SimulationContext context = SimulationContext.current();
 		Log.printLine("Initialising...");
-		entities = new ArrayList<SimEntity>();
-		entitiesByName = new LinkedHashMap<String, SimEntity>();
-		future = new FutureQueue();
-		deferred = new DeferredQueue();
-		waitPredicates = new HashMap<Integer, Predicate>();
-		clock = 0;
-		running = false;
+		context.entities = new ArrayList<SimEntity>();
+		context.entitiesByName = new LinkedHashMap<String, SimEntity>();
+		context.processes = new LogicalProcess[] {new LogicalProcess(0, context.futureQueueImplementation)};
+		context.processOfEntity = null;
+		context.running = false;
 	}
 
 	// The two standard predicates
@@ -369,7 +437,33 @@ public class CloudSim {
 	 * @return the simulation time
 	 */
 	public static double clock() {
-		return clock;
+		SimulationContext context = SimulationContext.current();
+		return context.processes == null ? 0 : currentProcess(context).clock;
+	}
+
+	/**
+	 * Gets the logical process of the calling thread.
+	 * 
+	 * @param context the context of the simulation
+	 * @return the logical process
+	 */
+	private static LogicalProcess currentProcess(SimulationContext context) {
+		if (context.parallel) {
+			LogicalProcess process = LogicalProcess.CURRENT.get();
+			return process != null ? process : context.coordinator;
+		}
+		return context.processes[0];
+	}
+
+	/**
+	 * Gets the logical process of an entity.
+	 * 
+	 * @param context the context of the simulation
+	 * @param id the id of the entity
+	 * @return the logical process
+	 */
+	private static LogicalProcess processOf(SimulationContext context, int id) {
+		return context.parallel ? context.processes[context.processOfEntity[id]] : context.processes[0];
 	}
 
 	/**
@@ -378,7 +472,8 @@ public class CloudSim {
 	 * @return The number of entities
 	 */
 	public static int getNumEntities() {
-		return entities.size();
+		SimulationContext context = SimulationContext.current();
+		return context.entities.size();
 	}
 
 	/**
@@ -388,7 +483,8 @@ public class CloudSim {
 	 * @return The entity, or if it could not be found
 	 */
 	public static SimEntity getEntity(int id) {
-		return entities.get(id);
+		SimulationContext context = SimulationContext.current();
+		return context.entities.get(id);
 	}
 
 	/**
@@ -398,7 +494,8 @@ public class CloudSim {
 	 * @return The entity
 	 */
 	public static SimEntity getEntity(String name) {
-		return entitiesByName.get(name);
+		SimulationContext context = SimulationContext.current();
+		return context.entitiesByName.get(name);
 	}
 
 	/**
@@ -408,7 +505,8 @@ public class CloudSim {
 	 * @return The entity's unique id number
 	 */
 	public static int getEntityId(String name) {
-		SimEntity obj = entitiesByName.get(name);
+		SimulationContext context = SimulationContext.current();
+		SimEntity obj = context.entitiesByName.get(name);
 		if (obj == null) {
 			return NOT_FOUND;
 		} else {
@@ -455,10 +553,11 @@ public class CloudSim {
 	 * @return the entity iterator
 	 */
 	public static List<SimEntity> getEntityList() {
+		SimulationContext context = SimulationContext.current();
 		// create a new list to prevent the user from changing
 		// the list of entities used by Simulation
 		List<SimEntity> list = new LinkedList<SimEntity>();
-		list.addAll(entities);
+		list.addAll(context.entities);
 		return list;
 	}
 
@@ -471,17 +570,21 @@ public class CloudSim {
 	 * @param e The new entity
 	 */
 	public static void addEntity(SimEntity e) {
+		SimulationContext context = SimulationContext.current();
 		SimEvent evt;
-		if (running) {
+		if (context.running) {
+			if (context.parallel) {
+				throw new IllegalStateException("Entities can't be added to a simulation running in parallel.");
+			}
 			// Post an event to make this entity
-			evt = new SimEvent(SimEvent.CREATE, clock, 1, 0, 0, e);
-			future.addEvent(evt);
+			evt = new SimEvent(SimEvent.CREATE, clock(), 1, 0, 0, e);
+			context.processes[0].future.addEvent(evt);
 		}
 		if (e.getId() == -1) { // Only add once!
-			int id = entities.size();
+			int id = context.entities.size();
 			e.setId(id);
-			entities.add(e);
-			entitiesByName.put(e.getName(), e);
+			context.entities.add(e);
+			context.entitiesByName.put(e.getName(), e);
 		}
 	}
 
@@ -507,51 +610,19 @@ public class CloudSim {
 	 * @return true, if successful otherwise
 	 */
 	public static boolean runClockTick() {
-		SimEntity ent;
-		boolean queue_empty;
-		
-		int entities_size = entities.size();
-
-		for (int i = 0; i < entities_size; i++) {
-			ent = entities.get(i);
-			if (ent.getState() == SimEntity.RUNNABLE) {
-				ent.run();
-			}
-		}
-				
-		// If there are more future events then deal with them
-		if (future.size() > 0) {
-			List<SimEvent> toRemove = new ArrayList<SimEvent>();
-			Iterator<SimEvent> fit = future.iterator();
-			queue_empty = false;
-			SimEvent first = fit.next();
-			processEvent(first);
-			future.remove(first);
-
-			fit = future.iterator();
-
-			// Check if next events are at same time...
-			boolean trymore = fit.hasNext();
-			while (trymore) {
-				SimEvent next = fit.next();
-				if (next.eventTime() == first.eventTime()) {
-					processEvent(next);
-					toRemove.add(next);
-					trymore = fit.hasNext();
-				} else {
-					trymore = false;
-				}
-			}
+		SimulationContext context = SimulationContext.current();
+		LogicalProcess process = context.processes[0];
+		process.runReadyEntities();
 
-			future.removeAll(toRemove);
-
-		} else {
-			queue_empty = true;
-			running = false;
-			printMessage("Simulation: No more future events");
+		// If there are more future events then deal with them
+		if (process.future.size() > 0) {
+			process.processEvents();
+			return false;
 		}
 
-		return queue_empty;
+		context.running = false;
+		printMessage("Simulation: No more future events");
+		return true;
 	}
 
 	/**
@@ -568,9 +639,11 @@ public class CloudSim {
 	 * @param delay the delay
 	 */
 	public static void hold(int src, long delay) {
-		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, clock + delay, src);
-		future.addEvent(e);
-		entities.get(src).setState(SimEntity.HOLDING);
+		SimulationContext context = SimulationContext.current();
+		LogicalProcess sender = currentProcess(context);
+		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, sender.clock + delay, src);
+		schedule(context, sender, e, src, false);
+		context.entities.get(src).setState(SimEntity.HOLDING);
 	}
 
 	/**
@@ -580,9 +653,11 @@ public class CloudSim {
 	 * @param delay the delay
 	 */
 	public static void pause(int src, double delay) {
-		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, clock + delay, src);
-		future.addEvent(e);
-		entities.get(src).setState(SimEntity.HOLDING);
+		SimulationContext context = SimulationContext.current();
+		LogicalProcess sender = currentProcess(context);
+		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, sender.clock + delay, src);
+		schedule(context, sender, e, src, false);
+		context.entities.get(src).setState(SimEntity.HOLDING);
 	}
 
 	/**
@@ -599,8 +674,64 @@ public class CloudSim {
 			throw new IllegalArgumentException("Send delay can't be negative.");
 		}
 
-		SimEvent e = new SimEvent(SimEvent.SEND, clock + delay, src, dest, tag, data);
-		future.addEvent(e);
+		SimulationContext context = SimulationContext.current();
+		LogicalProcess sender = currentProcess(context);
+		SimEvent e = new SimEvent(SimEvent.SEND, sender.clock + delay, src, dest, tag, data);
+		schedule(context, sender, e, dest, false);
+	}
+
+	/**
+	 * Used to send an event from one entity to another, due at a given time rather than after a
+	 * delay, so that the time is exactly the one computed by the sender.
+	 * 
+	 * @param src the src
+	 * @param dest the dest
+	 * @param time the time the event is due, not before the current simulation time
+	 * @param tag the tag
+	 * @param data the data
+	 */
+	public static void sendAt(int src, int dest, double time, int tag, Object data) {
+		SimulationContext context = SimulationContext.current();
+		LogicalProcess sender = currentProcess(context);
+		if (time < sender.clock) {
+			throw new IllegalArgumentException("Send time can't be before the current time.");
+		}
+
+		SimEvent e = new SimEvent(SimEvent.SEND, time, src, dest, tag, data);
+		schedule(context, sender, e, dest, false);
+	}
+
+	/**
+	 * Used to send a synchronous event from one entity to another. A synchronous event behaves as
+	 * any other event in a sequential run. In a parallel run, all the logical processes stop at its
+	 * time and the events of that time are processed on the main thread, so its processing may
+	 * send events without delay to any entity or read the state of all the entities. It has to be
+	 * sent at least one lookahead ahead, or from a synchronous tick.
+	 * 
+	 * @param src the src
+	 * @param dest the dest
+	 * @param delay the delay
+	 * @param tag the tag
+	 * @param data the data
+	 * @see #enableParallelExecution(int[], double, int)
+	 */
+	public static void sendSynchronous(int src, int dest, double delay, int tag, Object data) {
+		SimulationContext context = SimulationContext.current();
+		send(src, dest, delay, tag, data);
+		if (!context.parallel) {
+			return;
+		}
+
+		LogicalProcess sender = currentProcess(context);
+		double time = sender.clock + delay;
+		if (context.windowEnd < 0) {
+			context.synchronousTimes.add(time);
+		} else if (time < context.windowEnd) {
+			throw new IllegalStateException("The synchronous event sent by entity #" + src + " at time " + sender.clock
+					+ " is due before the end of the time window, at " + context.windowEnd);
+		} else {
+			sender.synchronousTimes.add(time);
+		}
 	}
 
 	/**
@@ -617,8 +748,71 @@ public class CloudSim {
 			throw new IllegalArgumentException("Send delay can't be negative.");
 		}
 
-		SimEvent e = new SimEvent(SimEvent.SEND, clock + delay, src, dest, tag, data);
-		future.addEventFirst(e);
+		SimulationContext context = SimulationContext.current();
+		LogicalProcess sender = currentProcess(context);
+		SimEvent e = new SimEvent(SimEvent.SEND, sender.clock + delay, src, dest, tag, data);
+		schedule(context, sender, e, dest, true);
+	}
+
+	/**
+	 * Puts an event in the future queue of the logical process of an entity. In a parallel run,
+	 * the event is numbered by the sending logical process, and an event for another logical
+	 * process waits in the outbox of the sender until the end of the time window.
+	 * 
+	 * @param context the context of the simulation
+	 * @param sender the logical process of the calling thread
+	 * @param e the event
+	 * @param entity the entity receiving the event
+	 * @param first whether the event goes before the events with the same time
+	 */
+	private static void schedule(SimulationContext context, LogicalProcess sender, SimEvent e, int entity,
+			boolean first) {
+		if (!context.parallel) {
+			if (first) {
+				sender.future.addEventFirst(e);
+			} else {
+				sender.future.addEvent(e);
+			}
+			return;
+		}
+
+		if (first) {
+			e.setSendTime(Double.NEGATIVE_INFINITY);
+			e.setSerial(0);
+		} else {
+			e.setSendTime(sender.clock);
+			e.setSerial(sender.nextSerial());
+		}
+		LogicalProcess receiver = context.processes[context.processOfEntity[entity]];
+		if (receiver == sender || context.windowEnd < 0) {
+			receiver.future.addOrderedEvent(e);
+		} else if (e.eventTime() < context.windowEnd) {
+			throw new IllegalStateException("The event sent by entity #" + e.getSource() + " to entity #" + entity
+					+ " at time " + sender.clock + " is due at " + e.eventTime()
+					+ ", before the end of the time window: the lookahead " + context.lookahead + " is too large");
+		} else {
+			sender.outbox.add(e);
+		}
+	}
+
+	/**
+	 * Runs an action updating state shared by all the entities, such as statistics. In a
+	 * sequential run, or outside the time windows of a parallel run, the action runs immediately.
+	 * Within a time window, the action is deferred to the end of the window and run on the main
+	 * thread, with the actions of all the logical processes in the order a sequential run would
+	 * have run them and with the clock at the time it was requested. The action should therefore
+	 * not send events, and the caller should not expect to see its effect before the next window.
+	 * 
+	 * @param action the action
+	 * @see #enableParallelExecution(int[], double, int)
+	 */
+	public static void runInOrder(Runnable action) {
+		SimulationContext context = SimulationContext.current();
+		if (context.parallel && context.windowEnd >= 0) {
+			LogicalProcess.CURRENT.get().addOrderedAction(action);
+		} else {
+			action.run();
+		}
 	}
 
 	/**
@@ -630,10 +824,11 @@ public class CloudSim {
 	 * @param p the p
 	 */
 	public static void wait(int src, Predicate p) {
-		entities.get(src).setState(SimEntity.WAITING);
+		SimulationContext context = SimulationContext.current();
+		context.entities.get(src).setState(SimEntity.WAITING);
 		if (p != SIM_ANY) {
 			// If a predicate has been used store it in order to check it
-			waitPredicates.put(src, p);
+			processOf(context, src).waitPredicates.put(src, p);
 		}
 	}
 
@@ -645,16 +840,7 @@ public class CloudSim {
 	 * @return the int
 	 */
 	public static int waiting(int d, Predicate p) {
-		int count = 0;
-		SimEvent event;
-		Iterator<SimEvent> iterator = deferred.iterator();
-		while (iterator.hasNext()) {
-			event = iterator.next();
-			if ((event.getDestination() == d) && (p.match(event))) {
-				count++;
-			}
-		}
-		return count;
+		return processOf(SimulationContext.current(), d).deferred.count(d, p);
 	}
 
 	/**
@@ -662,19 +848,10 @@ public class CloudSim {
 	 * 
 	 * @param src the src
 	 * @param p the p
-	 * @return the sim event
+	 * @return the sim event, or <tt>null</tt> if none matches
 	 */
 	public static SimEvent select(int src, Predicate p) {
-		SimEvent ev = null;
-		Iterator<SimEvent> iterator = deferred.iterator();
-		while (iterator.hasNext()) {
-			ev = iterator.next();
-			if (ev.getDestination() == src && p.match(ev)) {
-				iterator.remove();
-				break;
-			}
-		}
-		return ev;
+		return processOf(SimulationContext.current(), src).deferred.select(src, p);
 	}
 
 	/**
@@ -682,126 +859,50 @@ public class CloudSim {
 	 * 
 	 * @param src the src
 	 * @param p the p
-	 * @return the sim event
+	 * @return the sim event, or <tt>null</tt> if none matches
 	 */
 	public static SimEvent findFirstDeferred(int src, Predicate p) {
-		SimEvent ev = null;
-		Iterator<SimEvent> iterator = deferred.iterator();
-		while (iterator.hasNext()) {
-			ev = iterator.next();
-			if (ev.getDestination() == src && p.match(ev)) {
-				break;
-			}
-		}
-		return ev;
+		return processOf(SimulationContext.current(), src).deferred.findFirst(src, p);
 	}
 
 	/**
-	 * Removes an event from the event queue.
+	 * Removes an event from the event queue. In a parallel run, only the events sent to the
+	 * entities of the logical process of the source can be cancelled.
 	 * 
 	 * @param src the src
 	 * @param p the p
 	 * @return the sim event
 	 */
 	public static SimEvent cancel(int src, Predicate p) {
+		SimulationContext context = SimulationContext.current();
+		FutureQueue future = processOf(context, src).future;
+		// The iterator is not ordered for every implementation, so look for the earliest match
 		SimEvent ev = null;
 		Iterator<SimEvent> iter = future.iterator();
 		while (iter.hasNext()) {
-			ev = iter.next();
-			if (ev.getSource() == src && p.match(ev)) {
-				iter.remove();
-				break;
+			SimEvent next = iter.next();
+			if (next.getSource() == src && p.match(next) && (ev == null || next.compareTo(ev) < 0)) {
+				ev = next;
 			}
 		}
+		if (ev != null) {
+			future.remove(ev);
+		}
 
 		return ev;
 	}
 
 	/**
 	 * Removes all events that match a given predicate from the future event queue returns true if
-	 * at least one event has been cancelled; false otherwise.
+	 * at least one event has been cancelled; false otherwise. In a parallel run, only the events
+	 * sent to the entities of the logical process of the source can be cancelled.
 	 * 
 	 * @param src the src
 	 * @param p the p
 	 * @return true, if successful
 	 */
 	public static boolean cancelAll(int src, Predicate p) {
-		SimEvent ev = null;
-		int previousSize = future.size();
-		Iterator<SimEvent> iter = future.iterator();
-		while (iter.hasNext()) {
-			ev = iter.next();
-			if (ev.getSource() == src && p.match(ev)) {
-				iter.remove();
-			}
-		}
-		return previousSize < future.size();
-	}
-
-	//
-	// Private internal methods
-	//
-
-	/**
-	 * Processes an event.
-	 * 
-	 * @param e the e
-	 */
-	private static void processEvent(SimEvent e) {
-		int dest, src;
-		SimEntity dest_ent;
-		// Update the system's clock
-		if (e.eventTime() < clock) {
-			throw new IllegalArgumentException("Past event detected.");
-		}
-		clock = e.eventTime();
-
-		// Ok now process it
-		switch (e.getType()) {
-			case SimEvent.ENULL:
-				throw new IllegalArgumentException("Event has a null type.");
-
-			case SimEvent.CREATE:
-				SimEntity newe = (SimEntity) e.getData();
-				addEntityDynamically(newe);
-				break;
-
-			case SimEvent.SEND:
-				// Check for matching wait
-				dest = e.getDestination();
-				if (dest < 0) {
-					throw new IllegalArgumentException("Attempt to send to a null entity detected.");
-				} else {
-					int tag = e.getTag();
-					dest_ent = entities.get(dest);
-					if (dest_ent.getState() == SimEntity.WAITING) {
-						Integer destObj = Integer.valueOf(dest);
-						Predicate p = waitPredicates.get(destObj);
-						if ((p == null) || (tag == 9999) || (p.match(e))) {
-							dest_ent.setEventBuffer((SimEvent) e.clone());
-							dest_ent.setState(SimEntity.RUNNABLE);
-							waitPredicates.remove(destObj);
-						} else {
-							deferred.addEvent(e);
-						}
-					} else {
-						deferred.addEvent(e);
-					}
-				}
-				break;
-
-			case SimEvent.HOLD_DONE:
-				src = e.getSource();
-				if (src < 0) {
-					throw new IllegalArgumentException("Null entity holding.");
-				} else {
-					entities.get(src).setState(SimEntity.RUNNABLE);
-				}
-				break;
-
-			default:
-				break;
-		}
+		return processOf(SimulationContext.current(), src).future.removeIf(ev -> ev.getSource() == src && p.match(ev));
 	}
 
 	/**
@@ -809,10 +910,22 @@ public class CloudSim {
 	 * simulations.
 	 */
 	public static void runStart() {
-		running = true;
+		SimulationContext context = SimulationContext.current();
+		context.running = true;
 		// Start all the entities
-		for (SimEntity ent : entities) {
-			ent.startEntity();
+		for (SimEntity ent : context.entities) {
+			if (context.parallel) {
+				LogicalProcess process = processOf(context, ent.getId());
+				LogicalProcess.CURRENT.set(process);
+				process.start(ent);
+			} else {
+				ent.startEntity();
+			}
+		}
+		LogicalProcess.CURRENT.remove();
+		// and give all of them a first run
+		for (SimEntity ent : context.entities) {
+			processOf(context, ent.getId()).addReadyEntity(ent.getId());
 		}
 
 		printMessage("Entities started.");
@@ -825,7 +938,8 @@ public class CloudSim {
 	 * @return if the simulation is still running, otherwise
 	 */
 	public static boolean running() {
-		return running;
+		SimulationContext context = SimulationContext.current();
+		return context.running;
 	}
 
 	/**
@@ -834,8 +948,9 @@ public class CloudSim {
 	 * @return true, if successful otherwise.
 	 */
 	public static boolean pauseSimulation() {
-		paused = true;
-		return paused;
+		SimulationContext context = SimulationContext.current();
+		context.paused = true;
+		return context.paused;
 	}
 
 	/**
@@ -845,10 +960,11 @@ public class CloudSim {
 	 * @return true, if successful otherwise.
 	 */
 	public static boolean pauseSimulation(long time) {
-		if (time <= clock) {
+		SimulationContext context = SimulationContext.current();
+		if (time <= clock()) {
 			return false;
 		} else {
-			pauseAt = time;
+			context.pauseAt = time;
 		}
 		return true;
 	}
@@ -859,13 +975,14 @@ public class CloudSim {
 	 * @return if the simulation has been restarted or or otherwise.
 	 */
 	public static boolean resumeSimulation() {
-		paused = false;
+		SimulationContext context = SimulationContext.current();
+		context.paused = false;
 
-		if (pauseAt <= clock) {
-			pauseAt = -1;
+		if (context.pauseAt <= clock()) {
+			context.pauseAt = -1;
 		}
 
-		return !paused;
+		return !context.paused;
 	}
 
 	/**
@@ -875,43 +992,314 @@ public class CloudSim {
 	 * @return the double last clock value
 	 */
 	public static double run() {
-		if (!running) {
+		SimulationContext context = SimulationContext.current();
+		if (context.processOfEntity != null && !context.parallel) {
+			startParallelExecution();
+		}
+		if (!context.running) {
 			runStart();
 		}
-		while (true) {
-			if (runClockTick() || abruptTerminate) {
+		if (context.parallel) {
+			runTimeWindows();
+		} else {
+			while (true) {
+				if (runClockTick() || context.abruptTerminate) {
+					break;
+				}
+
+				// this block allows termination of simulation at a specific time
+				if (context.terminateAt > 0.0 && clock() >= context.terminateAt) {
+					terminateSimulation();
+					setClock(context.terminateAt);
+					break;
+				}
+
+				pauseIfReached();
+			}
+		}
+
+		double clock = clock();
+
+		finishSimulation();
+		runStop();
+
+		return clock;
+	}
+
+	/**
+	 * Replaces the single logical process of the simulation by the logical processes of the
+	 * partition, and starts the threads running them.
+	 */
+	private static void startParallelExecution() {
+		SimulationContext context = SimulationContext.current();
+		if (context.processOfEntity.length != context.entities.size()) {
+			throw new IllegalStateException("The partition covers " + context.processOfEntity.length
+					+ " entities, but the simulation has " + context.entities.size());
+		}
+		int numProcesses = 0;
+		for (int process : context.processOfEntity) {
+			numProcesses = Math.max(numProcesses, process + 1);
+		}
+
+		LogicalProcess sequential = context.processes[0];
+		context.processes = new LogicalProcess[numProcesses];
+		for (int i = 0; i < numProcesses; i++) {
+			context.processes[i] = new LogicalProcess(i, context.futureQueueImplementation);
+		}
+		context.coordinator = new LogicalProcess(-1, context.futureQueueImplementation);
+		context.synchronousTimes = new PriorityQueue<Double>();
+
+		// Move the events sent before the start, their serial numbers still order them
+		for (Iterator<SimEvent> it = sequential.future.iterator(); it.hasNext();) {
+			SimEvent e = it.next();
+			int entity = e.getType() == SimEvent.HOLD_DONE ? e.getSource() : e.getDestination();
+			context.processes[context.processOfEntity[entity]].future.addOrderedEvent(e);
+		}
+
+		if (context.numThreads > 1) {
+			context.workers = Executors.newFixedThreadPool(context.numThreads - 1, runnable -> {
+				Thread thread = new Thread(runnable, "CloudSim logical processes");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		context.parallel = true;
+		printMessage("Running " + numProcesses + " logical processes on " + context.numThreads + " threads.");
+	}
+
+	/**
+	 * Runs a parallel simulation: time windows alternate with synchronous ticks at the start time
+	 * and at the time of the synchronous events.
+	 */
+	private static void runTimeWindows() {
+		SimulationContext context = SimulationContext.current();
+		runSynchronousTicks(context.coordinator.clock);
+		while (!context.abruptTerminate) {
+			double next = nextEventTime();
+			if (next == Double.POSITIVE_INFINITY) {
+				context.running = false;
+				printMessage("Simulation: No more future events");
 				break;
 			}
 
 			// this block allows termination of simulation at a specific time
-			if (terminateAt > 0.0 && clock >= terminateAt) {
+			if (context.terminateAt > 0.0 && next >= context.terminateAt) {
+				// As a sequential run, process the first events reaching the termination time
+				for (LogicalProcess process : context.processes) {
+					if (process.nextEventTime() == next) {
+						process.processEvents();
+					}
+				}
 				terminateSimulation();
-				clock = terminateAt;
+				setClock(context.terminateAt);
 				break;
 			}
 
-			if (pauseAt != -1
-					&& ((future.size() > 0 && clock <= pauseAt && pauseAt <= future.iterator().next()
-							.eventTime()) || future.size() == 0 && pauseAt <= clock)) {
-				pauseSimulation();
-				clock = pauseAt;
+			while (!context.synchronousTimes.isEmpty() && context.synchronousTimes.peek() < next) {
+				context.synchronousTimes.poll();
+			}
+			if (!context.synchronousTimes.isEmpty() && context.synchronousTimes.peek() == next) {
+				runSynchronousTicks(next);
+			} else {
+				double end = next + context.lookahead;
+				if (!context.synchronousTimes.isEmpty()) {
+					end = Math.min(end, context.synchronousTimes.peek());
+				}
+				if (context.terminateAt > 0.0) {
+					end = Math.min(end, context.terminateAt);
+				}
+				runTimeWindow(end);
 			}
 
-			while (paused) {
-				try {
-					Thread.sleep(100);
-				} catch (InterruptedException e) {
-					e.printStackTrace();
+			pauseIfReached();
+		}
+	}
+
+	/**
+	 * Runs the ticks of a given time on the main thread, as a sequential run would: the ready
+	 * entities of all the logical processes run in id order, then the events of that time are
+	 * processed, until no event is left at that time.
+	 * 
+	 * @param time the time
+	 */
+	private static void runSynchronousTicks(double time) {
+		SimulationContext context = SimulationContext.current();
+		// No logical process has processed events at that time yet
+		for (LogicalProcess process : context.processes) {
+			process.clock = time;
+			process.batches = 0;
+		}
+		context.coordinator.clock = time;
+
+		int batches = 0;
+		while (true) {
+			int numReady = 0;
+			int[][] ready = new int[context.processes.length][];
+			for (int i = 0; i < context.processes.length; i++) {
+				ready[i] = context.processes[i].takeReadyEntities();
+				numReady += ready[i].length;
+			}
+			int[] ids = new int[numReady];
+			numReady = 0;
+			for (int[] processReady : ready) {
+				System.arraycopy(processReady, 0, ids, numReady, processReady.length);
+				numReady += processReady.length;
+			}
+			Arrays.sort(ids);
+			for (int id : ids) {
+				SimEntity ent = context.entities.get(id);
+				if (ent.getState() == SimEntity.RUNNABLE) {
+					LogicalProcess process = processOf(context, id);
+					LogicalProcess.CURRENT.set(process);
+					process.run(ent);
+				}
+			}
+			LogicalProcess.CURRENT.remove();
+
+			if (nextEventTime() != time) {
+				break;
+			}
+			batches++;
+			for (LogicalProcess process : context.processes) {
+				if (process.nextEventTime() == time) {
+					process.processEvents();
 				}
+				process.batches = batches;
 			}
 		}
 
-		double clock = clock();
+		while (!context.synchronousTimes.isEmpty() && context.synchronousTimes.peek() == time) {
+			context.synchronousTimes.poll();
+		}
+	}
 
-		finishSimulation();
-		runStop();
+	/**
+	 * Runs the logical processes up to the end of a time window, on all the threads, then delivers
+	 * the events sent between logical processes and runs the ordered actions.
+	 * 
+	 * @param end the end of the window, excluded
+	 */
+	private static void runTimeWindow(final double end) {
+		SimulationContext context = SimulationContext.current();
+		context.windowEnd = end;
+		try {
+			final AtomicInteger nextProcess = new AtomicInteger();
+			Runnable task = () -> {
+				int i;
+				while ((i = nextProcess.getAndIncrement()) < context.processes.length) {
+					LogicalProcess process = context.processes[i];
+					if (process.nextEventTime() < end) {
+						LogicalProcess.CURRENT.set(process);
+						try {
+							process.runWindow(end);
+						} finally {
+							LogicalProcess.CURRENT.remove();
+						}
+					}
+				}
+			};
+			List<Future<?>> results = new ArrayList<Future<?>>();
+			if (context.workers != null) {
+				for (int i = 1; i < context.numThreads; i++) {
+					// The workers see the context of the simulation as the main thread does
+					results.add(context.workers.submit(() -> context.run(task)));
+				}
+			}
+			task.run();
+			for (Future<?> result : results) {
+				result.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while running the logical processes.", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			context.windowEnd = -1;
+		}
 
-		return clock;
+		List<LogicalProcess.OrderedAction> actions = new ArrayList<LogicalProcess.OrderedAction>();
+		double clock = context.coordinator.clock;
+		for (LogicalProcess process : context.processes) {
+			for (SimEvent e : process.outbox) {
+				context.processes[context.processOfEntity[e.getDestination()]].future.addOrderedEvent(e);
+			}
+			process.outbox.clear();
+			context.synchronousTimes.addAll(process.synchronousTimes);
+			process.synchronousTimes.clear();
+			actions.addAll(process.orderedActions);
+			process.orderedActions.clear();
+			clock = Math.max(clock, process.clock);
+		}
+
+		Collections.sort(actions);
+		for (LogicalProcess.OrderedAction action : actions) {
+			context.coordinator.clock = action.time;
+			action.action.run();
+		}
+		context.coordinator.clock = clock;
+	}
+
+	/**
+	 * Returns the time of the next event of all the logical processes.
+	 * 
+	 * @return the time, or {@link Double#POSITIVE_INFINITY} if there is none
+	 */
+	private static double nextEventTime() {
+		SimulationContext context = SimulationContext.current();
+		double next = Double.POSITIVE_INFINITY;
+		for (LogicalProcess process : context.processes) {
+			next = Math.min(next, process.nextEventTime());
+		}
+		return next;
+	}
+
+	/**
+	 * Moves the clock of the simulation.
+	 * 
+	 * @param time the new time
+	 */
+	private static void setClock(double time) {
+		SimulationContext context = SimulationContext.current();
+		for (LogicalProcess process : context.processes) {
+			if (process.clock != time) {
+				process.clock = time;
+				process.batches = 0;
+			}
+		}
+		if (context.coordinator != null) {
+			context.coordinator.clock = time;
+		}
+	}
+
+	/**
+	 * Pauses the simulation if the pause time falls before the next event, and waits for it to be
+	 * resumed. A parallel simulation can only pause between time windows.
+	 */
+	private static void pauseIfReached() {
+		SimulationContext context = SimulationContext.current();
+		double next = nextEventTime();
+		double clock = clock();
+		if (context.pauseAt != -1
+				&& ((next != Double.POSITIVE_INFINITY && clock <= context.pauseAt && context.pauseAt <= next) || next == Double.POSITIVE_INFINITY
+						&& context.pauseAt <= clock)) {
+			pauseSimulation();
+			setClock(context.pauseAt);
+		}
+
+		while (context.paused) {
+			try {
+				Thread.sleep(100);
+			} catch (InterruptedException e) {
+				e.printStackTrace();
+			}
+		}
 	}
 
 	/**
@@ -919,39 +1307,54 @@ public class CloudSim {
 	 * in user simulations.
 	 */
 	public static void finishSimulation() {
+		SimulationContext context = SimulationContext.current();
 		// Allow all entities to exit their body method
-		if (!abruptTerminate) {
-			for (SimEntity ent : entities) {
+		if (!context.abruptTerminate) {
+			for (SimEntity ent : context.entities) {
 				if (ent.getState() != SimEntity.FINISHED) {
-					ent.run();
+					if (context.parallel) {
+						LogicalProcess process = processOf(context, ent.getId());
+						LogicalProcess.CURRENT.set(process);
+						process.run(ent);
+					} else {
+						ent.run();
+					}
 				}
 			}
+			LogicalProcess.CURRENT.remove();
 		}
 
-		for (SimEntity ent : entities) {
+		for (SimEntity ent : context.entities) {
 			ent.shutdownEntity();
 		}
 
+		if (context.workers != null) {
+			context.workers.shutdown();
+		}
+
 		// reset all static variables
 		// Private data members
-		entities = null;
-		entitiesByName = null;
-		future = null;
-		deferred = null;
-		clock = 0L;
-		running = false;
-
-		waitPredicates = null;
-		paused = false;
-		pauseAt = -1;
-		abruptTerminate = false;
+		context.entities = null;
+		context.entitiesByName = null;
+		context.processes = null;
+		context.running = false;
+
+		context.processOfEntity = null;
+		context.parallel = false;
+		context.coordinator = null;
+		context.synchronousTimes = null;
+		context.workers = null;
+		context.paused = false;
+		context.pauseAt = -1;
+		context.abruptTerminate = false;
 	}
 
 	/**
 	 * Abruptally terminate.
 	 */
 	public static void abruptallyTerminate() {
-		abruptTerminate = true;
+		SimulationContext context = SimulationContext.current();
+		context.abruptTerminate = true;
 	}
 
 	/**
@@ -969,7 +1372,8 @@ public class CloudSim {
 	 * @return true, if is paused
 	 */
 	public static boolean isPaused() {
-		return paused;
+		SimulationContext context = SimulationContext.current();
+		return context.paused;
 	}
 
 }
@@ -8,14 +8,19 @@
 
 package org.cloudbus.cloudsim.core;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
 
 /**
- * This class implements the deferred event queue used by {@link Simulation}. The event queue uses a
- * linked list to store the events.
+ * This class implements the deferred event queue used by {@link Simulation}. The events are
+ * partitioned by destination entity, each entity having its own queue ordered by event time, so
+ * an entity reaches its events without scanning the events of the other entities. Events with the
+ * same time keep their arrival order, which is the order the former single linked list gave them.
  * 
  * @author Marcos Dias de Assuncao
  * @since CloudSim Toolkit 1.0
@@ -24,11 +29,11 @@ import java.util.ListIterator;
  */
 public class DeferredQueue {
 
-	/** The list. */
-	private final List<SimEvent> list = new LinkedList<SimEvent>();
+	/** The queue of each destination entity, indexed by entity id. */
+	private final List<ArrayDeque<SimEvent>> queues = new ArrayList<ArrayDeque<SimEvent>>();
 
-	/** The max time. */
-	private double maxTime = -1;
+	/** The total number of events. */
+	private int size = 0;
 
 	/**
 	 * Adds a new event to the queue. Adding a new event to the queue preserves the temporal order
@@ -37,36 +42,136 @@ public class DeferredQueue {
 	 * @param newEvent The event to be added to the queue.
 	 */
 	public void addEvent(SimEvent newEvent) {
+		int destination = newEvent.getDestination();
+		while (queues.size() <= destination) {
+			queues.add(null);
+		}
+		ArrayDeque<SimEvent> queue = queues.get(destination);
+		if (queue == null) {
+			queue = new ArrayDeque<SimEvent>();
+			queues.set(destination, queue);
+		}
+		size++;
+
 		// The event has to be inserted as the last of all events
 		// with the same event_time(). Yes, this matters.
 		double eventTime = newEvent.eventTime();
-		if (eventTime >= maxTime) {
-			list.add(newEvent);
-			maxTime = eventTime;
+		if (queue.isEmpty() || queue.peekLast().eventTime() <= eventTime) {
+			queue.addLast(newEvent);
 			return;
 		}
 
-		ListIterator<SimEvent> iterator = list.listIterator();
-		SimEvent event;
+		// Events are deferred in time order, so this seldom moves more than a few events
+		ArrayDeque<SimEvent> later = new ArrayDeque<SimEvent>();
+		while (!queue.isEmpty() && queue.peekLast().eventTime() > eventTime) {
+			later.addFirst(queue.pollLast());
+		}
+		queue.addLast(newEvent);
+		queue.addAll(later);
+	}
+
+	/**
+	 * Counts the events sent to an entity that match a predicate. This takes constant time for
+	 * {@link CloudSim#SIM_ANY}.
+	 * 
+	 * @param destination the id of the entity
+	 * @param p the predicate
+	 * @return the number of matching events
+	 */
+	public int count(int destination, Predicate p) {
+		ArrayDeque<SimEvent> queue = getQueue(destination);
+		if (queue == null) {
+			return 0;
+		}
+		if (p == CloudSim.SIM_ANY) {
+			return queue.size();
+		}
+		int count = 0;
+		for (SimEvent event : queue) {
+			if (p.match(event)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Finds the first event sent to an entity that matches a predicate. This takes constant time
+	 * for {@link CloudSim#SIM_ANY}.
+	 * 
+	 * @param destination the id of the entity
+	 * @param p the predicate
+	 * @return the first matching event, or <tt>null</tt> if there is none
+	 */
+	public SimEvent findFirst(int destination, Predicate p) {
+		ArrayDeque<SimEvent> queue = getQueue(destination);
+		if (queue == null) {
+			return null;
+		}
+		if (p == CloudSim.SIM_ANY) {
+			return queue.peekFirst();
+		}
+		for (SimEvent event : queue) {
+			if (p.match(event)) {
+				return event;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Removes the first event sent to an entity that matches a predicate. This takes constant time
+	 * for {@link CloudSim#SIM_ANY}.
+	 * 
+	 * @param destination the id of the entity
+	 * @param p the predicate
+	 * @return the removed event, or <tt>null</tt> if there is none
+	 */
+	public SimEvent select(int destination, Predicate p) {
+		ArrayDeque<SimEvent> queue = getQueue(destination);
+		if (queue == null || queue.isEmpty()) {
+			return null;
+		}
+		if (p == CloudSim.SIM_ANY) {
+			size--;
+			return queue.pollFirst();
+		}
+		Iterator<SimEvent> iterator = queue.iterator();
 		while (iterator.hasNext()) {
-			event = iterator.next();
-			if (event.eventTime() > eventTime) {
-				iterator.previous();
-				iterator.add(newEvent);
-				return;
+			SimEvent event = iterator.next();
+			if (p.match(event)) {
+				iterator.remove();
+				size--;
+				return event;
 			}
 		}
+		return null;
+	}
 
-		list.add(newEvent);
+	/**
+	 * Returns the number of events sent to an entity.
+	 * 
+	 * @param destination the id of the entity
+	 * @return the number of events
+	 */
+	public int size(int destination) {
+		ArrayDeque<SimEvent> queue = getQueue(destination);
+		return queue == null ? 0 : queue.size();
 	}
 
 	/**
-	 * Returns an iterator to the events in the queue.
+	 * Returns an iterator to the events in the queue, grouped by destination entity.
 	 * 
 	 * @return the iterator
 	 */
 	public Iterator<SimEvent> iterator() {
-		return list.iterator();
+		List<SimEvent> events = new ArrayList<SimEvent>(size);
+		for (ArrayDeque<SimEvent> queue : queues) {
+			if (queue != null) {
+				events.addAll(queue);
+			}
+		}
+		return Collections.unmodifiableList(events).iterator();
 	}
 
 	/**
@@ -75,14 +180,19 @@ public class DeferredQueue {
 	 * @return the number of events in the queue.
 	 */
 	public int size() {
-		return list.size();
+		return size;
 	}
 
 	/**
 	 * Clears the queue.
 	 */
 	public void clear() {
-		list.clear();
+		queues.clear();
+		size = 0;
+	}
+
+	private ArrayDeque<SimEvent> getQueue(int destination) {
+		return destination >= 0 && destination < queues.size() ? queues.get(destination) : null;
 	}
 
-}
\ No newline at end of file
+}
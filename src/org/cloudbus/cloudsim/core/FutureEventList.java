@@ -0,0 +1,82 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Iterator;
+
+/**
+ * The priority queue behind {@link FutureQueue}. Events are ordered by time, then by send time,
+ * then by serial number, then by insertion order, so events sharing the same time are dequeued in
+ * the order {@link FutureQueue} numbered them. The send time is 0 for all events of a sequential
+ * run.
+ *
+ * @see FutureQueue
+ * @see SimEvent
+ */
+public interface FutureEventList extends Iterable<SimEvent> {
+
+	/**
+	 * Adds an event whose serial number and send time have already been set.
+	 *
+	 * @param event the event
+	 */
+	void add(SimEvent event);
+
+	/**
+	 * Returns the first event without removing it.
+	 *
+	 * @return the first event, or <tt>null</tt> if the list is empty
+	 */
+	SimEvent peek();
+
+	/**
+	 * Removes and returns the first event.
+	 *
+	 * @return the first event, or <tt>null</tt> if the list is empty
+	 */
+	SimEvent poll();
+
+	/**
+	 * Returns the number of events.
+	 *
+	 * @return the size
+	 */
+	int size();
+
+	/**
+	 * Removes an event.
+	 *
+	 * @param event the event
+	 * @return true, if the event was in the list
+	 */
+	boolean remove(SimEvent event);
+
+	/**
+	 * Removes all the events matching a filter.
+	 *
+	 * @param filter the filter
+	 * @return true, if at least one event has been removed
+	 */
+	boolean removeIf(java.util.function.Predicate<? super SimEvent> filter);
+
+	/**
+	 * Removes all the events.
+	 */
+	void clear();
+
+	/**
+	 * Returns an iterator over the events. Only the tree set implementation iterates in time
+	 * order; the iterator of the other implementations does not support removal.
+	 *
+	 * @return the iterator
+	 */
+	@Override
+	Iterator<SimEvent> iterator();
+
+}
@@ -10,26 +10,77 @@ package org.cloudbus.cloudsim.core;
 
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.SortedSet;
-import java.util.TreeSet;
 
 /**
- * This class implements the future event queue used by {@link Simulation}. The event queue uses a
- * {@link TreeSet} in order to store the events.
+ * This class implements the future event queue used by {@link Simulation}. The events are stored
+ * in a {@link FutureEventList}, which is a {@link TreeSetFutureEventList} by default.
  * 
  * @author Marcos Dias de Assuncao
  * @since CloudSim Toolkit 1.0
  * @see Simulation
- * @see java.util.TreeSet
+ * @see FutureEventList
  */
 public class FutureQueue {
 
-	/** The sorted set. */
-	private final SortedSet<SimEvent> sortedSet = new TreeSet<SimEvent>();
+	/**
+	 * The available implementations of the future event list.
+	 */
+	public enum Implementation {
+		/** A {@link TreeSetFutureEventList}. */
+		TREE_SET,
+		/** A {@link HeapFutureEventList}. */
+		HEAP,
+		/** A {@link CalendarFutureEventList}. */
+		CALENDAR;
+
+		/**
+		 * Creates an empty list of this implementation.
+		 * 
+		 * @return the list
+		 */
+		public FutureEventList newList() {
+			switch (this) {
+				case HEAP:
+					return new HeapFutureEventList();
+				case CALENDAR:
+					return new CalendarFutureEventList();
+				default:
+					return new TreeSetFutureEventList();
+			}
+		}
+	}
+
+	/** The event list. */
+	private final FutureEventList list;
 
 	/** The serial. */
 	private long serial = 0;
 
+	/**
+	 * Creates a queue backed by a tree set.
+	 */
+	public FutureQueue() {
+		this(Implementation.TREE_SET);
+	}
+
+	/**
+	 * Creates a queue backed by one of the available implementations.
+	 * 
+	 * @param implementation the implementation of the event list
+	 */
+	public FutureQueue(Implementation implementation) {
+		this(implementation.newList());
+	}
+
+	/**
+	 * Creates a queue backed by an empty event list.
+	 * 
+	 * @param list the event list
+	 */
+	public FutureQueue(FutureEventList list) {
+		this.list = list;
+	}
+
 	/**
 	 * Add a new event to the queue. Adding a new event to the queue preserves the temporal order of
 	 * the events in the queue.
@@ -38,7 +89,7 @@ public class FutureQueue {
 	 */
 	public void addEvent(SimEvent newEvent) {
 		newEvent.setSerial(serial++);
-		sortedSet.add(newEvent);
+		list.add(newEvent);
 	}
 
 	/**
@@ -48,16 +99,45 @@ public class FutureQueue {
 	 */
 	public void addEventFirst(SimEvent newEvent) {
 		newEvent.setSerial(0);
-		sortedSet.add(newEvent);
+		list.add(newEvent);
+	}
+
+	/**
+	 * Adds an event whose send time and serial number have been set by the logical process that
+	 * sent it in a parallel run, instead of numbering it with the serial of this queue.
+	 * 
+	 * @param newEvent The event to be put in the queue.
+	 */
+	void addOrderedEvent(SimEvent newEvent) {
+		list.add(newEvent);
+	}
+
+	/**
+	 * Returns the first event of the queue without removing it.
+	 * 
+	 * @return the first event, or <tt>null</tt> if the queue is empty
+	 */
+	public SimEvent peek() {
+		return list.peek();
 	}
 
 	/**
-	 * Returns an iterator to the queue.
+	 * Removes the first event of the queue.
+	 * 
+	 * @return the first event, or <tt>null</tt> if the queue is empty
+	 */
+	public SimEvent poll() {
+		return list.poll();
+	}
+
+	/**
+	 * Returns an iterator to the queue. The events are in temporal order only for the tree set
+	 * implementation.
 	 * 
 	 * @return the iterator
 	 */
 	public Iterator<SimEvent> iterator() {
-		return sortedSet.iterator();
+		return list.iterator();
 	}
 
 	/**
@@ -66,7 +146,7 @@ public class FutureQueue {
 	 * @return the size
 	 */
 	public int size() {
-		return sortedSet.size();
+		return list.size();
 	}
 
 	/**
@@ -76,7 +156,7 @@ public class FutureQueue {
 	 * @return true, if successful
 	 */
 	public boolean remove(SimEvent event) {
-		return sortedSet.remove(event);
+		return list.remove(event);
 	}
 
 	/**
@@ -86,14 +166,28 @@ public class FutureQueue {
 	 * @return true, if successful
 	 */
 	public boolean removeAll(Collection<SimEvent> events) {
-		return sortedSet.removeAll(events);
+		boolean removed = false;
+		for (SimEvent event : events) {
+			removed |= list.remove(event);
+		}
+		return removed;
+	}
+
+	/**
+	 * Removes all the events matching a filter from the queue.
+	 * 
+	 * @param filter the filter
+	 * @return true, if at least one event has been removed
+	 */
+	public boolean removeIf(java.util.function.Predicate<? super SimEvent> filter) {
+		return list.removeIf(filter);
 	}
 
 	/**
 	 * Clears the queue.
 	 */
 	public void clear() {
-		sortedSet.clear();
+		list.clear();
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,265 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Future event list that stores the events in an implicit d-ary min-heap. The sort keys (time,
+ * send time, serial number and insertion order) are kept in primitive arrays next to the events, so sifting
+ * compares array slots instead of calling {@link SimEvent#compareTo(SimEvent)}, and adding or
+ * polling an event allocates nothing once the arrays are large enough. A heap with 4 children per
+ * node is shallower than a binary heap and its children share cache lines.
+ * <p>
+ * Removing an arbitrary event is a linear search, which is fine for the rare cancellations.
+ *
+ * @see FutureEventList
+ */
+public class HeapFutureEventList implements FutureEventList {
+
+	/** The default number of children per node. */
+	public static final int DEFAULT_ARITY = 4;
+
+	/** The initial capacity of the arrays. */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/** The number of children per node. */
+	private final int arity;
+
+	/** The events, in heap order. */
+	private SimEvent[] events = new SimEvent[INITIAL_CAPACITY];
+
+	/** The time of each event. */
+	private double[] times = new double[INITIAL_CAPACITY];
+
+	/** The send time of each event. */
+	private double[] sendTimes = new double[INITIAL_CAPACITY];
+
+	/** The serial number of each event. */
+	private long[] serials = new long[INITIAL_CAPACITY];
+
+	/** The insertion order of each event, which breaks ties between equal serial numbers. */
+	private long[] sequences = new long[INITIAL_CAPACITY];
+
+	/** The number of events. */
+	private int size = 0;
+
+	/** The next insertion number. */
+	private long sequence = 0;
+
+	/**
+	 * Creates a 4-ary heap.
+	 */
+	public HeapFutureEventList() {
+		this(DEFAULT_ARITY);
+	}
+
+	/**
+	 * Creates a d-ary heap.
+	 *
+	 * @param arity the number of children per node, at least 2
+	 */
+	public HeapFutureEventList(int arity) {
+		if (arity < 2) {
+			throw new IllegalArgumentException("The heap arity should be at least 2, but is:" + arity);
+		}
+		this.arity = arity;
+	}
+
+	@Override
+	public void add(SimEvent event) {
+		if (size == events.length) {
+			int capacity = size << 1;
+			events = Arrays.copyOf(events, capacity);
+			times = Arrays.copyOf(times, capacity);
+			sendTimes = Arrays.copyOf(sendTimes, capacity);
+			serials = Arrays.copyOf(serials, capacity);
+			sequences = Arrays.copyOf(sequences, capacity);
+		}
+		siftUp(size++, event, event.eventTime(), event.getSendTime(), event.getSerial(), sequence++);
+	}
+
+	@Override
+	public SimEvent peek() {
+		return size == 0 ? null : events[0];
+	}
+
+	@Override
+	public SimEvent poll() {
+		if (size == 0) {
+			return null;
+		}
+		SimEvent first = events[0];
+		removeAt(0);
+		return first;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean remove(SimEvent event) {
+		for (int i = 0; i < size; i++) {
+			if (events[i] == event) {
+				removeAt(i);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean removeIf(java.util.function.Predicate<? super SimEvent> filter) {
+		int kept = 0;
+		for (int i = 0; i < size; i++) {
+			if (!filter.test(events[i])) {
+				move(i, kept++);
+			}
+		}
+		if (kept == size) {
+			return false;
+		}
+		Arrays.fill(events, kept, size, null);
+		size = kept;
+		// Floyd's heap construction
+		for (int i = (size - 2) / arity; i >= 0; i--) {
+			siftDown(i, events[i], times[i], sendTimes[i], serials[i], sequences[i]);
+		}
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(events, 0, size, null);
+		size = 0;
+	}
+
+	@Override
+	public Iterator<SimEvent> iterator() {
+		return new Iterator<SimEvent>() {
+
+			private int next = 0;
+
+			@Override
+			public boolean hasNext() {
+				return next < size;
+			}
+
+			@Override
+			public SimEvent next() {
+				if (next >= size) {
+					throw new NoSuchElementException();
+				}
+				return events[next++];
+			}
+		};
+	}
+
+	/**
+	 * Removes the event at a slot and fills the hole with the last event.
+	 *
+	 * @param i the slot
+	 */
+	private void removeAt(int i) {
+		int last = --size;
+		if (i != last) {
+			SimEvent event = events[last];
+			double time = times[last];
+			double sendTime = sendTimes[last];
+			long serial = serials[last];
+			long seq = sequences[last];
+			events[last] = null;
+			siftDown(i, event, time, sendTime, serial, seq);
+			if (events[i] == event) {
+				siftUp(i, event, time, sendTime, serial, seq);
+			}
+		} else {
+			events[last] = null;
+		}
+	}
+
+	/**
+	 * Moves an event up from a slot until its parent precedes it.
+	 */
+	private void siftUp(int i, SimEvent event, double time, double sendTime, long serial, long seq) {
+		while (i > 0) {
+			int parent = (i - 1) / arity;
+			if (!precedes(time, sendTime, serial, seq, parent)) {
+				break;
+			}
+			move(parent, i);
+			i = parent;
+		}
+		set(i, event, time, sendTime, serial, seq);
+	}
+
+	/**
+	 * Moves an event down from a slot until it precedes all its children.
+	 */
+	private void siftDown(int i, SimEvent event, double time, double sendTime, long serial, long seq) {
+		while (true) {
+			int firstChild = i * arity + 1;
+			if (firstChild >= size) {
+				break;
+			}
+			int lastChild = Math.min(firstChild + arity, size);
+			int min = firstChild;
+			for (int child = firstChild + 1; child < lastChild; child++) {
+				if (precedes(times[child], sendTimes[child], serials[child], sequences[child], min)) {
+					min = child;
+				}
+			}
+			if (!precedes(times[min], sendTimes[min], serials[min], sequences[min], time, sendTime, serial, seq)) {
+				break;
+			}
+			move(min, i);
+			i = min;
+		}
+		set(i, event, time, sendTime, serial, seq);
+	}
+
+	private boolean precedes(double time, double sendTime, long serial, long seq, int slot) {
+		return precedes(time, sendTime, serial, seq, times[slot], sendTimes[slot], serials[slot], sequences[slot]);
+	}
+
+	private static boolean precedes(double time, double sendTime, long serial, long seq, double otherTime,
+			double otherSendTime, long otherSerial, long otherSeq) {
+		if (time != otherTime) {
+			return time < otherTime;
+		}
+		if (sendTime != otherSendTime) {
+			return sendTime < otherSendTime;
+		}
+		if (serial != otherSerial) {
+			return serial < otherSerial;
+		}
+		return seq < otherSeq;
+	}
+
+	private void move(int from, int to) {
+		events[to] = events[from];
+		times[to] = times[from];
+		sendTimes[to] = sendTimes[from];
+		serials[to] = serials[from];
+		sequences[to] = sequences[from];
+	}
+
+	private void set(int i, SimEvent event, double time, double sendTime, long serial, long seq) {
+		events[i] = event;
+		times[i] = time;
+		sendTimes[i] = sendTime;
+		serials[i] = serial;
+		sequences[i] = seq;
+	}
+
+}
@@ -0,0 +1,353 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+
+/**
+ * The event queues and the clock of a group of entities. A sequential simulation has a single
+ * logical process holding all the entities. A parallel simulation partitions the entities into
+ * several logical processes, each one processing its own events on a worker thread, one time
+ * window at a time.
+ * <p>
+ * In a parallel run the events are numbered by the logical process that sends them, so that all
+ * the processes order the events with the same time as a sequential run would: by send time, then
+ * by the number of batches of events already processed at that send time, then by the id of the
+ * sending entity, then in the order the entity sent them.
+ *
+ * @see CloudSim#enableParallelExecution(int[], double, int)
+ */
+final class LogicalProcess {
+
+	/** The logical process run by the calling thread in a parallel run. */
+	static final ThreadLocal<LogicalProcess> CURRENT = new ThreadLocal<LogicalProcess>();
+
+	/** The number of low bits of a serial number counting the events sent by an entity. */
+	private static final int SENT_BITS = 20;
+
+	/** The number of bits of a serial number holding the id of the sending entity. */
+	static final int ENTITY_BITS = 24;
+
+	/**
+	 * An action on state shared between logical processes, run at the end of the window in the
+	 * order a sequential run would have run it.
+	 */
+	static final class OrderedAction implements Comparable<OrderedAction> {
+
+		final double time;
+
+		final long serial;
+
+		final Runnable action;
+
+		OrderedAction(double time, long serial, Runnable action) {
+			this.time = time;
+			this.serial = serial;
+			this.action = action;
+		}
+
+		@Override
+		public int compareTo(OrderedAction other) {
+			if (time != other.time) {
+				return time < other.time ? -1 : 1;
+			}
+			return Long.compare(serial, other.serial);
+		}
+	}
+
+	/** The index of the logical process. */
+	final int index;
+
+	/** The future event queue. */
+	final FutureQueue future;
+
+	/** The deferred event queue. */
+	final DeferredQueue deferred = new DeferredQueue();
+
+	/** The predicates used in entity wait methods. */
+	final Map<Integer, Predicate> waitPredicates = new HashMap<Integer, Predicate>();
+
+	/** The clock, the time of the last events processed. */
+	double clock = 0;
+
+	/**
+	 * The number of batches of events processed at the current clock, -1 while the entities
+	 * start.
+	 */
+	int batches = -1;
+
+	/**
+	 * The ids of the entities to run at the next tick: the ones made runnable or sent an event
+	 * while runnable since the last tick. The other entities have nothing to process.
+	 */
+	private int[] readyEntities = new int[16];
+
+	/** The number of entities in {@link #readyEntities}. */
+	private int numReadyEntities = 0;
+
+	/** The ids of the entities in {@link #readyEntities}. */
+	private final BitSet readyFlags = new BitSet();
+
+	/** The entities run by the current tick, swapped with {@link #readyEntities}. */
+	private int[] tickEntities = new int[16];
+
+	/** The id of the entity being run, -1 if none. */
+	private int runningEntity = -1;
+
+	/** The number of events and ordered actions of the running entity. */
+	private int numSent = 0;
+
+	/** The events sent to other logical processes during the current window. */
+	final List<SimEvent> outbox = new ArrayList<SimEvent>();
+
+	/** The times of the synchronous events sent during the current window. */
+	final List<Double> synchronousTimes = new ArrayList<Double>();
+
+	/** The ordered actions of the current window. */
+	final List<OrderedAction> orderedActions = new ArrayList<OrderedAction>();
+
+	/**
+	 * Creates a logical process without events.
+	 *
+	 * @param index the index of the logical process
+	 * @param implementation the implementation of the future event list
+	 */
+	LogicalProcess(int index, FutureQueue.Implementation implementation) {
+		this.index = index;
+		future = new FutureQueue(implementation);
+	}
+
+	/**
+	 * Schedules an entity to run at the next tick, unless it is already scheduled.
+	 *
+	 * @param id the id of the entity
+	 */
+	void addReadyEntity(int id) {
+		if (readyFlags.get(id)) {
+			return;
+		}
+		readyFlags.set(id);
+		if (numReadyEntities == readyEntities.length) {
+			readyEntities = Arrays.copyOf(readyEntities, numReadyEntities << 1);
+		}
+		readyEntities[numReadyEntities++] = id;
+	}
+
+	/**
+	 * Removes the entities scheduled to run at the next tick.
+	 *
+	 * @return their ids, in any order
+	 */
+	int[] takeReadyEntities() {
+		int[] ready = Arrays.copyOf(readyEntities, numReadyEntities);
+		for (int id : ready) {
+			readyFlags.clear(id);
+		}
+		numReadyEntities = 0;
+		return ready;
+	}
+
+	/**
+	 * Runs the ready entities in id order, as a sweep over all the entities would.
+	 */
+	void runReadyEntities() {
+		int[] ready = readyEntities;
+		int numReady = numReadyEntities;
+		readyEntities = tickEntities;
+		tickEntities = ready;
+		numReadyEntities = 0;
+		if (numReady > 1) {
+			Arrays.sort(ready, 0, numReady);
+		}
+		for (int i = 0; i < numReady; i++) {
+			readyFlags.clear(ready[i]);
+		}
+
+		for (int i = 0; i < numReady; i++) {
+			SimEntity ent = CloudSim.getEntity(ready[i]);
+			if (ent.getState() == SimEntity.RUNNABLE) {
+				run(ent);
+			}
+		}
+	}
+
+	/**
+	 * Runs an entity of this logical process.
+	 *
+	 * @param entity the entity
+	 */
+	void run(SimEntity entity) {
+		runningEntity = entity.getId();
+		numSent = 0;
+		try {
+			entity.run();
+		} finally {
+			runningEntity = -1;
+		}
+	}
+
+	/**
+	 * Starts an entity of this logical process.
+	 *
+	 * @param entity the entity
+	 */
+	void start(SimEntity entity) {
+		runningEntity = entity.getId();
+		numSent = 0;
+		try {
+			entity.startEntity();
+		} finally {
+			runningEntity = -1;
+		}
+	}
+
+	/**
+	 * Processes the first events of the future queue, which all have the same time.
+	 */
+	void processEvents() {
+		SimEvent first = future.poll();
+		double time = first.eventTime();
+		if (time != clock) {
+			batches = 0;
+		}
+		batches++;
+		processEvent(first);
+
+		// Process the next events at the same time, in serial order
+		SimEvent next = future.peek();
+		while (next != null && next.eventTime() == time) {
+			processEvent(future.poll());
+			next = future.peek();
+		}
+	}
+
+	/**
+	 * Processes the events earlier than the end of a time window, and runs the entities they make
+	 * ready.
+	 *
+	 * @param end the end of the window, excluded
+	 */
+	void runWindow(double end) {
+		while (true) {
+			runReadyEntities();
+			SimEvent first = future.peek();
+			if (first == null || first.eventTime() >= end) {
+				return;
+			}
+			processEvents();
+		}
+	}
+
+	/**
+	 * Returns the time of the next event.
+	 *
+	 * @return the time, or {@link Double#POSITIVE_INFINITY} if there is none
+	 */
+	double nextEventTime() {
+		SimEvent first = future.peek();
+		return first == null ? Double.POSITIVE_INFINITY : first.eventTime();
+	}
+
+	/**
+	 * Numbers the next event or ordered action of the running entity.
+	 *
+	 * @return the serial number
+	 */
+	long nextSerial() {
+		if (numSent == 1 << SENT_BITS) {
+			throw new IllegalStateException("Entity #" + runningEntity + " sent too many events at time " + clock);
+		}
+		return ((long) (batches + 1) << (ENTITY_BITS + SENT_BITS)) | ((long) (runningEntity + 1) << SENT_BITS)
+				| numSent++;
+	}
+
+	/**
+	 * Defers an ordered action to the end of the current window.
+	 *
+	 * @param action the action
+	 */
+	void addOrderedAction(Runnable action) {
+		orderedActions.add(new OrderedAction(clock, nextSerial(), action));
+	}
+
+	/**
+	 * Processes an event.
+	 *
+	 * @param e the e
+	 */
+	private void processEvent(SimEvent e) {
+		int dest, src;
+		SimEntity dest_ent;
+		// Update the system's clock
+		if (e.eventTime() < clock) {
+			throw new IllegalArgumentException("Past event detected.");
+		}
+		clock = e.eventTime();
+
+		// Ok now process it
+		switch (e.getType()) {
+			case SimEvent.ENULL:
+				throw new IllegalArgumentException("Event has a null type.");
+
+			case SimEvent.CREATE:
+				SimEntity newe = (SimEntity) e.getData();
+				CloudSim.addEntityDynamically(newe);
+				break;
+
+			case SimEvent.SEND:
+				// Check for matching wait
+				dest = e.getDestination();
+				if (dest < 0) {
+					throw new IllegalArgumentException("Attempt to send to a null entity detected.");
+				} else {
+					int tag = e.getTag();
+					dest_ent = CloudSim.getEntity(dest);
+					if (dest_ent.getState() == SimEntity.WAITING) {
+						Integer destObj = Integer.valueOf(dest);
+						Predicate p = waitPredicates.get(destObj);
+						if ((p == null) || (tag == 9999) || (p.match(e))) {
+							dest_ent.setEventBuffer((SimEvent) e.clone());
+							dest_ent.setState(SimEntity.RUNNABLE);
+							addReadyEntity(dest);
+							waitPredicates.remove(destObj);
+						} else {
+							deferred.addEvent(e);
+						}
+					} else {
+						deferred.addEvent(e);
+						if (dest_ent.getState() == SimEntity.RUNNABLE) {
+							addReadyEntity(dest);
+						}
+					}
+				}
+				break;
+
+			case SimEvent.HOLD_DONE:
+				src = e.getSource();
+				if (src < 0) {
+					throw new IllegalArgumentException("Null entity holding.");
+				} else {
+					CloudSim.getEntity(src).setState(SimEntity.RUNNABLE);
+					addReadyEntity(src);
+				}
+				break;
+
+			default:
+				break;
+		}
+	}
+
+}
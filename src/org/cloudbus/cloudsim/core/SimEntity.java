@@ -279,6 +279,38 @@ public abstract class SimEntity implements Cloneable {
 		scheduleFirst(dest, 0, tag, null);
 	}
 
+	/**
+	 * Send a synchronous event to another entity by id number, with data. In a parallel
+	 * simulation, all the entities stop at the time of a synchronous event, so its processing may
+	 * read the state of any entity and send events to any entity without delay. Note that the tag
+	 * <code>9999</code> is reserved.
+	 *
+	 * @param dest The unique id number of the destination entity
+	 * @param delay How long from the current simulation time the event should be sent
+	 * @param tag An user-defined number representing the type of event.
+	 * @param data The data to be sent with the event.
+	 * @see CloudSim#sendSynchronous(int, int, double, int, Object)
+	 */
+	public void scheduleSynchronous(int dest, double delay, int tag, Object data) {
+		if (!CloudSim.running()) {
+			return;
+		}
+		CloudSim.sendSynchronous(id, dest, delay, tag, data);
+	}
+
+	/**
+	 * Send a synchronous event to another entity by id number and with <b>no</b> data. Note that
+	 * the tag <code>9999</code> is reserved.
+	 *
+	 * @param dest The unique id number of the destination entity
+	 * @param delay How long from the current simulation time the event should be sent
+	 * @param tag An user-defined number representing the type of event.
+	 * @see #scheduleSynchronous(int, double, int, Object)
+	 */
+	public void scheduleSynchronous(int dest, double delay, int tag) {
+		scheduleSynchronous(dest, delay, tag, null);
+	}
+
 	/**
 	 * Set the entity to be inactive for a time period.
 	 * 
@@ -352,10 +384,8 @@ public abstract class SimEntity implements Cloneable {
 		if (!CloudSim.running()) {
 			return null;
 		}
-		if (numEventsWaiting(p) > 0) {
-			return selectEvent(p);
-		}
-		return null;
+		// The selection returns null when no event matches, no need to count them first
+		return selectEvent(p);
 	}
 
 	/**
@@ -598,6 +628,45 @@ public abstract class SimEntity implements Cloneable {
 		send(entityName, delay, cloudSimTag, null);
 	}
 
+	/**
+	 * Sends an event/message to another entity as {@link #send(int, double, int, Object)} would
+	 * at a later simulation time, so that the event is due exactly when it would have been.
+	 * 
+	 * @param entityId the id number of the destination entity
+	 * @param sendTime the simulation time the event is sent as of, not before the current time
+	 * @param delay how long from the send time the event should be sent. If delay is a negative
+	 *            number, then it will be changed to 0
+	 * @param cloudSimTag an user-defined number representing the type of an event/message
+	 * @param data A reference to data to be sent with the event
+	 * @pre entityID > 0
+	 * @pre sendTime >= CloudSim.clock()
+	 * @pre delay >= 0.0
+	 * @post $none
+	 */
+	protected void sendAt(int entityId, double sendTime, double delay, int cloudSimTag, Object data) {
+		if (entityId < 0) {
+			return;
+		}
+
+		if (delay < 0) {
+			delay = 0;
+		}
+
+		if (Double.isInfinite(delay)) {
+			throw new IllegalArgumentException("The specified delay is infinite value");
+		}
+
+		int srcId = getId();
+		if (entityId != srcId) {// does not delay self messages
+			delay += getNetworkDelay(srcId, entityId);
+		}
+
+		if (!CloudSim.running()) {
+			return;
+		}
+		CloudSim.sendAt(srcId, entityId, sendTime + delay, cloudSimTag, data);
+	}
+
 	/**
 	 * Sends an event/message to another entity by <tt>delaying</tt> the simulation time from the
 	 * current time, with a tag representing the event type.
@@ -40,6 +40,9 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 
 	private long serial = -1;
 
+	/** time at which the event was sent, which orders events with the same time in parallel runs **/
+	private double sendTime = 0;
+
 	// Internal event types
 
 	public static final int ENULL = 0;
@@ -86,6 +89,35 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 		this.serial = serial;
 	}
 
+	/**
+	 * Gets the serial number that breaks ties between events with the same time.
+	 * 
+	 * @return the serial number
+	 */
+	long getSerial() {
+		return serial;
+	}
+
+	/**
+	 * Sets the simulation time at which the event was sent. Events with the same time are ordered
+	 * by send time before serial number, which only matters in parallel runs where each logical
+	 * process numbers its own events.
+	 * 
+	 * @param sendTime the send time
+	 */
+	void setSendTime(double sendTime) {
+		this.sendTime = sendTime;
+	}
+
+	/**
+	 * Gets the simulation time at which the event was sent.
+	 * 
+	 * @return the send time, 0 in sequential runs
+	 */
+	double getSendTime() {
+		return sendTime;
+	}
+
 	/**
 	 * Used to set the time at which this event finished waiting in the event
 	 * 
@@ -123,6 +155,10 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 			return -1;
 		} else if (time > event.time) {
 			return 1;
+		} else if (sendTime < event.sendTime) {
+			return -1;
+		} else if (sendTime > event.sendTime) {
+			return 1;
 		} else if (serial < event.serial) {
 			return -1;
 		} else if (this == event) {
@@ -0,0 +1,126 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Runs independent simulations concurrently, such as the replications of an experiment or the
+ * points of a parameter sweep. Each simulation runs on a thread of a fixed pool, in a new
+ * {@link SimulationContext}, so the simulations share no state through {@link CloudSim} or the
+ * components of their contexts and each one returns its own results.
+ * <p>
+ * A simulation is a task that initialises CloudSim, creates its entities, runs and returns its
+ * results. It should not use the static state of other classes, such as the lists of devices kept
+ * by some examples, nor stop the virtual machine.
+ *
+ * @see SimulationContext
+ */
+public class SimulationBatchRunner {
+
+	/** The number of simulations running at the same time. */
+	private final int numThreads;
+
+	/**
+	 * Creates a runner using all the available processors.
+	 */
+	public SimulationBatchRunner() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a runner.
+	 *
+	 * @param numThreads the number of simulations running at the same time
+	 */
+	public SimulationBatchRunner(int numThreads) {
+		if (numThreads < 1) {
+			throw new IllegalArgumentException("The number of threads should be positive, but is:" + numThreads);
+		}
+		this.numThreads = numThreads;
+	}
+
+	/**
+	 * Runs simulations, each one in its own context, and waits for all of them.
+	 *
+	 * @param simulations the simulations
+	 * @return the results, in the order of the simulations
+	 * @throws InterruptedException if the calling thread is interrupted while waiting
+	 * @throws ExecutionException if a simulation fails, the others are cancelled
+	 */
+	public <T> List<T> runAll(List<? extends Callable<? extends T>> simulations) throws InterruptedException,
+			ExecutionException {
+		ExecutorService pool = Executors.newFixedThreadPool(Math.min(numThreads, Math.max(1, simulations.size())),
+				runnable -> {
+					Thread thread = new Thread(runnable, "CloudSim batch");
+					thread.setDaemon(true);
+					return thread;
+				});
+		try {
+			List<Future<? extends T>> futures = new ArrayList<Future<? extends T>>();
+			for (final Callable<? extends T> simulation : simulations) {
+				futures.add(pool.submit(() -> new SimulationContext().call(simulation)));
+			}
+			List<T> results = new ArrayList<T>();
+			for (Future<? extends T> future : futures) {
+				results.add(future.get());
+			}
+			return results;
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Runs replications of a simulation, each one in its own context.
+	 *
+	 * @param numReplications the number of replications
+	 * @param simulation runs the replication of a given index, from 0, for instance seeding its
+	 *            random generators with the index
+	 * @return the results, by replication index
+	 * @throws InterruptedException if the calling thread is interrupted while waiting
+	 * @throws ExecutionException if a replication fails, the others are cancelled
+	 */
+	public <T> List<T> replicate(int numReplications, final IntFunction<? extends T> simulation)
+			throws InterruptedException, ExecutionException {
+		List<Callable<T>> simulations = new ArrayList<Callable<T>>();
+		for (int i = 0; i < numReplications; i++) {
+			final int replication = i;
+			simulations.add(() -> simulation.apply(replication));
+		}
+		return runAll(simulations);
+	}
+
+	/**
+	 * Runs a simulation for each value of a parameter, each one in its own context.
+	 *
+	 * @param parameters the values of the parameter
+	 * @param simulation runs the simulation for a value
+	 * @return the results, in the order of the values
+	 * @throws InterruptedException if the calling thread is interrupted while waiting
+	 * @throws ExecutionException if a simulation fails, the others are cancelled
+	 */
+	public <P, T> List<T> sweep(List<? extends P> parameters, final Function<? super P, ? extends T> simulation)
+			throws InterruptedException, ExecutionException {
+		List<Callable<T>> simulations = new ArrayList<Callable<T>>();
+		for (final P parameter : parameters) {
+			simulations.add(() -> simulation.apply(parameter));
+		}
+		return runAll(simulations);
+	}
+
+}
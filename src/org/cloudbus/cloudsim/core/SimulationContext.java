@@ -0,0 +1,210 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * The state of one simulation: the entities, the event queues and the clock held by
+ * {@link CloudSim}, and the components of the higher layers (statistics, id counters, ...).
+ * <p>
+ * The static methods of {@link CloudSim} work on the context bound to the calling thread. A thread
+ * without a context uses a shared default context, as all the threads did before contexts existed,
+ * so a program running one simulation at a time does not need to know about contexts. Independent
+ * simulations can run concurrently on different threads, each one in its own context:
+ *
+ * <pre>
+ * new SimulationContext().run(() -&gt; {
+ * 	CloudSim.init(1, Calendar.getInstance(), false);
+ * 	// create the entities
+ * 	CloudSim.startSimulation();
+ * });
+ * </pre>
+ *
+ * A context is confined to the threads running its simulation: the thread it is bound to, and the
+ * threads running its logical processes in a parallel run.
+ *
+ * @see SimulationBatchRunner
+ */
+public final class SimulationContext {
+
+	/** The context of the threads without a context of their own. */
+	private static final SimulationContext DEFAULT = new SimulationContext();
+
+	/** The context bound to the calling thread, if any. */
+	private static final ThreadLocal<SimulationContext> CURRENT = new ThreadLocal<SimulationContext>();
+
+	/** The components of the higher layers, by class. */
+	private final Map<Class<?>, Object> components = new ConcurrentHashMap<Class<?>, Object>();
+
+	/** The id of CIS entity. */
+	int cisId = -1;
+
+	/** The id of CloudSimShutdown entity. */
+	int shutdownId = -1;
+
+	/** The CIS object. */
+	CloudInformationService cis = null;
+
+	/** The trace flag. */
+	boolean traceFlag = false;
+
+	/** The calendar. */
+	Calendar calendar = null;
+
+	/** The termination time. */
+	double terminateAt = -1;
+
+	/** The minimal time between events. Events within shorter periods after the last event are discarded. */
+	double minTimeBetweenEvents = 0.1;
+
+	/** The implementation of the future event list. */
+	FutureQueue.Implementation futureQueueImplementation = FutureQueue.Implementation.TREE_SET;
+
+	/** The entities. */
+	List<SimEntity> entities;
+
+	/**
+	 * The logical processes, each one with its own clock and event queues. A sequential run has a
+	 * single logical process holding all the entities.
+	 */
+	LogicalProcess[] processes;
+
+	/** Flag for checking if the simulation is running. */
+	boolean running;
+
+	/** The entities by name. */
+	Map<String, SimEntity> entitiesByName;
+
+	/** The paused. */
+	boolean paused = false;
+
+	/** The pause at. */
+	long pauseAt = -1;
+
+	/** The abrupt terminate. */
+	boolean abruptTerminate = false;
+
+	/** The logical process of each entity if the simulation runs in parallel, otherwise <tt>null</tt>. */
+	int[] processOfEntity;
+
+	/** The minimal delay of the events sent between logical processes. */
+	double lookahead;
+
+	/** The number of threads running the logical processes. */
+	int numThreads;
+
+	/** Flag for checking if the logical processes are running in parallel. */
+	boolean parallel = false;
+
+	/**
+	 * The logical process of the main thread outside the entities in a parallel run, which holds
+	 * the clock of the whole simulation.
+	 */
+	LogicalProcess coordinator;
+
+	/** The end of the current time window, or -1 outside time windows. */
+	double windowEnd = -1;
+
+	/** The times of the pending synchronous events. */
+	PriorityQueue<Double> synchronousTimes;
+
+	/** The threads running the logical processes besides the main thread. */
+	ExecutorService workers;
+
+	/**
+	 * Gets the context of the calling thread.
+	 *
+	 * @return the context bound to the thread, or the default context if there is none
+	 */
+	public static SimulationContext current() {
+		SimulationContext context = CURRENT.get();
+		return context != null ? context : DEFAULT;
+	}
+
+	/**
+	 * Runs a task in this context: the task sees this context as the current one, then the
+	 * previous context of the thread is restored.
+	 *
+	 * @param task the task
+	 */
+	public void run(Runnable task) {
+		SimulationContext previous = bind();
+		try {
+			task.run();
+		} finally {
+			restore(previous);
+		}
+	}
+
+	/**
+	 * Runs a task returning a result in this context: the task sees this context as the current
+	 * one, then the previous context of the thread is restored.
+	 *
+	 * @param task the task
+	 * @return the result of the task
+	 * @throws Exception if the task fails
+	 */
+	public <T> T call(Callable<T> task) throws Exception {
+		SimulationContext previous = bind();
+		try {
+			return task.call();
+		} finally {
+			restore(previous);
+		}
+	}
+
+	/**
+	 * Gets a component of this context, creating it on first use. The higher layers keep their
+	 * per-simulation state, such as statistics and id counters, in components.
+	 *
+	 * @param type the class of the component, its key in the context
+	 * @param factory creates the component
+	 * @return the component
+	 */
+	public <T> T getComponent(Class<T> type, Supplier<? extends T> factory) {
+		Object component = components.get(type);
+		if (component == null) {
+			component = components.computeIfAbsent(type, key -> factory.get());
+		}
+		return type.cast(component);
+	}
+
+	/**
+	 * Binds this context to the calling thread.
+	 *
+	 * @return the context bound to the thread before, or <tt>null</tt>
+	 */
+	private SimulationContext bind() {
+		SimulationContext previous = CURRENT.get();
+		CURRENT.set(this);
+		return previous;
+	}
+
+	/**
+	 * Binds a context to the calling thread again.
+	 *
+	 * @param previous the context returned by {@link #bind()}
+	 */
+	private static void restore(SimulationContext previous) {
+		if (previous == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(previous);
+		}
+	}
+
+}
@@ -4,14 +4,15 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import org.apache.commons.math3.util.Pair;
-import org.cloudbus.cloudsim.UtilizationModelFull;
 import org.fog.application.selectivity.SelectivityModel;
 import org.fog.entities.Tuple;
 import org.fog.scheduler.TupleScheduler;
 import org.fog.utils.FogUtils;
 import org.fog.utils.GeoCoverage;
+import org.fog.utils.SimulationRandom;
 
 /**
  * Class represents an application in the Distributed Dataflow Model.
@@ -40,6 +41,11 @@ public class Application {
 	private List<AppLoop> loops;
 	
 	private Map<String, AppEdge> edgeMap;
+	
+	/**
+	 * The compiled plan, <tt>null</tt> until it is needed after a change
+	 */
+	private volatile ApplicationPlan plan;
 
 	/**
 	 * Creates a plain vanilla application with no modules and edges.
@@ -66,7 +72,7 @@ public class Application {
 				mips, ram, bw, size, vmm, new TupleScheduler(mips, 1), new HashMap<Pair<String, String>, SelectivityModel>());
 		
 		getModules().add(module);
-		
+		plan = null;
 	}
 	
 	/**
@@ -84,6 +90,7 @@ public class Application {
 		AppEdge edge = new AppEdge(source, destination, tupleCpuLength, tupleNwLength, tupleType, direction, edgeType);
 		getEdges().add(edge);
 		getEdgeMap().put(edge.getTupleType(), edge);
+		plan = null;
 	}
 	
 	/**
@@ -101,6 +108,7 @@ public class Application {
 		AppEdge edge = new AppEdge(source, destination, periodicity, tupleCpuLength, tupleNwLength, tupleType, direction, edgeType);
 		getEdges().add(edge);
 		getEdgeMap().put(edge.getTupleType(), edge);
+		plan = null;
 	}
 	
 	/**
@@ -113,6 +121,7 @@ public class Application {
 	public void addTupleMapping(String moduleName, String inputTupleType, String outputTupleType, SelectivityModel selectivityModel){
 		AppModule module = getModuleByName(moduleName);
 		module.getSelectivityMap().put(new Pair<String, String>(inputTupleType, outputTupleType), selectivityModel);
+		plan = null;
 	}
 	
 	/**
@@ -173,63 +182,32 @@ public class Application {
 	 * @return
 	 */
 	public List<Tuple> getResultantTuples(String moduleName, Tuple inputTuple, int sourceDeviceId, int sourceModuleId){
-		List<Tuple> tuples = new ArrayList<Tuple>();
-		AppModule module = getModuleByName(moduleName);
-		for(AppEdge edge : getEdges()){
-			if(edge.getSource().equals(moduleName)){
-				Pair<String, String> pair = new Pair<String, String>(inputTuple.getTupleType(), edge.getTupleType());
-				
-				if(module.getSelectivityMap().get(pair)==null)
-					continue;
-				SelectivityModel selectivityModel = module.getSelectivityMap().get(pair);
-				if(selectivityModel.canSelect()){
-					//TODO check if the edge is ACTUATOR, then create multiple tuples
-					if(edge.getEdgeType() == AppEdge.ACTUATOR){
-						//for(Integer actuatorId : module.getActuatorSubscriptions().get(edge.getTupleType())){
-							Tuple tuple = new Tuple(appId, FogUtils.generateTupleId(), edge.getDirection(),  
-									(long) (edge.getTupleCpuLength()),
-									inputTuple.getNumberOfPes(),
-									(long) (edge.getTupleNwLength()),
-									inputTuple.getCloudletOutputSize(),
-									inputTuple.getUtilizationModelCpu(),
-									inputTuple.getUtilizationModelRam(),
-									inputTuple.getUtilizationModelBw()
-									);
-							tuple.setActualTupleId(inputTuple.getActualTupleId());
-							tuple.setUserId(inputTuple.getUserId());
-							tuple.setAppId(inputTuple.getAppId());
-							tuple.setDestModuleName(edge.getDestination());
-							tuple.setSrcModuleName(edge.getSource());
-							tuple.setDirection(Tuple.ACTUATOR);
-							tuple.setTupleType(edge.getTupleType());
-							tuple.setSourceDeviceId(sourceDeviceId);
-							tuple.setSourceModuleId(sourceModuleId);
-							//tuple.setActuatorId(actuatorId);
-							
-							tuples.add(tuple);
-						//}
-					}else{
-						Tuple tuple = new Tuple(appId, FogUtils.generateTupleId(), edge.getDirection(),  
-								(long) (edge.getTupleCpuLength()),
-								inputTuple.getNumberOfPes(),
-								(long) (edge.getTupleNwLength()),
-								inputTuple.getCloudletOutputSize(),
-								inputTuple.getUtilizationModelCpu(),
-								inputTuple.getUtilizationModelRam(),
-								inputTuple.getUtilizationModelBw()
-								);
-						tuple.setActualTupleId(inputTuple.getActualTupleId());
-						tuple.setUserId(inputTuple.getUserId());
-						tuple.setAppId(inputTuple.getAppId());
-						tuple.setDestModuleName(edge.getDestination());
-						tuple.setSrcModuleName(edge.getSource());
-						tuple.setDirection(edge.getDirection());
-						tuple.setTupleType(edge.getTupleType());
-						tuple.setSourceModuleId(sourceModuleId);
-
-						tuples.add(tuple);
-					}
-				}
+		ApplicationPlan.Emission[] emissions = getPlan().getEmissions(moduleName, inputTuple.getTupleType());
+		List<Tuple> tuples = new ArrayList<Tuple>(emissions.length);
+		Random random = SimulationRandom.forEntity(sourceDeviceId);
+		for(ApplicationPlan.Emission emission : emissions){
+			if(emission.selectivityModel.canSelect(random)){
+				//TODO check if the edge is ACTUATOR, then create multiple tuples
+				AppEdge edge = emission.edge;
+				Tuple tuple = new Tuple(appId, FogUtils.generateTupleId(), emission.direction,  
+						emission.tupleCpuLength,
+						inputTuple.getNumberOfPes(),
+						emission.tupleNwLength,
+						inputTuple.getCloudletOutputSize(),
+						inputTuple.getUtilizationModelCpu(),
+						inputTuple.getUtilizationModelRam(),
+						inputTuple.getUtilizationModelBw()
+						);
+				tuple.setActualTupleId(inputTuple.getActualTupleId());
+				tuple.setUserId(inputTuple.getUserId());
+				tuple.setAppId(inputTuple.getAppId());
+				tuple.setDestModuleName(edge.getDestination());
+				tuple.setSrcModuleName(edge.getSource());
+				tuple.setTupleType(edge.getTupleType());
+				if(edge.getEdgeType() == AppEdge.ACTUATOR)
+					tuple.setSourceDeviceId(sourceDeviceId);
+				tuple.setSourceModuleId(sourceModuleId);
+				tuples.add(tuple);
 			}
 		}
 		return tuples;
@@ -242,52 +220,38 @@ public class Application {
 	 * @return
 	 */
 	public Tuple createTuple(AppEdge edge, int sourceDeviceId, int sourceModuleId){
-		AppModule module = getModuleByName(edge.getSource());
+		ApplicationPlan plan = getPlan();
+		Tuple template = plan.getTemplate(edge);
+		if(template == null)
+			template = ApplicationPlan.createTemplate(this, edge);
 		if(edge.getEdgeType() == AppEdge.ACTUATOR){
-			for(Integer actuatorId : module.getActuatorSubscriptions().get(edge.getTupleType())){
-				Tuple tuple = new Tuple(appId, FogUtils.generateTupleId(), edge.getDirection(),  
-						(long) (edge.getTupleCpuLength()),
-						1,
-						(long) (edge.getTupleNwLength()),
-						100,
-						new UtilizationModelFull(), 
-						new UtilizationModelFull(), 
-						new UtilizationModelFull()
-						);
-				tuple.setUserId(getUserId());
-				tuple.setAppId(getAppId());
-				tuple.setDestModuleName(edge.getDestination());
-				tuple.setSrcModuleName(edge.getSource());
-				tuple.setDirection(Tuple.ACTUATOR);
-				tuple.setTupleType(edge.getTupleType());
-				tuple.setSourceDeviceId(sourceDeviceId);
-				tuple.setActuatorId(actuatorId);
-				tuple.setSourceModuleId(sourceModuleId);
-
-				return tuple;
-			}
+			List<Integer> actuatorIds = plan.getModule(edge.getSource()).getActuatorSubscriptions().get(edge.getTupleType());
+			if(actuatorIds == null || actuatorIds.isEmpty())
+				return null;
+			Tuple tuple = new Tuple(FogUtils.generateTupleId(), template);
+			tuple.setSourceDeviceId(sourceDeviceId);
+			tuple.setActuatorId(actuatorIds.get(0));
+			tuple.setSourceModuleId(sourceModuleId);
+			return tuple;
 		}else{
-			Tuple tuple = new Tuple(appId, FogUtils.generateTupleId(), edge.getDirection(),  
-					(long) (edge.getTupleCpuLength()),
-					1,
-					(long) (edge.getTupleNwLength()),
-					100,
-					new UtilizationModelFull(), 
-					new UtilizationModelFull(), 
-					new UtilizationModelFull()
-					);
-			//tuple.setActualTupleId(inputTuple.getActualTupleId());
-			tuple.setUserId(getUserId());
-			tuple.setAppId(getAppId());
-			tuple.setDestModuleName(edge.getDestination());
-			tuple.setSrcModuleName(edge.getSource());
-			tuple.setDirection(edge.getDirection());
-			tuple.setTupleType(edge.getTupleType());
+			Tuple tuple = new Tuple(FogUtils.generateTupleId(), template);
 			tuple.setSourceModuleId(sourceModuleId);
-
 			return tuple;
 		}
-		return null;
+	}
+	
+	/**
+	 * Gets the compiled plan of the application, compiled again after a change through the
+	 * methods of the application.
+	 * @return the plan
+	 */
+	ApplicationPlan getPlan(){
+		ApplicationPlan plan = this.plan;
+		if(plan == null){
+			plan = new ApplicationPlan(this);
+			this.plan = plan;
+		}
+		return plan;
 	}
 	
 	public String getAppId() {
@@ -295,18 +259,21 @@ public class Application {
 	}
 	public void setAppId(String appId) {
 		this.appId = appId;
+		plan = null;
 	}
 	public List<AppModule> getModules() {
 		return modules;
 	}
 	public void setModules(List<AppModule> modules) {
 		this.modules = modules;
+		plan = null;
 	}
 	public List<AppEdge> getEdges() {
 		return edges;
 	}
 	public void setEdges(List<AppEdge> edges) {
 		this.edges = edges;
+		plan = null;
 	}
 	public GeoCoverage getGeoCoverage() {
 		return geoCoverage;
@@ -329,6 +296,7 @@ public class Application {
 
 	public void setUserId(int userId) {
 		this.userId = userId;
+		plan = null;
 	}
 
 	public Map<String, AppEdge> getEdgeMap() {
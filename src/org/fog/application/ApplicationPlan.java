@@ -0,0 +1,138 @@
+package org.fog.application;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.math3.util.Pair;
+import org.cloudbus.cloudsim.UtilizationModel;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.fog.application.selectivity.SelectivityModel;
+import org.fog.entities.Tuple;
+
+/**
+ * An application compiled for the emission of tuples. The module names and the tuple types are
+ * numbered densely, and the edges a module emits on for each type of input tuple are listed in
+ * advance along with their selectivity models, in the order of the edges of the application.
+ * The tuples of the periodic and sensor-driven edges are copied from a template per edge.
+ * <p>
+ * A plan is immutable, so the devices of a parallel simulation share it.
+ */
+class ApplicationPlan {
+
+	private static final Emission[] NO_EMISSIONS = new Emission[0];
+	private static final UtilizationModel FULL_UTILIZATION = new UtilizationModelFull();
+
+	/**
+	 * An edge a module emits on for a type of input tuple.
+	 */
+	static class Emission {
+		final AppEdge edge;
+		final SelectivityModel selectivityModel;
+		final long tupleCpuLength;
+		final long tupleNwLength;
+		final int direction;
+
+		Emission(AppEdge edge, SelectivityModel selectivityModel){
+			this.edge = edge;
+			this.selectivityModel = selectivityModel;
+			this.tupleCpuLength = (long) edge.getTupleCpuLength();
+			this.tupleNwLength = (long) edge.getTupleNwLength();
+			this.direction = edge.getEdgeType() == AppEdge.ACTUATOR ? Tuple.ACTUATOR : edge.getDirection();
+		}
+	}
+
+	private final Map<String, Integer> moduleIds = new HashMap<String, Integer>();
+	private final Map<String, Integer> tupleTypeIds = new HashMap<String, Integer>();
+	private final AppModule[] modules;
+	/** the emissions by module id and input tuple type id */
+	private final Emission[][][] emissions;
+	private final Map<AppEdge, Tuple> edgeToTemplate = new IdentityHashMap<AppEdge, Tuple>();
+
+	ApplicationPlan(Application application){
+		List<AppModule> uniqueModules = new ArrayList<AppModule>();
+		for(AppModule module : application.getModules()){
+			if(!moduleIds.containsKey(module.getName())){
+				moduleIds.put(module.getName(), uniqueModules.size());
+				uniqueModules.add(module);
+			}
+		}
+		modules = uniqueModules.toArray(new AppModule[uniqueModules.size()]);
+		for(AppModule module : modules){
+			for(Pair<String, String> pair : module.getSelectivityMap().keySet()){
+				if(!tupleTypeIds.containsKey(pair.getFirst()))
+					tupleTypeIds.put(pair.getFirst(), tupleTypeIds.size());
+			}
+		}
+
+		emissions = new Emission[modules.length][tupleTypeIds.size()][];
+		for(int moduleId = 0; moduleId < modules.length; moduleId++){
+			AppModule module = modules[moduleId];
+			for(Map.Entry<String, Integer> tupleType : tupleTypeIds.entrySet()){
+				List<Emission> moduleEmissions = new ArrayList<Emission>();
+				for(AppEdge edge : application.getEdges()){
+					if(!edge.getSource().equals(module.getName()))
+						continue;
+					SelectivityModel selectivityModel = module.getSelectivityMap()
+							.get(new Pair<String, String>(tupleType.getKey(), edge.getTupleType()));
+					if(selectivityModel != null)
+						moduleEmissions.add(new Emission(edge, selectivityModel));
+				}
+				emissions[moduleId][tupleType.getValue()] = moduleEmissions.isEmpty() ? NO_EMISSIONS
+						: moduleEmissions.toArray(new Emission[moduleEmissions.size()]);
+			}
+		}
+
+		for(AppEdge edge : application.getEdges())
+			edgeToTemplate.put(edge, createTemplate(application, edge));
+	}
+
+	/**
+	 * Creates the template of the tuples created for an edge, whose full utilization model is
+	 * stateless and shared.
+	 */
+	static Tuple createTemplate(Application application, AppEdge edge){
+		Tuple template = new Tuple(application.getAppId(), -1, edge.getDirection(),
+				(long) (edge.getTupleCpuLength()), 1, (long) (edge.getTupleNwLength()), 100,
+				FULL_UTILIZATION, FULL_UTILIZATION, FULL_UTILIZATION);
+		template.setUserId(application.getUserId());
+		template.setDestModuleName(edge.getDestination());
+		template.setSrcModuleName(edge.getSource());
+		template.setDirection(edge.getEdgeType() == AppEdge.ACTUATOR ? Tuple.ACTUATOR : edge.getDirection());
+		template.setTupleType(edge.getTupleType());
+		// shared by all the tuples created from the template
+		template.setModuleCopyMap(Collections.<String, Integer>emptyMap());
+		return template;
+	}
+
+	/**
+	 * @return the module of the application with the name, or <tt>null</tt>
+	 */
+	AppModule getModule(String moduleName){
+		Integer moduleId = moduleIds.get(moduleName);
+		return moduleId != null ? modules[moduleId] : null;
+	}
+
+	/**
+	 * @return the edges the module emits on when it executes a tuple of the type, with their
+	 *         selectivity models, in the order of the edges of the application
+	 */
+	Emission[] getEmissions(String moduleName, String inputTupleType){
+		Integer moduleId = moduleIds.get(moduleName);
+		Integer tupleTypeId = tupleTypeIds.get(inputTupleType);
+		if(moduleId == null || tupleTypeId == null)
+			return NO_EMISSIONS;
+		return emissions[moduleId][tupleTypeId];
+	}
+
+	/**
+	 * @return the template of the tuples created for an edge of the application, or <tt>null</tt>
+	 *         if the edge is not one of its edges
+	 */
+	Tuple getTemplate(AppEdge edge){
+		return edgeToTemplate.get(edge);
+	}
+}
@@ -1,5 +1,7 @@
 package org.fog.application.selectivity;
 
+import java.util.Random;
+
 /**
  * Generates an output tuple for an incoming input tuple with a fixed probability
  * @author Harshit Gupta
@@ -29,6 +31,11 @@ public class FractionalSelectivity implements SelectivityModel{
 		return false;
 	}
 	
+	@Override
+	public boolean canSelect(Random random) {
+		return random.nextDouble() < getSelectivity();
+	}
+	
 	@Override
 	public double getMeanRate() {
 		return getSelectivity(); // the average rate of tuple generation is the fixed probability value
@@ -1,5 +1,7 @@
 package org.fog.application.selectivity;
 
+import java.util.Random;
+
 /**
  * Class representing the input-output relationships of application modules.
  * @author Harshit Gupta
@@ -13,6 +15,16 @@ public interface SelectivityModel {
 	 */
 	public boolean canSelect();
 	
+	/**
+	 * Function called to check whether incoming tuple can generate an output tuple, drawing from
+	 * the generator of the device executing the tuple if the selection is random.
+	 * @param random the generator of the device
+	 * @return true if a tuple can be emitted (selection possible)
+	 */
+	public default boolean canSelect(Random random){
+		return canSelect();
+	}
+	
 	/**
 	 * Average number of tuples generated per incoming input tuple.
 	 * @return avg tuple generation rate
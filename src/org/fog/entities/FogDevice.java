@@ -1,11 +1,14 @@
 package org.fog.entities;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 
 import org.apache.commons.math3.util.Pair;
 import org.cloudbus.cloudsim.Cloudlet;
@@ -47,7 +50,12 @@ public class FogDevice extends PowerDatacenter {
 	protected List<String> activeApplications;
 	
 	protected Map<String, Application> applicationMap;
-	protected Map<String, List<String>> appToModulesMap;
+	protected Map<String, Set<String>> appToModulesMap;
+	
+	/**
+	 * The module instances running on the host, by module name
+	 */
+	protected Map<String, AppModule> moduleNameToInstance;
 	protected Map<Integer, Double> childToLatencyMap;
  
 	
@@ -71,6 +79,11 @@ public class FogDevice extends PowerDatacenter {
 
 	protected Map<Integer, List<String>> childToOperatorsMap;
 	
+	/**
+	 * Routes of the tuples going down, <tt>null</tt> to send them to all the children
+	 */
+	protected RoutingTable routingTable;
+	
 	/**
 	 * Flag denoting whether the link southwards from this FogDevice is busy
 	 */
@@ -129,7 +142,8 @@ public class FogDevice extends PowerDatacenter {
 		getCharacteristics().setId(super.getId());
 		
 		applicationMap = new HashMap<String, Application>();
-		appToModulesMap = new HashMap<String, List<String>>();
+		appToModulesMap = new HashMap<String, Set<String>>();
+		moduleNameToInstance = new HashMap<String, AppModule>();
 		northTupleQueue = new LinkedList<Tuple>();
 		southTupleQueue = new LinkedList<Pair<Tuple, Integer>>();
 		setNorthLinkBusy(false);
@@ -215,7 +229,8 @@ public class FogDevice extends PowerDatacenter {
 		getCharacteristics().setId(super.getId());
 		
 		applicationMap = new HashMap<String, Application>();
-		appToModulesMap = new HashMap<String, List<String>>();
+		appToModulesMap = new HashMap<String, Set<String>>();
+		moduleNameToInstance = new HashMap<String, AppModule>();
 		northTupleQueue = new LinkedList<Tuple>();
 		southTupleQueue = new LinkedList<Pair<Tuple, Integer>>();
 		setNorthLinkBusy(false);
@@ -297,7 +312,7 @@ public class FogDevice extends PowerDatacenter {
 	 * @param ev
 	 */
 	private void manageResources(SimEvent ev) {
-		updateEnergyConsumption();
+		updateEnergyConsumption(Collections.<Vm>emptyList());
 		send(getId(), Config.RESOURCE_MGMT_INTERVAL, FogEvents.RESOURCE_MGMT);
 	}
 
@@ -315,14 +330,17 @@ public class FogDevice extends PowerDatacenter {
 	}
 
 	private AppModule getModuleByName(String moduleName){
-		AppModule module = null;
-		for(Vm vm : getHost().getVmList()){
-			if(((AppModule)vm).getName().equals(moduleName)){
-				module=(AppModule)vm;
-				break;
-			}
-		}
-		return module;
+		return moduleNameToInstance.get(moduleName);
+	}
+	
+	/**
+	 * Indexes the module instances running on the host by name, whenever a module arrives or
+	 * leaves. If several instances of a module run on the host, the last one receives its tuples.
+	 */
+	protected void updateModuleIndex(){
+		moduleNameToInstance.clear();
+		for(Vm vm : getHost().getVmList())
+			moduleNameToInstance.put(((AppModule)vm).getName(), (AppModule)vm);
 	}
 	
 	/**
@@ -381,27 +399,32 @@ public class FogDevice extends PowerDatacenter {
 		double minTime = Double.MAX_VALUE;
 		double timeDiff = currentTime - getLastProcessTime();
 		double timeFrameDatacenterEnergy = 0.0;
+		// checked once, so that the disabled log neither boxes the arguments nor computes the utilization
+		boolean logging = !Log.isDisabled();
 
 		for (PowerHost host : this.<PowerHost> getHostList()) {
-			Log.printLine();
-
 			double time = host.updateVmsProcessing(currentTime); // inform VMs to update processing
 			if (time < minTime) {
 				minTime = time;
 			}
 
-			Log.formatLine(
-					"%.2f: [Host #%d] utilization is %.2f%%",
-					currentTime,
-					host.getId(),
-					host.getUtilizationOfCpu() * 100);
+			if (logging) {
+				Log.printLine();
+				Log.formatLine(
+						"%.2f: [Host #%d] utilization is %.2f%%",
+						currentTime,
+						host.getId(),
+						host.getUtilizationOfCpu() * 100);
+			}
 		}
 
 		if (timeDiff > 0) {
-			Log.formatLine(
-					"\nEnergy consumption for the last time frame from %.2f to %.2f:",
-					getLastProcessTime(),
-					currentTime);
+			if (logging) {
+				Log.formatLine(
+						"\nEnergy consumption for the last time frame from %.2f to %.2f:",
+						getLastProcessTime(),
+						currentTime);
+			}
 
 			for (PowerHost host : this.<PowerHost> getHostList()) {
 				double previousUtilizationOfCpu = host.getPreviousUtilizationOfCpu();
@@ -412,25 +435,29 @@ public class FogDevice extends PowerDatacenter {
 						timeDiff);
 				timeFrameDatacenterEnergy += timeFrameHostEnergy;
 
-				Log.printLine();
-				Log.formatLine(
-						"%.2f: [Host #%d] utilization at %.2f was %.2f%%, now is %.2f%%",
-						currentTime,
-						host.getId(),
-						getLastProcessTime(),
-						previousUtilizationOfCpu * 100,
-						utilizationOfCpu * 100);
+				if (logging) {
+					Log.printLine();
+					Log.formatLine(
+							"%.2f: [Host #%d] utilization at %.2f was %.2f%%, now is %.2f%%",
+							currentTime,
+							host.getId(),
+							getLastProcessTime(),
+							previousUtilizationOfCpu * 100,
+							utilizationOfCpu * 100);
+					Log.formatLine(
+							"%.2f: [Host #%d] energy is %.2f W*sec",
+							currentTime,
+							host.getId(),
+							timeFrameHostEnergy);
+				}
+			}
+
+			if (logging) {
 				Log.formatLine(
-						"%.2f: [Host #%d] energy is %.2f W*sec",
+						"\n%.2f: Data center's energy is %.2f W*sec\n",
 						currentTime,
-						host.getId(),
-						timeFrameHostEnergy);
+						timeFrameDatacenterEnergy);
 			}
-
-			Log.formatLine(
-					"\n%.2f: Data center's energy is %.2f W*sec\n",
-					currentTime,
-					timeFrameDatacenterEnergy);
 		}
 
 		setPower(getPower() + timeFrameDatacenterEnergy);
@@ -449,7 +476,9 @@ public class FogDevice extends PowerDatacenter {
 			}
 		}*/
 		
-		Log.printLine();
+		if (logging) {
+			Log.printLine();
+		}
 
 		setLastProcessTime(currentTime);
 		return minTime;
@@ -468,9 +497,11 @@ public class FogDevice extends PowerDatacenter {
 						
 						cloudletCompleted = true;
 						Tuple tuple = (Tuple)cl;
-						TimeKeeper.getInstance().tupleEndedExecution(tuple);
+						tuple.finishedExecution();
+						TimeKeeper.getInstance().tupleEndedExecution(getId(), tuple);
 						Application application = getApplicationMap().get(tuple.getAppId());
-						Logger.debug(getName(), "Completed execution of tuple "+tuple.getCloudletId()+"on "+tuple.getDestModuleName());
+						if(Logger.isDebugEnabled())
+							Logger.debug(getName(), "Completed execution of tuple "+tuple.getCloudletId()+"on "+tuple.getDestModuleName());
 						List<Tuple> resultantTuples = application.getResultantTuples(tuple.getDestModuleName(), tuple, getId(), vm.getId());
 						for(Tuple resTuple : resultantTuples){
 							resTuple.setModuleCopyMap(new HashMap<String, Integer>(tuple.getModuleCopyMap()));
@@ -478,7 +509,9 @@ public class FogDevice extends PowerDatacenter {
 							updateTimingsOnSending(resTuple);
 							sendToSelf(resTuple);
 						}
-						sendNow(cl.getUserId(), CloudSimTags.CLOUDLET_RETURN, cl);
+						// The broker ignores the returned cloudlets, and can't receive them without delay from another logical process
+						if(CloudSim.inSameLogicalProcess(getId(), cl.getUserId()))
+							sendNow(cl.getUserId(), CloudSimTags.CLOUDLET_RETURN, cl);
 					}
 				}
 			}
@@ -494,12 +527,8 @@ public class FogDevice extends PowerDatacenter {
 		String destModule = resTuple.getDestModuleName();
 		for(AppLoop loop : getApplicationMap().get(resTuple.getAppId()).getLoops()){
 			if(loop.hasEdge(srcModule, destModule) && loop.isStartModule(srcModule)){
-				int tupleId = TimeKeeper.getInstance().getUniqueId();
+				int tupleId = TimeKeeper.getInstance().tupleEmitted(loop.getLoopId());
 				resTuple.setActualTupleId(tupleId);
-				if(!TimeKeeper.getInstance().getLoopIdToTupleIds().containsKey(loop.getLoopId()))
-					TimeKeeper.getInstance().getLoopIdToTupleIds().put(loop.getLoopId(), new ArrayList<Integer>());
-				TimeKeeper.getInstance().getLoopIdToTupleIds().get(loop.getLoopId()).add(tupleId);
-				TimeKeeper.getInstance().getEmitTimes().put(tupleId, CloudSim.clock());
 				
 				//Logger.debug(getName(), "\tSENDING\t"+tuple.getActualTupleId()+"\tSrc:"+srcModule+"\tDest:"+destModule);
 				
@@ -508,6 +537,8 @@ public class FogDevice extends PowerDatacenter {
 	}
 
 	protected int getChildIdWithRouteTo(int targetDeviceId){
+		if(getRoutingTable() != null)
+			return getRoutingTable().getChildIdTowardsEntity(targetDeviceId);
 		for(Integer childId : getChildrenIds()){
 			if(targetDeviceId == childId)
 				return childId;
@@ -525,10 +556,37 @@ public class FogDevice extends PowerDatacenter {
 		return -1;
 	}
 	
+	/**
+	 * Gets the children to send a tuple going down to: those leading to the actuators of its type,
+	 * to the instance of its destination module which handled the tuple earlier, or to the
+	 * instances of its destination module.
+	 * @param tuple a tuple going down or to an actuator
+	 * @return the children to send it to, all of them if the device has no routing table
+	 */
+	protected List<Integer> getChildIdsForTuple(Tuple tuple){
+		if(getRoutingTable() == null || tuple.getDestModuleName() == null)
+			return getChildrenIds();
+		if(tuple.getDirection() == Tuple.ACTUATOR)
+			return getRoutingTable().getChildIdsTowardsActuatorType(tuple.getDestModuleName());
+		Integer moduleInstanceId = tuple.getModuleCopyMap().get(tuple.getDestModuleName());
+		if(moduleInstanceId != null){
+			int childId = getRoutingTable().getChildIdTowardsModuleInstance(moduleInstanceId);
+			return childId == -1 ? Collections.<Integer>emptyList() : Collections.singletonList(childId);
+		}
+		return getRoutingTable().getChildIdsTowardsModule(tuple.getAppId(), tuple.getDestModuleName());
+	}
+	
 	protected void updateAllocatedMips(String incomingOperator){
+		StreamOperatorScheduler scheduler = getInPlaceScheduler();
+		if(scheduler != null){
+			for(Vm vm : getHost().getVmList())
+				scheduler.requestMips(vm, isActive(vm, incomingOperator));
+			updateEnergyConsumption(scheduler.allocateRequestedMips(getHost().getVmList()));
+			return;
+		}
 		getHost().getVmScheduler().deallocatePesForAllVms();
 		for(final Vm vm : getHost().getVmList()){
-			if(vm.getCloudletScheduler().runningCloudlets() > 0 || ((AppModule)vm).getName().equals(incomingOperator)){
+			if(isActive(vm, incomingOperator)){
 				getHost().getVmScheduler().allocatePesForVm(vm, new ArrayList<Double>(){
 					protected static final long serialVersionUID = 1L;
 				{add((double) getHost().getTotalMips());}});
@@ -539,17 +597,45 @@ public class FogDevice extends PowerDatacenter {
 			}
 		}
 		
-		updateEnergyConsumption();
+		updateEnergyConsumption(getHost().getVmList());
 		
 	}
 	
-	private void updateEnergyConsumption() {
-		double totalMipsAllocated = 0;
+	/**
+	 * @return the scheduler of the host if it allocates the MIPS of the operators in place, otherwise <tt>null</tt>
+	 * @see Config#IN_PLACE_MIPS_ALLOCATION
+	 */
+	private StreamOperatorScheduler getInPlaceScheduler(){
+		if(Config.IN_PLACE_MIPS_ALLOCATION && getHost().getVmScheduler() instanceof StreamOperatorScheduler)
+			return (StreamOperatorScheduler) getHost().getVmScheduler();
+		return null;
+	}
+	
+	private boolean isActive(Vm vm, String incomingOperator){
+		return vm.getCloudletScheduler().runningCloudlets() > 0 || ((AppModule)vm).getName().equals(incomingOperator);
+	}
+	
+	/**
+	 * Updates the processing of the operators up to now, and the energy consumption and the cost
+	 * of the device. An operator without tuples to process whose share did not change has nothing
+	 * to update.
+	 * @param reallocatedVms the operators whose share changed
+	 */
+	private void updateEnergyConsumption(List<? extends Vm> reallocatedVms) {
 		for(final Vm vm : getHost().getVmList()){
-			AppModule operator = (AppModule)vm;
-			operator.updateVmProcessing(CloudSim.clock(), getVmAllocationPolicy().getHost(operator).getVmScheduler()
-					.getAllocatedMipsForVm(operator));
-			totalMipsAllocated += getHost().getTotalAllocatedMipsForVm(vm);
+			if(vm.getCloudletScheduler().runningCloudlets() > 0)
+				vm.updateVmProcessing(CloudSim.clock(), getHost().getVmScheduler().getAllocatedMipsForVm(vm));
+		}
+		for(final Vm vm : reallocatedVms){
+			if(vm.getCloudletScheduler().runningCloudlets() == 0)
+				vm.updateVmProcessing(CloudSim.clock(), getHost().getVmScheduler().getAllocatedMipsForVm(vm));
+		}
+		double totalMipsAllocated = 0;
+		if(getInPlaceScheduler() != null){
+			totalMipsAllocated = getInPlaceScheduler().getTotalAllocatedMips(getHost().getVmList());
+		}else{
+			for(final Vm vm : getHost().getVmList())
+				totalMipsAllocated += getHost().getTotalAllocatedMipsForVm(vm);
 		}
 		
 		double timeNow = CloudSim.clock();
@@ -614,7 +700,7 @@ public class FogDevice extends PowerDatacenter {
 				return;
 			}
 		}
-		for(int childId : getChildrenIds()){
+		for(int childId : getChildIdsForTuple(tuple)){
 			sendDown(tuple, childId);
 		}
 	}
@@ -629,9 +715,12 @@ public class FogDevice extends PowerDatacenter {
 		/*if(getName().equals("d-0") && tuple.getTupleType().equals("_SENSOR")){
 			System.out.println(++numClients);
 		}*/
-		Logger.debug(getName(), "Received tuple "+tuple.getCloudletId()+"with tupleType = "+tuple.getTupleType()+"\t| Source : "+
-		CloudSim.getEntityName(ev.getSource())+"|Dest : "+CloudSim.getEntityName(ev.getDestination()));
-		send(ev.getSource(), CloudSim.getMinTimeBetweenEvents(), FogEvents.TUPLE_ACK);
+		if(Logger.isDebugEnabled())
+			Logger.debug(getName(), "Received tuple "+tuple.getCloudletId()+"with tupleType = "+tuple.getTupleType()+"\t| Source : "+
+			CloudSim.getEntityName(ev.getSource())+"|Dest : "+CloudSim.getEntityName(ev.getDestination()));
+		// The tuples sent in batches over the links between devices are not acknowledged one by one
+		if(Config.LINK_BATCH_SIZE <= 1 || !isLinkedDevice(ev.getSource()))
+			send(ev.getSource(), CloudSim.getMinTimeBetweenEvents(), FogEvents.TUPLE_ACK);
 		
 		if(FogUtils.appIdToGeoCoverageMap.containsKey(tuple.getAppId())){
 		}
@@ -644,10 +733,14 @@ public class FogDevice extends PowerDatacenter {
 		if(getHost().getVmList().size() > 0){
 			final AppModule operator = (AppModule)getHost().getVmList().get(0);
 			if(CloudSim.clock() > 0){
-				getHost().getVmScheduler().deallocatePesForVm(operator);
-				getHost().getVmScheduler().allocatePesForVm(operator, new ArrayList<Double>(){
-					protected static final long serialVersionUID = 1L;
-				{add((double) getHost().getTotalMips());}});
+				if(getInPlaceScheduler() != null){
+					getInPlaceScheduler().allocateAllMips(operator);
+				}else{
+					getHost().getVmScheduler().deallocatePesForVm(operator);
+					getHost().getVmScheduler().allocatePesForVm(operator, new ArrayList<Double>(){
+						protected static final long serialVersionUID = 1L;
+					{add((double) getHost().getTotalMips());}});
+				}
 			}
 		}
 		
@@ -658,11 +751,8 @@ public class FogDevice extends PowerDatacenter {
 		
 		if(appToModulesMap.containsKey(tuple.getAppId())){
 			if(appToModulesMap.get(tuple.getAppId()).contains(tuple.getDestModuleName())){
-				int vmId = -1;
-				for(Vm vm : getHost().getVmList()){
-					if(((AppModule)vm).getName().equals(tuple.getDestModuleName()))
-						vmId = vm.getId();
-				}
+				AppModule module = getModuleByName(tuple.getDestModuleName());
+				int vmId = module != null ? module.getId() : -1;
 				if(vmId < 0
 						|| (tuple.getModuleCopyMap().containsKey(tuple.getDestModuleName()) && 
 								tuple.getModuleCopyMap().get(tuple.getDestModuleName())!=vmId )){
@@ -678,7 +768,7 @@ public class FogDevice extends PowerDatacenter {
 				if(tuple.getDirection() == Tuple.UP)
 					sendUp(tuple);
 				else if(tuple.getDirection() == Tuple.DOWN){
-					for(int childId : getChildrenIds())
+					for(int childId : getChildIdsForTuple(tuple))
 						sendDown(tuple, childId);
 				}
 			}else{
@@ -688,12 +778,16 @@ public class FogDevice extends PowerDatacenter {
 			if(tuple.getDirection() == Tuple.UP)
 				sendUp(tuple);
 			else if(tuple.getDirection() == Tuple.DOWN){
-				for(int childId : getChildrenIds())
+				for(int childId : getChildIdsForTuple(tuple))
 					sendDown(tuple, childId);
 			}
 		}
 	}
 
+	private boolean isLinkedDevice(int entityId){
+		return entityId == getParentId() || getChildToLatencyMap().containsKey(entityId);
+	}
+
 	protected void updateTimingsOnReceipt(Tuple tuple) {
 		Application app = getApplicationMap().get(tuple.getAppId());
 		String srcModule = tuple.getSrcModuleName();
@@ -701,20 +795,7 @@ public class FogDevice extends PowerDatacenter {
 		List<AppLoop> loops = app.getLoops();
 		for(AppLoop loop : loops){
 			if(loop.hasEdge(srcModule, destModule) && loop.isEndModule(destModule)){				
-				Double startTime = TimeKeeper.getInstance().getEmitTimes().get(tuple.getActualTupleId());
-				if(startTime==null)
-					break;
-				if(!TimeKeeper.getInstance().getLoopIdToCurrentAverage().containsKey(loop.getLoopId())){
-					TimeKeeper.getInstance().getLoopIdToCurrentAverage().put(loop.getLoopId(), 0.0);
-					TimeKeeper.getInstance().getLoopIdToCurrentNum().put(loop.getLoopId(), 0);
-				}
-				double currentAverage = TimeKeeper.getInstance().getLoopIdToCurrentAverage().get(loop.getLoopId());
-				int currentCount = TimeKeeper.getInstance().getLoopIdToCurrentNum().get(loop.getLoopId());
-				double delay = CloudSim.clock()- TimeKeeper.getInstance().getEmitTimes().get(tuple.getActualTupleId());
-				TimeKeeper.getInstance().getEmitTimes().remove(tuple.getActualTupleId());
-				double newAverage = (currentAverage*currentCount + delay)/(currentCount+1);
-				TimeKeeper.getInstance().getLoopIdToCurrentAverage().put(loop.getLoopId(), newAverage);
-				TimeKeeper.getInstance().getLoopIdToCurrentNum().put(loop.getLoopId(), currentCount+1);
+				TimeKeeper.getInstance().tupleReachedLoopEnd(loop.getLoopId(), tuple.getActualTupleId());
 				break;
 			}
 		}
@@ -725,7 +806,8 @@ public class FogDevice extends PowerDatacenter {
 	}
 	
 	protected void executeTuple(SimEvent ev, String moduleName){
-		Logger.debug(getName(), "Executing tuple on module "+moduleName);
+		if(Logger.isDebugEnabled())
+			Logger.debug(getName(), "Executing tuple on module "+moduleName);
 		Tuple tuple = (Tuple)ev.getData();
 		
 		AppModule module = getModuleByName(moduleName);
@@ -744,7 +826,9 @@ public class FogDevice extends PowerDatacenter {
 			module.setNumInstances(instances);
 		}
 		
-		TimeKeeper.getInstance().tupleStartedExecution(tuple);
+		// A finished tuple is refused, see processCloudletSubmit()
+		if(!tuple.isFinished() && !tuple.isFinishedByCopy())
+			TimeKeeper.getInstance().tupleStartedExecution(getId(), tuple);
 		updateAllocatedMips(moduleName);
 		processCloudletSubmit(ev, false);
 		updateAllocatedMips(moduleName);
@@ -753,11 +837,24 @@ public class FogDevice extends PowerDatacenter {
 		}*/
 	}
 	
+	@Override
+	protected void processCloudletSubmit(SimEvent ev, boolean ack) {
+		Tuple tuple = (Tuple)ev.getData();
+		if(tuple.isFinishedByCopy()
+				|| tuple.isFinished() && !CloudSim.inSameLogicalProcess(getId(), tuple.getUserId())){
+			// Refuse the finished tuple as usual, but without returning it to the broker of another logical process
+			updateCloudletProcessing();
+			setCloudletSubmitted(CloudSim.clock());
+			return;
+		}
+		super.processCloudletSubmit(ev, ack);
+	}
+	
 	protected void processModuleArrival(SimEvent ev){
 		AppModule module = (AppModule)ev.getData();
 		String appId = module.getAppId();
 		if(!appToModulesMap.containsKey(appId)){
-			appToModulesMap.put(appId, new ArrayList<String>());
+			appToModulesMap.put(appId, new HashSet<String>());
 		}
 		appToModulesMap.get(appId).add(module.getName());
 		processVmCreate(ev, false);
@@ -784,6 +881,24 @@ public class FogDevice extends PowerDatacenter {
 		this.processVmMigrate(ev, false);
 	}
 	
+	@Override
+	protected void processVmCreate(SimEvent ev, boolean ack) {
+		super.processVmCreate(ev, ack);
+		updateModuleIndex();
+	}
+	
+	@Override
+	protected void processVmDestroy(SimEvent ev, boolean ack) {
+		super.processVmDestroy(ev, ack);
+		updateModuleIndex();
+	}
+	
+	@Override
+	protected void processVmMigrate(SimEvent ev, boolean ack) {
+		super.processVmMigrate(ev, ack);
+		updateModuleIndex();
+	}
+	
 	
 	protected void updateNorthTupleQueue(){
 		if(!getNorthTupleQueue().isEmpty()){
@@ -794,12 +909,31 @@ public class FogDevice extends PowerDatacenter {
 		}
 	}
 	
+	/**
+	 * Sends a tuple up, followed by a batch of the queued tuples of at most {@link Config#LINK_BATCH_SIZE}
+	 * tuples and {@link Config#LINK_BATCH_NW_LENGTH} in all. Each tuple arrives exactly when it would
+	 * have if the tuples had been sent one by one, and the link is updated once at the end of the batch.
+	 */
 	protected void sendUpFreeLink(Tuple tuple){
-		double networkDelay = tuple.getCloudletFileSize()/getUplinkBandwidth();
 		setNorthLinkBusy(true);
-		send(getId(), networkDelay, FogEvents.UPDATE_NORTH_TUPLE_QUEUE);
-		send(parentId, networkDelay+getUplinkLatency(), FogEvents.TUPLE_ARRIVAL, tuple);
-		NetworkUsageMonitor.sendingTuple(getUplinkLatency(), tuple.getCloudletFileSize());
+		double sendTime = CloudSim.clock();
+		int batchSize = 0;
+		long batchNwLength = 0;
+		while(true){
+			double networkDelay = tuple.getCloudletFileSize()/getUplinkBandwidth();
+			sendAt(parentId, sendTime, networkDelay+getUplinkLatency(), FogEvents.TUPLE_ARRIVAL, tuple);
+			NetworkUsageMonitor.sendingTuple(getUplinkLatency(), tuple.getCloudletFileSize());
+			batchSize++;
+			batchNwLength += tuple.getCloudletFileSize();
+			Tuple next = getNorthTupleQueue().peek();
+			if(next == null || batchSize >= Config.LINK_BATCH_SIZE
+					|| batchNwLength + next.getCloudletFileSize() > Config.LINK_BATCH_NW_LENGTH){
+				sendAt(getId(), sendTime, networkDelay, FogEvents.UPDATE_NORTH_TUPLE_QUEUE, null);
+				return;
+			}
+			sendTime += networkDelay;
+			tuple = getNorthTupleQueue().poll();
+		}
 	}
 	
 	protected void sendUp(Tuple tuple){
@@ -822,14 +956,37 @@ public class FogDevice extends PowerDatacenter {
 		}
 	}
 	
+	/**
+	 * Sends a tuple down to a child, followed by a batch of the queued tuples as
+	 * {@link #sendUpFreeLink(Tuple)} does.
+	 */
 	protected void sendDownFreeLink(Tuple tuple, int childId){
-		double networkDelay = tuple.getCloudletFileSize()/getDownlinkBandwidth();
 		//Logger.debug(getName(), "Sending tuple with tupleType = "+tuple.getTupleType()+" DOWN");
 		setSouthLinkBusy(true);
-		double latency = getChildToLatencyMap().get(childId);
-		send(getId(), networkDelay, FogEvents.UPDATE_SOUTH_TUPLE_QUEUE);
-		send(childId, networkDelay+latency, FogEvents.TUPLE_ARRIVAL, tuple);
-		NetworkUsageMonitor.sendingTuple(latency, tuple.getCloudletFileSize());
+		double sendTime = CloudSim.clock();
+		int batchSize = 0;
+		long batchNwLength = 0;
+		while(true){
+			double networkDelay = tuple.getCloudletFileSize()/getDownlinkBandwidth();
+			double latency = getChildToLatencyMap().get(childId);
+			// A tuple sent down to several children must not be shared between logical processes
+			if(!CloudSim.inSameLogicalProcess(getId(), childId))
+				tuple = tuple.copy();
+			sendAt(childId, sendTime, networkDelay+latency, FogEvents.TUPLE_ARRIVAL, tuple);
+			NetworkUsageMonitor.sendingTuple(latency, tuple.getCloudletFileSize());
+			batchSize++;
+			batchNwLength += tuple.getCloudletFileSize();
+			Pair<Tuple, Integer> next = getSouthTupleQueue().peek();
+			if(next == null || batchSize >= Config.LINK_BATCH_SIZE
+					|| batchNwLength + next.getFirst().getCloudletFileSize() > Config.LINK_BATCH_NW_LENGTH){
+				sendAt(getId(), sendTime, networkDelay, FogEvents.UPDATE_SOUTH_TUPLE_QUEUE, null);
+				return;
+			}
+			sendTime += networkDelay;
+			getSouthTupleQueue().poll();
+			tuple = next.getFirst();
+			childId = next.getSecond();
+		}
 	}
 	
 	protected void sendDown(Tuple tuple, int childId){
@@ -951,6 +1108,14 @@ public class FogDevice extends PowerDatacenter {
 	public void setEnergyConsumption(double energyConsumption) {
 		this.energyConsumption = energyConsumption;
 	}
+	public RoutingTable getRoutingTable() {
+		return routingTable;
+	}
+
+	public void setRoutingTable(RoutingTable routingTable) {
+		this.routingTable = routingTable;
+	}
+
 	public Map<Integer, Double> getChildToLatencyMap() {
 		return childToLatencyMap;
 	}
@@ -0,0 +1,142 @@
+package org.fog.entities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * The routes of the tuples going down from a fog device: the child leading to each device and
+ * actuator below it, the child leading to each module instance placed below it, and the children
+ * leading to the actuators of a type or to the instances of a module.
+ * <p>
+ * The tables are built by the {@link org.fog.placement.Controller} from those of the children,
+ * once the devices are connected and whenever modules are placed.
+ */
+public class RoutingTable {
+
+	private final Routes entityRoutes = new Routes();
+	private final Routes moduleInstanceRoutes = new Routes();
+	private final Map<String, List<Integer>> actuatorTypeToChildIds = new HashMap<String, List<Integer>>();
+	private final Map<String, Map<String, List<Integer>>> appToModuleToChildIds = new HashMap<String, Map<String, List<Integer>>>();
+
+	/**
+	 * @param entityId the id of a device or an actuator
+	 * @return the child leading to it, or -1 if it is not below this device
+	 */
+	public int getChildIdTowardsEntity(int entityId){
+		return entityRoutes.get(entityId);
+	}
+
+	public void setChildIdTowardsEntity(int entityId, int childId){
+		entityRoutes.put(entityId, childId);
+	}
+
+	/**
+	 * @param moduleInstanceId the id of an instance of a module
+	 * @return the child leading to the device it is placed on, or -1 if it is not below this device
+	 */
+	public int getChildIdTowardsModuleInstance(int moduleInstanceId){
+		return moduleInstanceRoutes.get(moduleInstanceId);
+	}
+
+	public void setChildIdTowardsModuleInstance(int moduleInstanceId, int childId){
+		moduleInstanceRoutes.put(moduleInstanceId, childId);
+	}
+
+	/**
+	 * @return the children leading to the actuators of a type, in the order of the children
+	 */
+	public List<Integer> getChildIdsTowardsActuatorType(String actuatorType){
+		List<Integer> childIds = actuatorTypeToChildIds.get(actuatorType);
+		return childIds != null ? childIds : Collections.<Integer>emptyList();
+	}
+
+	public void addChildIdTowardsActuatorType(String actuatorType, int childId){
+		if(!actuatorTypeToChildIds.containsKey(actuatorType))
+			actuatorTypeToChildIds.put(actuatorType, new ArrayList<Integer>());
+		addLast(actuatorTypeToChildIds.get(actuatorType), childId);
+	}
+
+	/**
+	 * @return the children leading to the instances of a module, in the order of the children
+	 */
+	public List<Integer> getChildIdsTowardsModule(String appId, String moduleName){
+		Map<String, List<Integer>> moduleToChildIds = appToModuleToChildIds.get(appId);
+		List<Integer> childIds = moduleToChildIds != null ? moduleToChildIds.get(moduleName) : null;
+		return childIds != null ? childIds : Collections.<Integer>emptyList();
+	}
+
+	public void addChildIdTowardsModule(String appId, String moduleName, int childId){
+		if(!appToModuleToChildIds.containsKey(appId))
+			appToModuleToChildIds.put(appId, new HashMap<String, List<Integer>>());
+		Map<String, List<Integer>> moduleToChildIds = appToModuleToChildIds.get(appId);
+		if(!moduleToChildIds.containsKey(moduleName))
+			moduleToChildIds.put(moduleName, new ArrayList<Integer>());
+		addLast(moduleToChildIds.get(moduleName), childId);
+	}
+
+	/**
+	 * Adds the routes of a child: whatever is reachable below the child is reachable through it.
+	 */
+	public void addRoutesOfChild(final int childId, RoutingTable childTable){
+		childTable.entityRoutes.forEachKey(entityId -> setChildIdTowardsEntity(entityId, childId));
+		childTable.moduleInstanceRoutes.forEachKey(instanceId -> setChildIdTowardsModuleInstance(instanceId, childId));
+		for(String actuatorType : childTable.actuatorTypeToChildIds.keySet())
+			addChildIdTowardsActuatorType(actuatorType, childId);
+		for(Map.Entry<String, Map<String, List<Integer>>> entry : childTable.appToModuleToChildIds.entrySet())
+			for(String moduleName : entry.getValue().keySet())
+				addChildIdTowardsModule(entry.getKey(), moduleName, childId);
+	}
+
+	/**
+	 * The routes of a child are added one after the other, so a child is already in the list
+	 * only if it was the last one added.
+	 */
+	private static void addLast(List<Integer> childIds, int childId){
+		if(childIds.isEmpty() || childIds.get(childIds.size()-1) != childId)
+			childIds.add(childId);
+	}
+
+	/**
+	 * Map from ids to child ids held in an array over the range of the ids, which is small for the
+	 * ids below a device since the devices of a subtree are usually created together.
+	 */
+	private static class Routes {
+		private int base;
+		private int[] childIds = new int[0];
+
+		int get(int id){
+			int index = id - base;
+			return index >= 0 && index < childIds.length ? childIds[index] : -1;
+		}
+
+		void put(int id, int childId){
+			if(childIds.length == 0){
+				base = id;
+				childIds = new int[] {-1};
+			}
+			if(id < base){
+				int[] grown = new int[childIds.length + base - id];
+				Arrays.fill(grown, -1);
+				System.arraycopy(childIds, 0, grown, base - id, childIds.length);
+				childIds = grown;
+				base = id;
+			}else if(id - base >= childIds.length){
+				int[] grown = Arrays.copyOf(childIds, Math.max(id - base + 1, childIds.length * 2));
+				Arrays.fill(grown, childIds.length, grown.length, -1);
+				childIds = grown;
+			}
+			childIds[id - base] = childId;
+		}
+
+		void forEachKey(IntConsumer action){
+			for(int i = 0; i < childIds.length; i++)
+				if(childIds[i] != -1)
+					action.accept(base + i);
+		}
+	}
+}
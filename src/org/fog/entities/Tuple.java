@@ -5,6 +5,7 @@ import java.util.Map;
 
 import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.UtilizationModel;
+import org.cloudbus.cloudsim.core.CloudSim;
 
 public class Tuple extends Cloudlet{
 
@@ -25,9 +26,20 @@ public class Tuple extends Cloudlet{
 	/**
 	 * Map to keep track of which module instances has a tuple traversed.
 	 * 
-	 * Map from moduleName to vmId of a module instance
+	 * Map from moduleName to vmId of a module instance. A tuple created from a template shares
+	 * the map of the template, so the map is replaced rather than changed once it is set.
 	 */
 	private Map<String, Integer> moduleCopyMap;
+	/**
+	 * The execution state shared by a tuple and its copies in other logical processes, as a
+	 * sequential run shares the tuple itself. Null until the tuple is copied.
+	 */
+	private CopyGroup copyGroup;
+	
+	private static class CopyGroup{
+		/** Whether one of the copies finished executing before the current time window */
+		private boolean finished;
+	}
 	
 	public Tuple(String appId, int cloudletId, int direction, long cloudletLength, int pesNumber,
 			long cloudletFileSize, long cloudletOutputSize,
@@ -43,6 +55,30 @@ public class Tuple extends Cloudlet{
 		setModuleCopyMap(new HashMap<String, Integer>());
 	}
 
+	/**
+	 * Creates a tuple emitted like another one, with its own id and without execution state. The
+	 * fields are copied from the template, whose utilization models and module copy map are shared.
+	 * @param cloudletId the id of the new tuple
+	 * @param template the tuple to copy
+	 */
+	public Tuple(int cloudletId, Tuple template) {
+		super(cloudletId, template.getCloudletLength(), template.getNumberOfPes(),
+				template.getCloudletFileSize(), template.getCloudletOutputSize(),
+				template.getUtilizationModelCpu(), template.getUtilizationModelRam(),
+				template.getUtilizationModelBw(), false);
+		setUserId(template.getUserId());
+		appId = template.appId;
+		tupleType = template.tupleType;
+		destModuleName = template.destModuleName;
+		srcModuleName = template.srcModuleName;
+		actualTupleId = template.actualTupleId;
+		direction = template.direction;
+		actuatorId = template.actuatorId;
+		sourceDeviceId = template.sourceDeviceId;
+		sourceModuleId = template.sourceModuleId;
+		moduleCopyMap = template.moduleCopyMap;
+	}
+
 	public int getActualTupleId() {
 		return actualTupleId;
 	}
@@ -123,4 +159,43 @@ public class Tuple extends Cloudlet{
 		this.sourceModuleId = sourceModuleId;
 	}
 
+	/**
+	 * Copies the tuple as it was emitted, without its execution state, so that a device of
+	 * another logical process can receive it in a parallel simulation.
+	 * <p>
+	 * A sequential run sends the same tuple down to all the children, and once one of them has
+	 * executed it, the others refuse it. The copies keep that behaviour: each copy is refused
+	 * once any of them has finished executing, see {@link #isFinishedByCopy()}.
+	 * @return the copy
+	 */
+	public Tuple copy(){
+		if(copyGroup == null)
+			copyGroup = new CopyGroup();
+		Tuple copy = new Tuple(getCloudletId(), this);
+		copy.setVmId(getVmId());
+		copy.copyGroup = copyGroup;
+		return copy;
+	}
+
+	/**
+	 * Checks if another copy of the tuple, in another logical process, has finished executing.
+	 * The executions of the copies are only seen from the next time window on, in the order of
+	 * a sequential run, so that any number of threads gives the same result. A copy which
+	 * finished less than a lookahead earlier is not seen yet, so a parallel run may still execute
+	 * a few copies which a sequential run refuses.
+	 * @return true, if the tuple should be refused as a finished one
+	 */
+	public boolean isFinishedByCopy(){
+		return copyGroup != null && copyGroup.finished;
+	}
+
+	/**
+	 * Lets the other copies of the tuple know that it has finished executing.
+	 */
+	public void finishedExecution(){
+		final CopyGroup group = copyGroup;
+		if(group != null)
+			CloudSim.runInOrder(() -> group.finished = true);
+	}
+
 }
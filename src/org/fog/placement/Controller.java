@@ -1,9 +1,12 @@
 package org.fog.placement;
 
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.SimEntity;
@@ -14,10 +17,12 @@ import org.fog.application.AppModule;
 import org.fog.application.Application;
 import org.fog.entities.Actuator;
 import org.fog.entities.FogDevice;
+import org.fog.entities.RoutingTable;
 import org.fog.entities.Sensor;
 import org.fog.utils.Config;
 import org.fog.utils.FogEvents;
 import org.fog.utils.FogUtils;
+import org.fog.utils.LatencyHistogram;
 import org.fog.utils.NetworkUsageMonitor;
 import org.fog.utils.TimeKeeper;
 
@@ -34,6 +39,11 @@ public class Controller extends SimEntity{
 
 	private Map<String, ModulePlacement> appModulePlacementPolicy;
 	
+	/**
+	 * The modules placed on each device by the applications launched so far
+	 */
+	private Map<Integer, List<AppModule>> deviceToPlacedModules = new HashMap<Integer, List<AppModule>>();
+	
 	public Controller(String name, List<FogDevice> fogDevices, List<Sensor> sensors, List<Actuator> actuators) {
 		super(name);
 		this.applications = new HashMap<String, Application>();
@@ -65,6 +75,72 @@ public class Controller extends SimEntity{
 			parent.getChildToLatencyMap().put(fogDevice.getId(), latency);
 			parent.getChildrenIds().add(fogDevice.getId());
 		}
+		buildRoutingTables();
+	}
+	
+	/**
+	 * Builds the routing tables of all the devices, those of the children first.
+	 */
+	private void buildRoutingTables(){
+		Map<Integer, List<Actuator>> gatewayToActuators = getGatewayToActuators();
+		Set<Integer> fogDeviceIds = new HashSet<Integer>();
+		for(FogDevice fogDevice : getFogDevices())
+			fogDeviceIds.add(fogDevice.getId());
+		for(FogDevice fogDevice : getFogDevices()){
+			if(!fogDeviceIds.contains(fogDevice.getParentId()))
+				buildRoutingTables(fogDevice, gatewayToActuators);
+		}
+	}
+	
+	private void buildRoutingTables(FogDevice fogDevice, Map<Integer, List<Actuator>> gatewayToActuators){
+		for(int childId : fogDevice.getChildrenIds())
+			buildRoutingTables((FogDevice)CloudSim.getEntity(childId), gatewayToActuators);
+		fogDevice.setRoutingTable(createRoutingTable(fogDevice, gatewayToActuators));
+	}
+	
+	/**
+	 * Updates the routing tables of a device and of its ancestors, after a change of the children
+	 * of the device, of the actuators connected to them or of the modules placed below it. The
+	 * tables of the children should be up to date.
+	 * @param fogDevice the device
+	 */
+	public void updateRoutingTables(FogDevice fogDevice){
+		Map<Integer, List<Actuator>> gatewayToActuators = getGatewayToActuators();
+		for(FogDevice device = fogDevice; device != null; device = getFogDeviceById(device.getParentId()))
+			device.setRoutingTable(createRoutingTable(device, gatewayToActuators));
+	}
+	
+	private RoutingTable createRoutingTable(FogDevice fogDevice, Map<Integer, List<Actuator>> gatewayToActuators){
+		RoutingTable routingTable = new RoutingTable();
+		for(int childId : fogDevice.getChildrenIds()){
+			routingTable.setChildIdTowardsEntity(childId, childId);
+			if(gatewayToActuators.containsKey(childId)){
+				for(Actuator actuator : gatewayToActuators.get(childId)){
+					routingTable.setChildIdTowardsEntity(actuator.getId(), childId);
+					routingTable.addChildIdTowardsActuatorType(actuator.getActuatorType(), childId);
+				}
+			}
+			if(deviceToPlacedModules.containsKey(childId)){
+				for(AppModule module : deviceToPlacedModules.get(childId)){
+					routingTable.setChildIdTowardsModuleInstance(module.getId(), childId);
+					routingTable.addChildIdTowardsModule(module.getAppId(), module.getName(), childId);
+				}
+			}
+			RoutingTable childRoutingTable = ((FogDevice)CloudSim.getEntity(childId)).getRoutingTable();
+			if(childRoutingTable != null)
+				routingTable.addRoutesOfChild(childId, childRoutingTable);
+		}
+		return routingTable;
+	}
+	
+	private Map<Integer, List<Actuator>> getGatewayToActuators(){
+		Map<Integer, List<Actuator>> gatewayToActuators = new HashMap<Integer, List<Actuator>>();
+		for(Actuator actuator : getActuators()){
+			if(!gatewayToActuators.containsKey(actuator.getGatewayDeviceId()))
+				gatewayToActuators.put(actuator.getGatewayDeviceId(), new ArrayList<Actuator>());
+			gatewayToActuators.get(actuator.getGatewayDeviceId()).add(actuator);
+		}
+		return gatewayToActuators;
 	}
 	
 	@Override
@@ -73,12 +149,13 @@ public class Controller extends SimEntity{
 			if(getAppLaunchDelays().get(appId)==0)
 				processAppSubmit(applications.get(appId));
 			else
-				send(getId(), getAppLaunchDelays().get(appId), FogEvents.APP_SUBMIT, applications.get(appId));
+				scheduleSynchronous(getId(), getAppLaunchDelays().get(appId), FogEvents.APP_SUBMIT, applications.get(appId));
 		}
 
 		send(getId(), Config.RESOURCE_MANAGE_INTERVAL, FogEvents.CONTROLLER_RESOURCE_MANAGE);
 		
-		send(getId(), Config.MAX_SIMULATION_TIME, FogEvents.STOP_SIMULATION);
+		// Both read or update all the devices, which a parallel simulation only allows at synchronous events
+		scheduleSynchronous(getId(), Config.MAX_SIMULATION_TIME, FogEvents.STOP_SIMULATION);
 		
 		for(FogDevice dev : getFogDevices())
 			sendNow(dev.getId(), FogEvents.RESOURCE_MGMT);
@@ -103,7 +180,7 @@ public class Controller extends SimEntity{
 			printPowerDetails();
 			printCostDetails();
 			printNetworkUsageDetails();
-			System.exit(0);
+			CloudSim.abruptallyTerminate();
 			break;
 			
 		}
@@ -148,17 +225,7 @@ public class Controller extends SimEntity{
 		System.out.println("=========================================");
 		System.out.println("APPLICATION LOOP DELAYS");
 		System.out.println("=========================================");
-		for(Integer loopId : TimeKeeper.getInstance().getLoopIdToTupleIds().keySet()){
-			/*double average = 0, count = 0;
-			for(int tupleId : TimeKeeper.getInstance().getLoopIdToTupleIds().get(loopId)){
-				Double startTime = 	TimeKeeper.getInstance().getEmitTimes().get(tupleId);
-				Double endTime = 	TimeKeeper.getInstance().getEndTimes().get(tupleId);
-				if(startTime == null || endTime == null)
-					break;
-				average += endTime-startTime;
-				count += 1;
-			}
-			System.out.println(getStringForLoopId(loopId) + " ---> "+(average/count));*/
+		for(Integer loopId : TimeKeeper.getInstance().getLoopIdToDelays().keySet()){
 			System.out.println(getStringForLoopId(loopId) + " ---> "+TimeKeeper.getInstance().getLoopIdToCurrentAverage().get(loopId));
 		}
 		System.out.println("=========================================");
@@ -169,9 +236,63 @@ public class Controller extends SimEntity{
 			System.out.println(tupleType + " ---> "+TimeKeeper.getInstance().getTupleTypeToAverageCpuTime().get(tupleType));
 		}
 		
+		System.out.println("=========================================");
+		System.out.println("APPLICATION LOOP DELAY PERCENTILES");
+		System.out.println("=========================================");
+		for(Map.Entry<Integer, LatencyHistogram> entry : TimeKeeper.getInstance().getLoopIdToDelays().entrySet()){
+			System.out.println(getStringForLoopId(entry.getKey()) + " ---> "+getPercentiles(entry.getValue()));
+		}
+		System.out.println("=========================================");
+		System.out.println("TUPLE CPU EXECUTION DELAY PERCENTILES");
+		System.out.println("=========================================");
+		for(Map.Entry<String, LatencyHistogram> entry : TimeKeeper.getInstance().getTupleTypeToCpuTimes().entrySet()){
+			System.out.println(entry.getKey() + " ---> "+getPercentiles(entry.getValue()));
+		}
+		
 		System.out.println("=========================================");
 	}
+	
+	private String getPercentiles(LatencyHistogram delays){
+		return "p50 = "+delays.getValueAtPercentile(50)+", p95 = "+delays.getValueAtPercentile(95)
+				+", p99 = "+delays.getValueAtPercentile(99)+" (count = "+delays.getCount()+")";
+	}
 
+	/**
+	 * Runs the simulation in parallel. The subtree under each child of the first device with
+	 * several children, such as the proxy server, becomes a logical process along with its sensors
+	 * and actuators, and the other entities form another logical process. The lookahead is the
+	 * smallest latency between the logical processes, including the delay of the tuple
+	 * acknowledgements.
+	 * Should be called once all the entities are created, before starting the simulation.
+	 * @param numOfThreads the number of threads running the logical processes
+	 */
+	public void enableParallelExecution(int numOfThreads){
+		FogDevice root = getCloud();
+		while(root.getChildrenIds().size() == 1)
+			root = getFogDeviceById(root.getChildrenIds().get(0));
+		
+		int[] processOfEntity = new int[CloudSim.getNumEntities()];
+		double lookahead = CloudSim.getMinTimeBetweenEvents();
+		int process = 0;
+		for(int childId : root.getChildrenIds()){
+			FogDevice child = getFogDeviceById(childId);
+			lookahead = Math.min(lookahead, child.getUplinkLatency());
+			assignToProcess(child, ++process, processOfEntity);
+		}
+		for(Sensor sensor : getSensors())
+			processOfEntity[sensor.getId()] = processOfEntity[sensor.getGatewayDeviceId()];
+		for(Actuator actuator : getActuators())
+			processOfEntity[actuator.getId()] = processOfEntity[actuator.getGatewayDeviceId()];
+		
+		CloudSim.enableParallelExecution(processOfEntity, lookahead, numOfThreads);
+	}
+	
+	private void assignToProcess(FogDevice fogDevice, int process, int[] processOfEntity){
+		processOfEntity[fogDevice.getId()] = process;
+		for(int childId : fogDevice.getChildrenIds())
+			assignToProcess(getFogDeviceById(childId), process, processOfEntity);
+	}
+	
 	protected void manageResources(){
 		send(getId(), Config.RESOURCE_MANAGE_INTERVAL, FogEvents.CONTROLLER_RESOURCE_MANAGE);
 	}
@@ -233,7 +354,11 @@ public class Controller extends SimEntity{
 				sendNow(deviceId, FogEvents.APP_SUBMIT, application);
 				sendNow(deviceId, FogEvents.LAUNCH_MODULE, module);
 			}
+			if(!deviceToPlacedModules.containsKey(deviceId))
+				deviceToPlacedModules.put(deviceId, new ArrayList<AppModule>());
+			deviceToPlacedModules.get(deviceId).addAll(deviceToModuleMap.get(deviceId));
 		}
+		buildRoutingTables();
 	}
 
 	public List<FogDevice> getFogDevices() {
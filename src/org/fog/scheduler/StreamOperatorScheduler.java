@@ -1,16 +1,267 @@
 package org.fog.scheduler;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.cloudbus.cloudsim.Pe;
-import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.VmSchedulerTimeSharedOverSubscription;
+import org.cloudbus.cloudsim.lists.PeList;
 import org.cloudbus.cloudsim.sdn.overbooking.VmSchedulerTimeSharedOverbookingEnergy;
 
+/**
+ * Scheduler of the operators placed on a fog device, each of which requests either the whole
+ * capacity of the host, while it is processing tuples, or nothing.
+ * <p>
+ * Deallocating the PEs of all the operators and allocating them again in turn, as
+ * {@link VmSchedulerTimeSharedOverSubscription} does it, always gives the active operators the
+ * same share: the capacity they request, or the floor of their part of the host once they request
+ * more than it has. So the shares are kept from one allocation to the next, and only those of the
+ * operators whose request changed are allocated again, unless the share of the active operators
+ * changes too.
+ * <p>
+ * An operator may be listed more than once on the host, and is then allocated once per listing.
+ */
 public class StreamOperatorScheduler extends VmSchedulerTimeSharedOverbookingEnergy{
 
+	private static final List<Double> NO_MIPS = Collections.singletonList(0.0);
+
+	/**
+	 * An operator of the host, with its request and the request its share was allocated for.
+	 */
+	private static class Operator {
+		final Vm vm;
+		int numberOfListings;
+		boolean active;
+		boolean allocatedActive;
+
+		Operator(Vm vm){
+			this.vm = vm;
+		}
+	}
+
+	private final Map<String, Operator> operators = new HashMap<String, Operator>();
+	private final List<Operator> requestedOperators = new ArrayList<Operator>();
+	private final List<Vm> reallocatedVms = new ArrayList<Vm>();
+	/** whether the allocation is the one of the requests of the operators, so it can be updated in place */
+	private boolean inPlace;
+	private int numberOfListings;
+	private int numberOfActiveOperators;
+	private int numberOfActiveListings;
+	private double activeMips;
+	private List<Double> activeShare;
+	private List<Double> fullRequest;
+
 	public StreamOperatorScheduler(List<? extends Pe> pelist) {
 		super(pelist);
 	}
+
+	/**
+	 * Requests the whole capacity of the host for an operator if it is active, or nothing. The
+	 * request is allocated by {@link #allocateRequestedMips(List)}.
+	 */
+	public void requestMips(Vm vm, boolean active){
+		Operator operator = operators.get(vm.getUid());
+		if(operator == null){
+			operator = new Operator(vm);
+			operators.put(vm.getUid(), operator);
+			inPlace = false;
+		}
+		if(vm.isInMigration())
+			inPlace = false;
+		operator.active = active;
+		if(active != operator.allocatedActive)
+			requestedOperators.add(operator);
+	}
+
+	/**
+	 * Allocates the requests of the operators, as deallocating the PEs of all of them and
+	 * allocating them again in the order of the list does.
+	 *
+	 * @param vms the operators of the host
+	 * @return the operators whose share was allocated again
+	 */
+	public List<Vm> allocateRequestedMips(List<? extends Vm> vms){
+		reallocatedVms.clear();
+		if(canAllocateInPlace() && numberOfListings == vms.size())
+			allocateInPlace();
+		else
+			reallocateAllMips(vms);
+		return reallocatedVms;
+	}
+
+	/**
+	 * Gives an operator the whole capacity of the host, as deallocating its PEs and allocating
+	 * them again does.
+	 */
+	public void allocateAllMips(Vm vm){
+		if(canAllocateInPlace() && operators.containsKey(vm.getUid()) && !vm.isInMigration()){
+			requestMips(vm, true);
+			reallocatedVms.clear();
+			allocateInPlace();
+		}else{
+			deallocatePesForVm(vm);
+			allocatePesForVm(vm, new ArrayList<Double>(Collections.singletonList((double) PeList.getTotalMips(getPeList()))));
+		}
+	}
+
+	/**
+	 * @param vms the operators of the host
+	 * @return the MIPS allocated to the operators, once per listing
+	 */
+	public double getTotalAllocatedMips(List<? extends Vm> vms){
+		if(inPlace)
+			return numberOfActiveListings * activeMips;
+		double totalAllocatedMips = 0;
+		for(Vm vm : vms)
+			totalAllocatedMips += getTotalAllocatedMipsForVm(vm);
+		return totalAllocatedMips;
+	}
+
+	@Override
+	public boolean allocatePesForVm(Vm vm, List<Double> mipsShare) {
+		inPlace = false;
+		return super.allocatePesForVm(vm, mipsShare);
+	}
+
+	@Override
+	public void deallocatePesForVm(Vm vm) {
+		inPlace = false;
+		super.deallocatePesForVm(vm);
+	}
+
+	@Override
+	public void deallocatePesForAllVms() {
+		inPlace = false;
+		super.deallocatePesForAllVms();
+	}
+
+	private boolean canAllocateInPlace(){
+		return inPlace && getVmsMigratingIn().isEmpty() && getVmsMigratingOut().isEmpty();
+	}
+
+	/**
+	 * Allocates again the shares of the operators whose request changed, and those of all the
+	 * active operators if their share changed.
+	 */
+	private void allocateInPlace(){
+		int numberOfRequests = 0;
+		for(Operator operator : requestedOperators){
+			// an operator listed more than once is requested more than once
+			if(operator.active != operator.allocatedActive){
+				operator.allocatedActive = operator.active;
+				numberOfActiveOperators += operator.active ? 1 : -1;
+				numberOfActiveListings += operator.active ? operator.numberOfListings : -operator.numberOfListings;
+				requestedOperators.set(numberOfRequests++, operator);
+			}
+		}
+		requestedOperators.subList(numberOfRequests, requestedOperators.size()).clear();
+
+		double activeMips = getActiveMips();
+		if(activeMips != this.activeMips){
+			this.activeMips = activeMips;
+			activeShare = Collections.singletonList(activeMips);
+			for(Operator operator : operators.values()){
+				if(operator.allocatedActive){
+					getMipsMap().put(operator.vm.getUid(), activeShare);
+					reallocatedVms.add(operator.vm);
+				}
+			}
+		}
+		for(Operator operator : requestedOperators){
+			String vmUid = operator.vm.getUid();
+			getMipsMapRequested().put(vmUid, operator.allocatedActive ? fullRequest : NO_MIPS);
+			getMipsMap().put(vmUid, operator.allocatedActive ? activeShare : NO_MIPS);
+			if(!reallocatedVms.contains(operator.vm))
+				reallocatedVms.add(operator.vm);
+		}
+		requestedOperators.clear();
+
+		if(!reallocatedVms.isEmpty()){
+			double totalMips = PeList.getTotalMips(getPeList());
+			double requestedMips = getCappedRequest() * numberOfActiveListings;
+			double availableMips = requestedMips > totalMips ? 0 : totalMips - requestedMips;
+			if(availableMips != getAvailableMips())
+				setAvailableMips(availableMips);
+			updatePeProvisioning();
+		}
+	}
+
+	/**
+	 * Deallocates the PEs of all the operators and allocates their requests, then keeps track of
+	 * the allocation to update it in place. The requests are allocated in turn as before while
+	 * operators are migrating.
+	 */
+	private void reallocateAllMips(List<? extends Vm> vms){
+		Map<String, Operator> requests = new HashMap<String, Operator>(operators);
+		operators.clear();
+		requestedOperators.clear();
+		fullRequest = Collections.singletonList((double) PeList.getTotalMips(getPeList()));
+		numberOfListings = 0;
+		numberOfActiveOperators = 0;
+		numberOfActiveListings = 0;
+		inPlace = getVmsMigratingIn().isEmpty() && getVmsMigratingOut().isEmpty();
+		for(Vm vm : vms){
+			Operator operator = operators.get(vm.getUid());
+			if(operator == null){
+				operator = requests.containsKey(vm.getUid()) ? requests.get(vm.getUid()) : new Operator(vm);
+				operator.numberOfListings = 0;
+				operator.allocatedActive = operator.active;
+				operators.put(vm.getUid(), operator);
+				if(operator.active)
+					numberOfActiveOperators++;
+			}
+			operator.numberOfListings++;
+			numberOfListings++;
+			if(operator.active)
+				numberOfActiveListings++;
+			inPlace &= operator.vm == vm && !vm.isInMigration();
+			reallocatedVms.add(vm);
+		}
+		activeMips = getActiveMips();
+		activeShare = Collections.singletonList(activeMips);
+
+		super.deallocatePesForAllVms();
+		if(!inPlace){
+			for(Vm vm : vms)
+				super.allocatePesForVm(vm, operators.get(vm.getUid()).active ? fullRequest : NO_MIPS);
+			return;
+		}
+		for(Operator operator : operators.values()){
+			getMipsMapRequested().put(operator.vm.getUid(), operator.allocatedActive ? fullRequest : NO_MIPS);
+			getMipsMap().put(operator.vm.getUid(), operator.allocatedActive ? activeShare : NO_MIPS);
+		}
+		setPesInUse(numberOfListings);
+		double totalMips = PeList.getTotalMips(getPeList());
+		double requestedMips = getCappedRequest() * numberOfActiveListings;
+		setAvailableMips(requestedMips > totalMips ? 0 : totalMips - requestedMips);
+		updatePeProvisioning();
+	}
+
+	/**
+	 * Allocating the requests in turn, an active operator gets its capped request until the
+	 * listings of the active operators request more than the host has. Then the requests of the
+	 * active operators are scaled down to the host, each operator counting once.
+	 *
+	 * @return the share of an active operator
+	 */
+	private double getActiveMips(){
+		double totalMips = PeList.getTotalMips(getPeList());
+		double requestedMips = getCappedRequest();
+		if(requestedMips * numberOfActiveListings <= totalMips)
+			return requestedMips;
+		double scalingFactor = totalMips / (requestedMips * numberOfActiveOperators);
+		return Math.floor(requestedMips * scalingFactor);
+	}
+
+	/**
+	 * @return the whole capacity of the host capped to the capacity of a PE
+	 */
+	private double getCappedRequest(){
+		double totalMips = PeList.getTotalMips(getPeList());
+		return totalMips > getPeCapacity() ? getPeCapacity() : totalMips;
+	}
 }
@@ -5,11 +5,24 @@ import org.fog.entities.FogDevice;
 import org.fog.scheduling.gaEntities.Individual;
 import org.fog.utils.Service;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public abstract class AbstractAlgorithm {
     private double minTime;
     private double minCost;
+    private SchedulingProblem problem;
+    /**
+     * pool used to evaluate populations, {@code null} means sequential evaluation
+     */
+    private ForkJoinPool evaluationPool;
+    private IncrementalEvaluator incrementalEvaluator;
+    /**
+     * progress of the current run, counting its evaluations, {@code null} when nothing is counted
+     */
+    private SearchProgress progress;
 
     public double getMinTime() {
         return minTime;
@@ -20,43 +33,64 @@ public abstract class AbstractAlgorithm {
 
     /**
      * calculate the lower boundary of time and cost
+     * and build the {@link SchedulingProblem} used to evaluate individuals
      */
     public void calcMinTimeCost(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList) {
-        this.minTime = calcMinTime(fogDevices, cloudletList);
-        this.minCost = calcMinCost(fogDevices, cloudletList);
+        this.problem = new SchedulingProblem(fogDevices, cloudletList);
+        this.minTime = problem.getMinTime();
+        this.minCost = problem.getMinCost();
     }
 
-    protected double calcMinTime(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList) {
-        double minTime = 0;
-        double totalLength = 0;
-        double totalMips = 0;
-        for (Cloudlet cloudlet : cloudletList) {
-            totalLength += cloudlet.getCloudletLength();
-        }
-        for (FogDevice fogDevice : fogDevices) {
-            totalMips += fogDevice.getHost().getTotalMips();
-        }
-        minTime = totalLength / totalMips;
-        return minTime;
+    /**
+     * use an already built problem, e.g. one shared by several algorithm instances
+     */
+    public void setProblem(SchedulingProblem problem) {
+        this.problem = problem;
+        this.minTime = problem.getMinTime();
+        this.minCost = problem.getMinCost();
     }
 
+    public SchedulingProblem getProblem() {
+        return problem;
+    }
 
-    protected double calcMinCost(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList) {
-        double minCost = 0;
-        for (Cloudlet cloudlet : cloudletList) {
-            double minCloudletCost = Double.MAX_VALUE;
-            for (FogDevice fogDevice : fogDevices) {
-                double cost = calcCost(cloudlet, fogDevice);
-                if (minCloudletCost > cost) {
-                    minCloudletCost = cost;
-                }
-            }
-            // the minCost is defined as the sum of all minCloudletCost
-            minCost += minCloudletCost;
+    public ForkJoinPool getEvaluationPool() {
+        return evaluationPool;
+    }
+
+    public void setEvaluationPool(ForkJoinPool evaluationPool) {
+        this.evaluationPool = evaluationPool;
+    }
+
+    public SearchProgress getProgress() {
+        return progress;
+    }
+
+    /**
+     * set the progress of the run, which counts the evaluations and tells the search when to stop
+     */
+    public void setProgress(SearchProgress progress) {
+        this.progress = progress;
+    }
+
+    /**
+     * get the progress of the run, setting a new one with the given criteria if there is none
+     */
+    protected SearchProgress getProgress(TerminationCriteria defaultCriteria) {
+        if (progress == null) {
+            progress = new SearchProgress(defaultCriteria);
         }
-        return minCost;
+        return progress;
     }
 
+    /**
+     * count evaluations done without {@link #calcFitness(Individual, double)}, like single-gene moves
+     */
+    protected void countEvaluations(long count) {
+        if (progress != null) {
+            progress.countEvaluations(count);
+        }
+    }
 
     /**
      * calculates the cost (G$) when a fogDevice executes a cloudlet
@@ -82,48 +116,117 @@ public abstract class AbstractAlgorithm {
      * @return double The fitness value for individual
      */
     protected double calcFitness(Individual individual, List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList, double timeWeight) {
-        // clear the fogDevice - task list before calculate
-        for (FogDevice fogDevice : fogDevices) {
-            fogDevice.getCloudletListAssignment().clear();
+        ensureProblem(fogDevices, cloudletList);
+        return calcFitness(individual, timeWeight);
+    }
+
+    /**
+     * build the {@link SchedulingProblem} if it was not built from these devices and cloudlets yet
+     */
+    protected void ensureProblem(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList) {
+        if (problem == null || !problem.isBuiltFrom(fogDevices, cloudletList)) {
+            calcMinTimeCost(fogDevices, cloudletList);
         }
+    }
 
-        // Loop over individual's genes to all the task assigned to the fogDevice
-        for (int geneIndex = 0; geneIndex < individual.getChromosomeLength(); geneIndex++) {
-            //add current cloudlet to fog device respectively
-            fogDevices.get(individual.getGene(geneIndex)).getCloudletListAssignment().add(cloudletList.get(geneIndex));
+    /**
+     * Calculate fitness for an individual against the precomputed {@link SchedulingProblem}
+     *
+     * @param individual the individual to evaluate
+     * @param timeWeight trade-off between time and cost
+     * @return double The fitness value for individual
+     */
+    protected double calcFitness(Individual individual, double timeWeight) {
+        countEvaluations(1);
+        return problem.calcFitness(individual, timeWeight);
+    }
+
+    /**
+     * Get the evaluator used to score single-gene moves against the current problem.
+     * <p>
+     * The evaluator is created once and reused as long as the problem and the time
+     * weight do not change, so it must only be used by the thread running this algorithm.
+     *
+     * @param timeWeight trade-off between time and cost
+     * @return the incremental evaluator of this algorithm
+     */
+    protected IncrementalEvaluator getIncrementalEvaluator(double timeWeight) {
+        if (incrementalEvaluator == null || incrementalEvaluator.getProblem() != problem
+                || incrementalEvaluator.getTimeWeight() != timeWeight) {
+            incrementalEvaluator = new IncrementalEvaluator(problem, timeWeight);
         }
+        return incrementalEvaluator;
+    }
 
-        //Calculate makespan and cost
-        double makespan = 0;
-        double execTime = 0;
-        double totalCost = 0;
-        for (FogDevice fogDevice : fogDevices) {
-            double totalLength = 0;
-            for (Cloudlet cloudlet : fogDevice.getCloudletListAssignment()) {
-                totalLength += cloudlet.getCloudletLength();
-                // the total cost is sum of the cost execution of each cloudlet
-                totalCost += calcCost(cloudlet, fogDevice);
-            }
-            // execTime is the time that fogDevice finishes its list cloudlet assignment
-            execTime = totalLength / fogDevice.getHostList().get(0).getTotalMips();
-            // makespan is defined as when the last cloudlet finished or when all fogDevices finish its work.
-            if (execTime > makespan) {
-                makespan = execTime;
+    /**
+     * Evaluate a list of individuals, each one with its own time weight.
+     * <p>
+     * Evaluating an individual only reads the {@link SchedulingProblem} and writes
+     * into that individual, so when an evaluation pool is set the list is split
+     * over its workers. The results do not depend on the number of threads.
+     *
+     * @param individuals the individuals to evaluate
+     * @param timeWeights time weight of each individual
+     * @return the sum of the fitness values, added in list order
+     */
+    protected double evalIndividuals(List<? extends Individual> individuals, double[] timeWeights) {
+        if (evaluationPool == null || evaluationPool.getParallelism() < 2
+                || individuals.size() < (EvaluationTask.THRESHOLD << 1)) {
+            for (int index = 0; index < individuals.size(); index++) {
+                calcFitness(individuals.get(index), timeWeights[index]);
             }
+        } else {
+            evaluationPool.invoke(new EvaluationTask(individuals, timeWeights, 0, individuals.size()));
         }
 
-        //store makespan
-        individual.setTime(makespan);
-        //store cost
-        individual.setCost(totalCost);
-
-        // Calculate fitness
-        double fitness = timeWeight * minTime / makespan
-                + (1 - timeWeight) * minCost / totalCost;
+        double totalFitness = 0;
+        for (Individual individual : individuals) {
+            totalFitness += individual.getFitness();
+        }
+        return totalFitness;
+    }
 
-        // Store fitness
-        individual.setFitness(fitness);
-        return fitness;
+    /**
+     * Evaluate a list of individuals with the same time weight
+     *
+     * @see #evalIndividuals(List, double[])
+     */
+    protected double evalIndividuals(List<? extends Individual> individuals, double timeWeight) {
+        double[] timeWeights = new double[individuals.size()];
+        Arrays.fill(timeWeights, timeWeight);
+        return evalIndividuals(individuals, timeWeights);
     }
 
+    private class EvaluationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * number of individuals evaluated by one task without splitting further
+         */
+        private static final int THRESHOLD = 8;
+
+        private final List<? extends Individual> individuals;
+        private final double[] timeWeights;
+        private final int from, to;
+
+        private EvaluationTask(List<? extends Individual> individuals, double[] timeWeights, int from, int to) {
+            this.individuals = individuals;
+            this.timeWeights = timeWeights;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                for (int index = from; index < to; index++) {
+                    calcFitness(individuals.get(index), timeWeights[index]);
+                }
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new EvaluationTask(individuals, timeWeights, from, mid),
+                        new EvaluationTask(individuals, timeWeights, mid, to));
+            }
+        }
+    }
 }
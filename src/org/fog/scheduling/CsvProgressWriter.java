@@ -0,0 +1,97 @@
+package org.fog.scheduling;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes the progress of a run as CSV lines, one every {@code sampleInterval} iterations plus the
+ * first and the last iteration, so that long runs produce short files.
+ * <p>
+ * Writing to {@code new PrintWriter(System.out)} gives back a console trace of the run.
+ */
+public class CsvProgressWriter implements ProgressListener, Closeable {
+    public static final String HEADER = "iteration,bestFitness,meanFitness,makespan,cost,evaluationsPerSecond";
+
+    private final Writer writer;
+    private final int sampleInterval;
+    private final StringBuilder line = new StringBuilder(128);
+    private boolean headerWritten;
+
+    // the last iteration, written at the end if it was not sampled
+    private int lastIteration = -1;
+    private double lastBestFitness, lastMeanFitness, lastMakespan, lastCost, lastEvaluationsPerSecond;
+    private boolean lastWritten;
+
+    /**
+     * @param writer         where the lines go, closed with this writer
+     * @param sampleInterval number of iterations between two lines
+     */
+    public CsvProgressWriter(Writer writer, int sampleInterval) {
+        if (sampleInterval < 1) {
+            throw new IllegalArgumentException("The sample interval should be positive, but is:" + sampleInterval);
+        }
+        this.writer = writer;
+        this.sampleInterval = sampleInterval;
+    }
+
+    /**
+     * @param path           the CSV file, replaced if it exists
+     * @param sampleInterval number of iterations between two lines
+     */
+    public CsvProgressWriter(String path, int sampleInterval) throws IOException {
+        this(new BufferedWriter(new FileWriter(path)), sampleInterval);
+    }
+
+    @Override
+    public void onIteration(int iteration, double bestFitness, double meanFitness, double makespan, double cost,
+                            double evaluationsPerSecond) {
+        lastIteration = iteration;
+        lastBestFitness = bestFitness;
+        lastMeanFitness = meanFitness;
+        lastMakespan = makespan;
+        lastCost = cost;
+        lastEvaluationsPerSecond = evaluationsPerSecond;
+        lastWritten = iteration <= 1 || iteration % sampleInterval == 0;
+        if (lastWritten) {
+            writeLine();
+        }
+    }
+
+    @Override
+    public void onFinish(SearchProgress progress) {
+        if (lastIteration >= 0 && !lastWritten) {
+            writeLine();
+            lastWritten = true;
+        }
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write the progress", e);
+        }
+    }
+
+    private void writeLine() {
+        line.setLength(0);
+        line.append(lastIteration).append(',').append(lastBestFitness).append(',').append(lastMeanFitness)
+                .append(',').append(lastMakespan).append(',').append(lastCost).append(',')
+                .append(lastEvaluationsPerSecond).append('\n');
+        try {
+            if (!headerWritten) {
+                writer.write(HEADER);
+                writer.write('\n');
+                headerWritten = true;
+            }
+            writer.append(line);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write the progress", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
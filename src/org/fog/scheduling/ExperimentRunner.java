@@ -0,0 +1,457 @@
+package org.fog.scheduling;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.fog.entities.FogBroker;
+import org.fog.entities.FogDevice;
+import org.fog.scheduling.gaEntities.Individual;
+import org.fog.utils.Service;
+import org.json.simple.JSONObject;
+import org.json.simple.JSONValue;
+
+/**
+ * Runs a grid of scheduling experiments: every algorithm on every workload ({@code data/dataN})
+ * and every infrastructure ({@code data_infrucstructure/fogXX}), once per seed.
+ * <p>
+ * The cells of the grid run in parallel on a bounded pool, each one in its own
+ * {@link SimulationContext} with the random generator of its thread seeded by the seed of the
+ * cell. Each finished cell is appended at once to {@code <output>.jsonl} and {@code <output>.csv}.
+ * The JSONL file is also the checkpoint: the cells already in it are skipped, so running the same
+ * grid again on the same output resumes an interrupted sweep.
+ * <p>
+ * Usage: ExperimentRunner grid.properties, with the keys
+ * <pre>
+ * algorithms=Genetic Algorithm,BQT Search
+ * workloads=data/data40,data/data100
+ * infrastructures=data_infrucstructure/fog04,data_infrucstructure/fog15
+ * seeds=1-20
+ * threads=8
+ * output=results_ex/sweep
+ * maxMillis=5000
+ * </pre>
+ * The algorithms are the names of {@link SchedulingAlgorithm}, threads defaults to the number of
+ * processors. The optional keys maxIteration, maxEvaluation, maxMillis, stagnationWindow and
+ * targetFitness give the {@link TerminationCriteria} of every cell, otherwise each algorithm runs
+ * with its default criteria. The checkpoint does not record the criteria, so runs with other
+ * criteria need another output.
+ */
+public class ExperimentRunner {
+
+    /**
+     * one run of an algorithm on a workload and an infrastructure
+     */
+    public static class Cell {
+        private final String algorithm;
+        private final String workload;
+        private final String infrastructure;
+        private final long seed;
+
+        public Cell(String algorithm, String workload, String infrastructure, long seed) {
+            this.algorithm = algorithm;
+            this.workload = workload;
+            this.infrastructure = infrastructure;
+            this.seed = seed;
+        }
+
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        public String getWorkload() {
+            return workload;
+        }
+
+        public String getInfrastructure() {
+            return infrastructure;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+
+        /**
+         * @return the key of the cell in the checkpoint
+         */
+        private String getKey() {
+            return algorithm + '|' + workload + '|' + infrastructure + '|' + seed;
+        }
+
+        @Override
+        public String toString() {
+            return algorithm + " on " + workload + " / " + infrastructure + " (seed " + seed + ")";
+        }
+    }
+
+    /**
+     * the best individual found for a cell, NaN fitness, time and cost if the run stopped before
+     * evaluating any
+     */
+    public static class Result {
+        private final Cell cell;
+        private final double fitness;
+        private final double time;
+        private final double cost;
+        private final long elapsedMillis;
+        private final SearchProgress progress;
+
+        public Result(Cell cell, double fitness, double time, double cost, long elapsedMillis, SearchProgress progress) {
+            this.cell = cell;
+            this.fitness = fitness;
+            this.time = time;
+            this.cost = cost;
+            this.elapsedMillis = elapsedMillis;
+            this.progress = progress;
+        }
+
+        public Cell getCell() {
+            return cell;
+        }
+
+        public double getFitness() {
+            return fitness;
+        }
+
+        public double getTime() {
+            return time;
+        }
+
+        public double getCost() {
+            return cost;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        /**
+         * @return the progress of the run, with why it stopped and its convergence trace
+         */
+        public SearchProgress getProgress() {
+            return progress;
+        }
+    }
+
+    private static final String CSV_HEADER = "algorithm,workload,infrastructure,seed,fitness,time,cost,elapsedMillis,"
+            + "iterations,evaluations,stopReason";
+
+    private final List<Cell> cells;
+    private final int numberThread;
+    private final File jsonlFile;
+    private final File csvFile;
+    private final TerminationCriteria criteria;
+
+    private Writer jsonlWriter;
+    private Writer csvWriter;
+
+    /**
+     * @param cells        the cells to run
+     * @param numberThread number of cells running at the same time
+     * @param output       path of the output files, without extension
+     */
+    public ExperimentRunner(List<Cell> cells, int numberThread, String output) {
+        this(cells, numberThread, output, null);
+    }
+
+    /**
+     * @param cells        the cells to run
+     * @param numberThread number of cells running at the same time
+     * @param output       path of the output files, without extension
+     * @param criteria     when every cell stops, {@code null} for the default criteria of each algorithm
+     */
+    public ExperimentRunner(List<Cell> cells, int numberThread, String output, TerminationCriteria criteria) {
+        if (numberThread < 1) {
+            throw new IllegalArgumentException("The number of threads should be positive, but is:" + numberThread);
+        }
+        this.cells = cells;
+        this.numberThread = numberThread;
+        this.jsonlFile = new File(output + ".jsonl");
+        this.csvFile = new File(output + ".csv");
+        this.criteria = criteria;
+    }
+
+    /**
+     * build the cells of a full grid, in the order algorithm, workload, infrastructure, seed
+     */
+    public static List<Cell> grid(List<String> algorithms, List<String> workloads, List<String> infrastructures,
+                                  List<Long> seeds) {
+        List<Cell> cells = new ArrayList<>();
+        for (String algorithm : algorithms) {
+            for (String workload : workloads) {
+                for (String infrastructure : infrastructures) {
+                    for (long seed : seeds) {
+                        cells.add(new Cell(algorithm, workload, infrastructure, seed));
+                    }
+                }
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * run the cells not in the checkpoint yet, a failed cell is reported and left for the next run
+     *
+     * @return the results of the cells run by this call, in the order they finished
+     */
+    public List<Result> run() throws IOException, InterruptedException {
+        Set<String> done = readCheckpoint();
+        List<Cell> todo = new ArrayList<>();
+        for (Cell cell : cells) {
+            if (!done.contains(cell.getKey())) {
+                todo.add(cell);
+            }
+        }
+        System.out.println(cells.size() + " cells, " + (cells.size() - todo.size()) + " already done");
+
+        List<Result> results = new ArrayList<>();
+        if (todo.isEmpty()) {
+            return results;
+        }
+
+        File parent = jsonlFile.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        boolean newCsv = csvFile.length() == 0;
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(numberThread, todo.size()));
+        try {
+            jsonlWriter = new FileWriter(jsonlFile, true);
+            csvWriter = new FileWriter(csvFile, true);
+            if (newCsv) {
+                csvWriter.write(CSV_HEADER + "\n");
+                csvWriter.flush();
+            }
+
+            CompletionService<Result> completionService = new ExecutorCompletionService<>(pool);
+            for (Cell cell : todo) {
+                completionService.submit(() -> {
+                    try {
+                        return new SimulationContext().call(() -> runCell(cell, criteria));
+                    } catch (Exception e) {
+                        throw new IllegalStateException(cell.toString(), e);
+                    }
+                });
+            }
+            for (int i = 0; i < todo.size(); i++) {
+                try {
+                    Result result = completionService.take().get();
+                    write(result);
+                    results.add(result);
+                    System.out.println("[" + (i + 1) + "/" + todo.size() + "] " + result.getCell()
+                            + ": fitness " + result.getFitness() + ", stopped by " + result.getProgress().getStopReason());
+                } catch (ExecutionException e) {
+                    System.out.println("[" + (i + 1) + "/" + todo.size() + "] " + e.getCause().getMessage()
+                            + " failed: " + e.getCause().getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+            if (jsonlWriter != null) {
+                jsonlWriter.close();
+            }
+            if (csvWriter != null) {
+                csvWriter.close();
+            }
+        }
+        return results;
+    }
+
+    /**
+     * run one cell in the simulation context of the calling thread
+     */
+    private static Result runCell(Cell cell, TerminationCriteria criteria) {
+        Service.setSeed(cell.getSeed());
+        CloudSim.init(1, Calendar.getInstance(), false);
+        FogBroker broker;
+        try {
+            broker = new FogBroker("broker");
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot create the broker", e);
+        }
+        List<FogDevice> fogDevices = FogSchedulingExample.jsonToInfrucstruture(cell.getInfrastructure());
+        broker.setFogDevices(fogDevices);
+        broker.setCloudletList(FogSchedulingExample.createCloudlet(cell.getWorkload()));
+
+        // each cell gets its own criteria, the ones of the grid are shared by every thread
+        SearchProgress progress = new SearchProgress(criteria != null ? new TerminationCriteria(criteria)
+                : SchedulingAlgorithm.getDefaultCriteria(cell.getAlgorithm()));
+        long start = System.nanoTime();
+        Individual best = broker.assignCloudlet(cell.getAlgorithm(), progress);
+        long elapsedMillis = (System.nanoTime() - start) / 1000000;
+        if (best == null) {
+            // stopped before evaluating any solution, the stop reason is still written
+            return new Result(cell, Double.NaN, Double.NaN, Double.NaN, elapsedMillis, progress);
+        }
+        return new Result(cell, best.getFitness(), best.getTime(), best.getCost(), elapsedMillis, progress);
+    }
+
+    /**
+     * append a result to the CSV file, then to the JSONL file which marks the cell as done
+     */
+    private void write(Result result) throws IOException {
+        Cell cell = result.getCell();
+        SearchProgress progress = result.getProgress();
+        csvWriter.write(csvField(cell.getAlgorithm()) + "," + csvField(cell.getWorkload()) + ","
+                + csvField(cell.getInfrastructure()) + "," + cell.getSeed() + "," + result.getFitness() + ","
+                + result.getTime() + "," + result.getCost() + "," + result.getElapsedMillis() + ","
+                + progress.getIteration() + "," + progress.getEvaluations() + "," + progress.getStopReason() + "\n");
+        csvWriter.flush();
+
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("algorithm", cell.getAlgorithm());
+        record.put("workload", cell.getWorkload());
+        record.put("infrastructure", cell.getInfrastructure());
+        record.put("seed", cell.getSeed());
+        record.put("fitness", result.getFitness());
+        record.put("time", result.getTime());
+        record.put("cost", result.getCost());
+        record.put("elapsedMillis", result.getElapsedMillis());
+        record.put("iterations", progress.getIteration());
+        record.put("evaluations", progress.getEvaluations());
+        record.put("stopReason", String.valueOf(progress.getStopReason()));
+        // the anytime trace, as [iteration, evaluations, elapsedMillis, bestFitness] points
+        List<Object> trace = new ArrayList<>();
+        for (SearchProgress.TracePoint point : progress.getTrace()) {
+            trace.add(Arrays.asList(point.getIteration(), point.getEvaluations(), point.getElapsedMillis(),
+                    point.getBestFitness()));
+        }
+        record.put("trace", trace);
+        jsonlWriter.write(JSONValue.toJSONString(record) + "\n");
+        jsonlWriter.flush();
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * read the keys of the cells in the JSONL file, ignoring a last line cut by an interruption
+     */
+    private Set<String> readCheckpoint() throws IOException {
+        Set<String> done = new HashSet<>();
+        if (!jsonlFile.exists()) {
+            return done;
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(jsonlFile))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Object parsed = JSONValue.parse(line);
+                if (parsed instanceof JSONObject) {
+                    JSONObject record = (JSONObject) parsed;
+                    done.add(new Cell((String) record.get("algorithm"), (String) record.get("workload"),
+                            (String) record.get("infrastructure"), (Long) record.get("seed")).getKey());
+                }
+            }
+        }
+        // start the next record on a new line
+        try (RandomAccessFile file = new RandomAccessFile(jsonlFile, "rw")) {
+            if (file.length() > 0) {
+                file.seek(file.length() - 1);
+                if (file.read() != '\n') {
+                    file.write('\n');
+                }
+            }
+        }
+        return done;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 1) {
+            System.out.println("Usage: ExperimentRunner grid.properties");
+            return;
+        }
+        Properties grid = new Properties();
+        try (InputStream in = new FileInputStream(args[0])) {
+            grid.load(in);
+        }
+        List<Long> seeds = new ArrayList<>();
+        for (String seed : list(grid, "seeds")) {
+            int dash = seed.indexOf('-', 1);
+            if (dash < 0) {
+                seeds.add(Long.parseLong(seed));
+            } else {
+                long last = Long.parseLong(seed.substring(dash + 1).trim());
+                for (long s = Long.parseLong(seed.substring(0, dash).trim()); s <= last; s++) {
+                    seeds.add(s);
+                }
+            }
+        }
+        int numberThread = Integer.parseInt(grid.getProperty("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())).trim());
+
+        Log.disable();
+        List<Cell> cells = grid(list(grid, "algorithms"), list(grid, "workloads"), list(grid, "infrastructures"), seeds);
+        new ExperimentRunner(cells, numberThread, grid.getProperty("output", "results_ex/experiment").trim(),
+                criteria(grid)).run();
+    }
+
+    /**
+     * @return the termination criteria of the grid, {@code null} if it has none
+     */
+    private static TerminationCriteria criteria(Properties grid) {
+        TerminationCriteria criteria = new TerminationCriteria();
+        boolean found = false;
+        if (grid.getProperty("maxIteration") != null) {
+            criteria.setMaxIteration(Integer.parseInt(grid.getProperty("maxIteration").trim()));
+            found = true;
+        }
+        if (grid.getProperty("maxEvaluation") != null) {
+            criteria.setMaxEvaluation(Long.parseLong(grid.getProperty("maxEvaluation").trim()));
+            found = true;
+        }
+        if (grid.getProperty("maxMillis") != null) {
+            criteria.setMaxMillis(Long.parseLong(grid.getProperty("maxMillis").trim()));
+            found = true;
+        }
+        if (grid.getProperty("stagnationWindow") != null) {
+            criteria.setStagnationWindow(Integer.parseInt(grid.getProperty("stagnationWindow").trim()));
+            found = true;
+        }
+        if (grid.getProperty("targetFitness") != null) {
+            criteria.setTargetFitness(Double.parseDouble(grid.getProperty("targetFitness").trim()));
+            found = true;
+        }
+        return found ? criteria : null;
+    }
+
+    private static List<String> list(Properties grid, String key) {
+        String value = grid.getProperty(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing key in the grid: " + key);
+        }
+        List<String> values = new ArrayList<>();
+        for (String item : value.split(",")) {
+            if (!item.trim().isEmpty()) {
+                values.add(item.trim());
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,250 @@
+package org.fog.scheduling;
+
+import org.fog.scheduling.gaEntities.Individual;
+
+/**
+ * Keeps the state of one assignment (per-device load, total cost and makespan)
+ * so that single-gene moves can be scored and applied without re-evaluating the
+ * whole chromosome.
+ * <p>
+ * The load of a device is kept as the sum of the lengths of its tasks. Lengths
+ * are integers, so these sums are exact and the finish time of every device is
+ * always the same value {@link SchedulingProblem#calcFitness} would compute.
+ * Finish times are stored in a max segment tree, which also gives the busiest
+ * device and the second largest finish time after every move in O(log m). With
+ * these two values the makespan after moving one task is answered in O(1)
+ * without allocating. The total cost is updated by adding and subtracting task
+ * costs and may differ from a full evaluation in the last bits after many moves.
+ * <p>
+ * Scoring a move only reads the state, so several threads may score moves
+ * concurrently as long as no move is applied meanwhile.
+ */
+public class IncrementalEvaluator {
+    private final SchedulingProblem problem;
+    private final double timeWeight;
+    private final int numTasks;
+    private final int numDevices;
+
+    /**
+     * device assigned to each task
+     */
+    private final int[] assignment;
+    /**
+     * sum of the lengths of the tasks assigned to each device
+     */
+    private final double[] deviceLength;
+    /**
+     * max segment tree over the finish time of the devices, leaves start at {@code leafOffset}
+     */
+    private final double[] tree;
+    private final int leafOffset;
+
+    /**
+     * device with the largest finish time and the largest finish time of the other devices
+     */
+    private int maxDevice;
+    private double secondMax;
+
+    private double totalCost;
+
+    public IncrementalEvaluator(SchedulingProblem problem, double timeWeight) {
+        this.problem = problem;
+        this.timeWeight = timeWeight;
+        this.numTasks = problem.getNumTasks();
+        this.numDevices = problem.getNumDevices();
+        this.assignment = new int[numTasks];
+        this.deviceLength = new double[numDevices];
+
+        int leafOffset = 1;
+        while (leafOffset < numDevices) {
+            leafOffset <<= 1;
+        }
+        this.leafOffset = leafOffset;
+        this.tree = new double[leafOffset << 1];
+    }
+
+    /**
+     * copy constructor, the copy evolves independently of the original
+     */
+    public IncrementalEvaluator(IncrementalEvaluator other) {
+        this.problem = other.problem;
+        this.timeWeight = other.timeWeight;
+        this.numTasks = other.numTasks;
+        this.numDevices = other.numDevices;
+        this.assignment = other.assignment.clone();
+        this.deviceLength = other.deviceLength.clone();
+        this.leafOffset = other.leafOffset;
+        this.tree = other.tree.clone();
+        this.maxDevice = other.maxDevice;
+        this.secondMax = other.secondMax;
+        this.totalCost = other.totalCost;
+    }
+
+    public SchedulingProblem getProblem() {
+        return problem;
+    }
+
+    public double getTimeWeight() {
+        return timeWeight;
+    }
+
+    /**
+     * Load the assignment of an individual.
+     * <p>
+     * The individual is fully evaluated once, which also stores its exact time,
+     * cost and fitness in it.
+     *
+     * @param individual the individual to load
+     * @return the fitness of the individual
+     */
+    public double load(Individual individual) {
+        double fitness = problem.calcFitness(individual, timeWeight);
+
+        for (int deviceIdx = 0; deviceIdx < numDevices; deviceIdx++) {
+            deviceLength[deviceIdx] = 0;
+        }
+        for (int taskIdx = 0; taskIdx < numTasks; taskIdx++) {
+            int deviceIdx = individual.getGene(taskIdx);
+            assignment[taskIdx] = deviceIdx;
+            deviceLength[deviceIdx] += problem.getLength(taskIdx);
+        }
+        for (int deviceIdx = 0; deviceIdx < numDevices; deviceIdx++) {
+            tree[leafOffset + deviceIdx] = deviceLength[deviceIdx] / problem.getMips(deviceIdx);
+        }
+        for (int node = leafOffset - 1; node > 0; node--) {
+            tree[node] = Math.max(tree[node << 1], tree[(node << 1) + 1]);
+        }
+        updateMax();
+        totalCost = individual.getCost();
+        return fitness;
+    }
+
+    public int getDevice(int taskIdx) {
+        return assignment[taskIdx];
+    }
+
+    public double getMakespan() {
+        return tree[1];
+    }
+
+    public double getTotalCost() {
+        return totalCost;
+    }
+
+    public double getFitness() {
+        return calcFitness(getMakespan(), totalCost);
+    }
+
+    /**
+     * finish time of a device in the current assignment
+     */
+    public double getFinishTime(int deviceIdx) {
+        return tree[leafOffset + deviceIdx];
+    }
+
+    /**
+     * makespan of the assignment if a task moved to another device, the state is not changed
+     */
+    public double makespanIfMoved(int taskIdx, int newDevice) {
+        int oldDevice = assignment[taskIdx];
+        if (oldDevice == newDevice) {
+            return getMakespan();
+        }
+        double oldDeviceTime = (deviceLength[oldDevice] - problem.getLength(taskIdx)) / problem.getMips(oldDevice);
+        double newDeviceTime = (deviceLength[newDevice] + problem.getLength(taskIdx)) / problem.getMips(newDevice);
+        // the new device only gets busier, so only the old device has to be left out of the current max
+        double othersTime = oldDevice == maxDevice ? secondMax : tree[1];
+        return Math.max(othersTime, Math.max(oldDeviceTime, newDeviceTime));
+    }
+
+    /**
+     * total cost of the assignment if a task moved to another device, the state is not changed
+     */
+    public double costIfMoved(int taskIdx, int newDevice) {
+        int oldDevice = assignment[taskIdx];
+        if (oldDevice == newDevice) {
+            return totalCost;
+        }
+        return totalCost - problem.getCost(taskIdx, oldDevice) + problem.getCost(taskIdx, newDevice);
+    }
+
+    /**
+     * fitness of the assignment if a task moved to another device, the state is not changed
+     */
+    public double fitnessIfMoved(int taskIdx, int newDevice) {
+        if (assignment[taskIdx] == newDevice) {
+            return getFitness();
+        }
+        return calcFitness(makespanIfMoved(taskIdx, newDevice), costIfMoved(taskIdx, newDevice));
+    }
+
+    /**
+     * move a task to another device and update load, cost and makespan
+     */
+    public void move(int taskIdx, int newDevice) {
+        int oldDevice = assignment[taskIdx];
+        if (oldDevice == newDevice) {
+            return;
+        }
+        assignment[taskIdx] = newDevice;
+        totalCost += problem.getCost(taskIdx, newDevice) - problem.getCost(taskIdx, oldDevice);
+        deviceLength[oldDevice] -= problem.getLength(taskIdx);
+        deviceLength[newDevice] += problem.getLength(taskIdx);
+        updateLeaf(oldDevice);
+        updateLeaf(newDevice);
+        updateMax();
+    }
+
+    /**
+     * store makespan, cost and fitness of the current assignment in an individual
+     */
+    public void store(Individual individual) {
+        individual.setTime(getMakespan());
+        individual.setCost(totalCost);
+        individual.setFitness(getFitness());
+    }
+
+    private double calcFitness(double makespan, double cost) {
+        return timeWeight * problem.getMinTime() / makespan
+                + (1 - timeWeight) * problem.getMinCost() / cost;
+    }
+
+    private void updateLeaf(int deviceIdx) {
+        int node = leafOffset + deviceIdx;
+        tree[node] = deviceLength[deviceIdx] / problem.getMips(deviceIdx);
+        for (node >>= 1; node > 0; node >>= 1) {
+            tree[node] = Math.max(tree[node << 1], tree[(node << 1) + 1]);
+        }
+    }
+
+    /**
+     * find the busiest device by walking down the tree and the max finish time of the other devices
+     */
+    private void updateMax() {
+        int node = 1;
+        while (node < leafOffset) {
+            node <<= 1;
+            if (tree[node] < tree[node + 1]) {
+                node++;
+            }
+        }
+        maxDevice = node - leafOffset;
+        secondMax = Math.max(rangeMax(0, maxDevice), rangeMax(maxDevice + 1, numDevices));
+    }
+
+    /**
+     * max finish time over the devices in [from, to)
+     */
+    private double rangeMax(int from, int to) {
+        double max = 0;
+        for (from += leafOffset, to += leafOffset; from < to; from >>= 1, to >>= 1) {
+            if ((from & 1) == 1) {
+                max = Math.max(max, tree[from++]);
+            }
+            if ((to & 1) == 1) {
+                max = Math.max(max, tree[--to]);
+            }
+        }
+        return max;
+    }
+}
@@ -24,6 +24,7 @@ public abstract class MOIndividual extends Individual{
             chromosome[LEN-1-i]=chromosome[i]^chromosome[LEN-1-i];
             chromosome[i]=chromosome[i]^chromosome[LEN-1-i];
         }
+        rehash();
     }
 
     public void swapHalfMutation(){
@@ -34,11 +35,12 @@ public abstract class MOIndividual extends Individual{
             chromosome[LEN-1-i]=chromosome[i]^chromosome[i+DIS];
             chromosome[i]=chromosome[i]^chromosome[i+DIS];
         }
+        rehash();
     }
 
     public void onePointMutation(){
         final int POINT = Service.rand(0,getChromosomeLength()-1);
-        chromosome[POINT] = Service.rand(0,getMaxValue());
+        setGene(POINT, Service.rand(0,getMaxValue()));
     }
 
     public boolean isDominating(Individual other){
@@ -1,9 +1,7 @@
 package org.fog.scheduling;
 
-import java.io.BufferedReader;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
-import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Calendar;
@@ -16,8 +14,6 @@ import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Pe;
 import org.cloudbus.cloudsim.Storage;
-import org.cloudbus.cloudsim.UtilizationModel;
-import org.cloudbus.cloudsim.UtilizationModelFull;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.power.PowerHost;
 import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
@@ -41,7 +37,6 @@ public class MyFogSchedulingExample {
 	static FogDevice smartGateway;
 	static List<Cloudlet> listCloudlet = new ArrayList<Cloudlet>();
 
-	private static final String COMMA_DELIMITER = ",";
 //	private static boolean CLOUD = false;
 	public static String fileName = "data_infrucstructure/fog15";
 	public static String filename_cloudlet = "data/data200";
@@ -214,50 +209,8 @@ public class MyFogSchedulingExample {
 
 	// initiate the task list (cloudlet list)
 	public static List<Cloudlet> createCloudlet(String filename) {
-		
-		 LinkedList<Cloudlet> list = new LinkedList<Cloudlet>();
-
-		// cloudlet parameters
-		 int cloudletId;
-		 long length;
-		 long fileSize;
-		 long outputSize;
-		 long memRequired;
-		 int pesNumber = 1;
-		 UtilizationModel utilizationModel = new UtilizationModelFull();
-		 
-		 BufferedReader br = null;
-		 try {
-            String line;
-            br = new BufferedReader(new FileReader(filename));
- 
-            // How to read file in java line by line?
-            while ((line = br.readLine()) != null) {
-            	if (line != null) {            		
-                    String[] splitData = line.split(COMMA_DELIMITER);
-                    cloudletId = Integer.parseInt(splitData[0]);
-                    length = Long.parseLong(splitData[1]);
-                    fileSize = Long.parseLong(splitData[2]);
-                    outputSize = Long.parseLong(splitData[3]);
-                    memRequired = Long.parseLong(splitData[4]);
-                    Cloudlet cloudlet = new Cloudlet(cloudletId , length, pesNumber, fileSize, outputSize, memRequired, utilizationModel,
-        					utilizationModel, utilizationModel);
-                    list.add(cloudlet);
-                }
-            } 
-        } catch (IOException e) {
-            e.printStackTrace();
-        } finally {
-            try {
-                if (br != null)
-                    br.close();
-            } catch (IOException crunchifyException) {
-                crunchifyException.printStackTrace();
-            }
-        }
-		 
-		return list;
-    }
+		return Workload.readFile(filename).getCloudletList();
+	}
 
 	/**
 	 * Function to create the model.
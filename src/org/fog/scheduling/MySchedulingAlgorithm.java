@@ -53,37 +53,28 @@ public class MySchedulingAlgorithm {
 		// Evaluate population
 		myGA.evalPopulation(population, fogDevices, cloudletList);
 
-		population.printPopulation();
-
 		// Keep track of current generation
 		int generationIndex = 0;
 
-		MyPopulation offsprings;
+		MyPopulation parents, offsprings;
 		while (generationIndex < MAX_GENETIC_ITERATIONS) {
-			System.out.println("\n------------- Generation " + generationIndex + " --------------");
-
 			// offsprings = myGA.selectOffspringsRandomly2(population);
-			offsprings = myGA.selectOffspringsPressure(population, SELECTION_PRESSURE);
-			offsprings = myGA.crossoverOffspringsRandomTemplate(offsprings, DIGITS_ONE_RATE);
+			parents = myGA.selectOffspringsPressure(population, SELECTION_PRESSURE);
+			offsprings = myGA.crossoverOffspringsRandomTemplate(parents, DIGITS_ONE_RATE);
+			// the selected copies are not used once the offsprings are created
+			myGA.recycle(parents);
 
 			// offsprings = myGA.crossoverOffsprings2Point(offsprings);
 			// offsprings = myGA.mutateOffsprings(offsprings);
 			population = myGA.selectNextGeneration(population, offsprings, fogDevices, cloudletList);
 
-			// Prints fittest individual from population
-			System.out.println("\nBest solution of generation " + generationIndex + ": "
-					+ population.getIndividual(0).getFitness());
-			System.out.println("Makespan: (" + myGA.getMinTime() + ")--" + population.getIndividual(0).getTime());
-			System.out.println("TotalCost: (" + myGA.getMinCost() + ")--" + population.getIndividual(0).getCost());
 			// Increment the current generation
 			generationIndex++;
-			// population.printPopulation();
 		}
 
-		System.out.println(">>>>>>>>>>>>>>>>>>>RESULTS<<<<<<<<<<<<<<<<<<<<<");
-		System.out.println("Found solution in " + generationIndex + " generations");
-		population.getIndividual(0).printGene();
-		System.out.println("\nBest solution: " + population.getIndividual(0).getFitness());
+		MyIndividual best = population.getIndividual(0);
+		System.out.println("Best solution after " + generationIndex + " generations: " + best.getFitness()
+				+ " (makespan " + best.getTime() + ", cost " + best.getCost() + ")");
 	}
 
 	// local search algorithm
@@ -0,0 +1,48 @@
+package org.fog.scheduling;
+
+/**
+ * Receives the progress of a scheduling run once per iteration (generation, round or step).
+ * <p>
+ * The values are passed as primitives so that reporting allocates nothing. A listener is called by
+ * the thread running the algorithm, between two iterations, so it should return quickly; the
+ * default {@link #NONE} does nothing and keeps the runs silent.
+ *
+ * @see SearchProgress#setListener(ProgressListener)
+ * @see CsvProgressWriter
+ * @see ProgressRingBuffer
+ */
+public interface ProgressListener {
+
+    /**
+     * the listener which ignores the progress
+     */
+    ProgressListener NONE = new ProgressListener() {
+        @Override
+        public void onIteration(int iteration, double bestFitness, double meanFitness, double makespan, double cost,
+                                double evaluationsPerSecond) {
+        }
+    };
+
+    /**
+     * an iteration has ended
+     *
+     * @param iteration            number of iterations done, from 1
+     * @param bestFitness          fitness of the best solution of the iteration, for a single-solution
+     *                             search the best one so far
+     * @param meanFitness          mean fitness of the population, the fitness of the current solution
+     *                             of a single-solution search, or NaN if it has no meaning
+     * @param makespan             makespan of that best solution
+     * @param cost                 total cost of that best solution
+     * @param evaluationsPerSecond fitness evaluations per second since the previous iteration
+     */
+    void onIteration(int iteration, double bestFitness, double meanFitness, double makespan, double cost,
+                     double evaluationsPerSecond);
+
+    /**
+     * the run has stopped
+     *
+     * @param progress the progress of the run, with why it stopped and its convergence trace
+     */
+    default void onFinish(SearchProgress progress) {
+    }
+}
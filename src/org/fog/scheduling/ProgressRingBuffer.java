@@ -0,0 +1,92 @@
+package org.fog.scheduling;
+
+/**
+ * Keeps the progress of the last {@code capacity} iterations in memory, in primitive arrays
+ * written over in a ring, so a run can be watched while it goes on without any I/O.
+ * <p>
+ * The run writes and other threads may read at the same time, so the methods are synchronized.
+ * Entries are indexed from 0, the oldest kept, to {@link #size()} - 1, the latest.
+ */
+public class ProgressRingBuffer implements ProgressListener {
+    private final int[] iterations;
+    private final double[] bestFitness;
+    private final double[] meanFitness;
+    private final double[] makespan;
+    private final double[] cost;
+    private final double[] evaluationsPerSecond;
+
+    // number of entries ever written
+    private long count;
+
+    public ProgressRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity should be positive, but is:" + capacity);
+        }
+        iterations = new int[capacity];
+        bestFitness = new double[capacity];
+        meanFitness = new double[capacity];
+        makespan = new double[capacity];
+        cost = new double[capacity];
+        evaluationsPerSecond = new double[capacity];
+    }
+
+    @Override
+    public synchronized void onIteration(int iteration, double bestFitness, double meanFitness, double makespan,
+                                         double cost, double evaluationsPerSecond) {
+        int slot = (int) (count % iterations.length);
+        this.iterations[slot] = iteration;
+        this.bestFitness[slot] = bestFitness;
+        this.meanFitness[slot] = meanFitness;
+        this.makespan[slot] = makespan;
+        this.cost[slot] = cost;
+        this.evaluationsPerSecond[slot] = evaluationsPerSecond;
+        count++;
+    }
+
+    public int getCapacity() {
+        return iterations.length;
+    }
+
+    /**
+     * @return the number of entries kept
+     */
+    public synchronized int size() {
+        return (int) Math.min(count, iterations.length);
+    }
+
+    public synchronized void clear() {
+        count = 0;
+    }
+
+    public synchronized int getIteration(int index) {
+        return iterations[slot(index)];
+    }
+
+    public synchronized double getBestFitness(int index) {
+        return bestFitness[slot(index)];
+    }
+
+    public synchronized double getMeanFitness(int index) {
+        return meanFitness[slot(index)];
+    }
+
+    public synchronized double getMakespan(int index) {
+        return makespan[slot(index)];
+    }
+
+    public synchronized double getCost(int index) {
+        return cost[slot(index)];
+    }
+
+    public synchronized double getEvaluationsPerSecond(int index) {
+        return evaluationsPerSecond[slot(index)];
+    }
+
+    private int slot(int index) {
+        int size = size();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return (int) ((count - size + index) % iterations.length);
+    }
+}
@@ -1,6 +1,7 @@
 package org.fog.scheduling;
 
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.cloudbus.cloudsim.Cloudlet;
 import org.fog.entities.FogDevice;
@@ -8,6 +9,7 @@ import org.fog.scheduling.bee.BeeAlgorithm;
 import org.fog.scheduling.bqtsearch.TabuSearch;
 import org.fog.scheduling.gaEntities.GeneticAlgorithm;
 import org.fog.scheduling.gaEntities.Individual;
+import org.fog.scheduling.gaEntities.IslandGeneticAlgorithm;
 import org.fog.scheduling.gaEntities.Population;
 import org.fog.scheduling.localSearchAlgorithm.LocalSearchAlgorithm;
 import org.fog.scheduling.moead.MOEAD;
@@ -25,6 +27,7 @@ public class SchedulingAlgorithm {
     public static final String NSGAII = "NSGAII";
     public static final String MOEAD = "MOEAD";
     public static final String BQT = "BQT Search";
+    public static final String ISLAND_GA = "Island Genetic Algorithm";
 
     // the weight value defines the trade-off between time and cost
     public static final double TIME_WEIGHT = 0.5;
@@ -39,22 +42,89 @@ public class SchedulingAlgorithm {
     public static final int NUMBER_ELITISM_INDIVIDUAL = 1;
     // BEE
     public static final int NUMBER_DRONE = (int) (NUMBER_INDIVIDUAL * 0.4);
+    // Island GA, the population is split evenly between islands
+    public static final int NUMBER_ISLAND = 4;
+    public static final int MIGRATION_INTERVAL = 20;
+    public static final int NUMBER_MIGRANT = 2;
+    public static final IslandGeneticAlgorithm.MigrationTopology MIGRATION_TOPOLOGY = IslandGeneticAlgorithm.MigrationTopology.RING;
 
     //Tabu Search parameters
     public static final int TABU_CONSTANT = 10;
+    public static final int TABU_MAX_STABLE = 100;
+    public static final int TABU_NUMBER_STEP = 10000;
+    public static final int TABU_MAX_SECOND = 20;
+    public static final int TABU_LENGTH = 30;
+    // BQT Search
+    public static final int BQT_NUMBER_ITERATION = 2000;
 
     // NSGAII Parameters
     public static final float NS_MUTATION_RATE = 0.1f;
     public static final int K_WAY = 4;
+    // BI_OBJECTIVE sorts faster but selects other individuals from the last front, see NSGAIIPopulation
+    public static final NSGAIIPopulation.SortingMethod NS_SORTING_METHOD = NSGAIIPopulation.SortingMethod.NAIVE;
 
     // MOEAD Parameters
     public static final int NUM_SUB_PROBLEMS=20;
     public static final int NUM_NEIGHBORS =7;
+    // 0 keeps every non-dominated solution in the external population
+    public static final int EXTERNAL_POP_SIZE = 0;
+
+    // Population evaluation, 1 thread means sequential evaluation
+    private static int numberEvaluationThread = Runtime.getRuntime().availableProcessors();
+    private static ForkJoinPool evaluationPool;
+
+    public static synchronized void setNumberEvaluationThread(int numberThread) {
+        numberEvaluationThread = numberThread;
+        if (evaluationPool != null) {
+            evaluationPool.shutdown();
+            evaluationPool = null;
+        }
+    }
+
+    public static synchronized ForkJoinPool getEvaluationPool() {
+        if (numberEvaluationThread < 2) {
+            return null;
+        }
+        if (evaluationPool == null) {
+            evaluationPool = new ForkJoinPool(numberEvaluationThread);
+        }
+        return evaluationPool;
+    }
+
+    /**
+     * the termination criteria used when the caller does not give any: the number of iterations
+     * of each algorithm, local search stopping at a local optimum
+     *
+     * @param algorithm the name of the algorithm
+     */
+    public static TerminationCriteria getDefaultCriteria(String algorithm) {
+        switch (algorithm) {
+            case LOCAL_SEARCH:
+                return new TerminationCriteria();
+            case TABU_SEARCH:
+                return TerminationCriteria.maxIteration(TABU_NUMBER_STEP).setMaxMillis(TABU_MAX_SECOND * 1000L);
+            case BEE:
+                // generations are numbered from 1
+                return TerminationCriteria.maxIteration(NUMBER_ITERATION - 1);
+            case BQT:
+                return TerminationCriteria.maxIteration(BQT_NUMBER_ITERATION);
+            default:
+                return TerminationCriteria.maxIteration(NUMBER_ITERATION);
+        }
+    }
 
     // GA run
     public static Individual runGeneticAlgorithm(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList) {
+        return runGeneticAlgorithm(fogDevices, cloudletList, new SearchProgress(getDefaultCriteria(GA)));
+    }
+
+    public static Individual runGeneticAlgorithm(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList,
+                                                 SearchProgress progress) {
+        progress.start();
         // Create GA object
         GeneticAlgorithm ga = new GeneticAlgorithm(NUMBER_INDIVIDUAL, MUTATION_RATE, CROSSOVER_RATE, NUMBER_ELITISM_INDIVIDUAL);
+        ga.setEvaluationPool(getEvaluationPool());
+        ga.setProgress(progress);
 
         // Calculate the boundary of time and cost
         ga.calcMinTimeCost(fogDevices, cloudletList);
@@ -64,10 +134,8 @@ public class SchedulingAlgorithm {
 
         // Evaluate population
         ga.evalPopulation(population, fogDevices, cloudletList);
+        progress.update(population.getFittest(0));
 
-        population.printPopulation();
-        // Keep track of current generation
-        int generation = 0;
 
         /*
          * Start the evolution loop
@@ -78,8 +146,7 @@ public class SchedulingAlgorithm {
          * straightforward: if there's a member of the population whose
          * chromosome is all ones, we're done!
          */
-        while (generation < NUMBER_ITERATION) {
-            System.out.println("\n------------- Generation " + generation + " --------------");
+        while (!progress.isTerminated()) {
 //                                    population.printPopulation();
             // Apply crossover
             population = ga.crossoverPopulation(population, fogDevices, cloudletList);
@@ -88,14 +155,9 @@ public class SchedulingAlgorithm {
             // Evaluate population
             ga.evalPopulation(population, fogDevices, cloudletList);
 
-            population.getFittest(0).printGene();
-
-            // Print fittest individual from population
-            System.out.println("\nBest solution of generation " + generation + ": " + population.getFittest(0).getFitness());
-            System.out.println("Makespan: (" + ga.getMinTime() + ")--" + population.getFittest(0).getTime());
-            System.out.println("TotalCost: (" + ga.getMinCost() + ")--" + population.getFittest(0).getCost());
             // Increment the current generation
-            generation++;
+            progress.endIteration(population.getFittest(0));
+            progress.report(population.getFittest(0), population.getPopulationFitness() / population.size());
 //                                      population.printPopulation();
         }
 
@@ -105,16 +167,20 @@ public class SchedulingAlgorithm {
          * ones, as promised.
          */
 
-        System.out.println(">>>>>>>>>>>>>>>>>>>RESULTS<<<<<<<<<<<<<<<<<<<<<");
-        System.out.println("Found solution in " + generation + " generations");
-        population.getFittest(0).printGene();
-        System.out.println("\nBest solution: " + population.getFittest(0).getFitness() );
-        return population.getFittest(0);
+        return printResults(progress);
     }
 
     public static Individual runGeneticAlgorithm2(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList) {
+        return runGeneticAlgorithm2(fogDevices, cloudletList, new SearchProgress(getDefaultCriteria(GA)));
+    }
+
+    public static Individual runGeneticAlgorithm2(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList,
+                                                  SearchProgress progress) {
+        progress.start();
         // Create GA object
         GeneticAlgorithm ga = new GeneticAlgorithm(NUMBER_INDIVIDUAL, MUTATION_RATE, CROSSOVER_RATE, NUMBER_ELITISM_INDIVIDUAL);
+        ga.setEvaluationPool(getEvaluationPool());
+        ga.setProgress(progress);
 
         // Calculate the boundary of time and cost
         ga.calcMinTimeCost(fogDevices, cloudletList);
@@ -122,12 +188,10 @@ public class SchedulingAlgorithm {
         // Initialize population
         Population population = ga.initPopulation(cloudletList.size(), fogDevices.size() - 1);
         ga.evalPopulation(population, fogDevices, cloudletList);
+        progress.update(population.getFittest(0));
 
-        // Keep track of current generation
-        int generation = 0;
 
-        while (generation < NUMBER_ITERATION) {
-            System.out.println("\n------------- Generation " + generation + " --------------");
+        while (!progress.isTerminated()) {
             Population newPopulation = new Population();
 
             // Apply crossover
@@ -140,14 +204,9 @@ public class SchedulingAlgorithm {
 
 //                                      population = ga.selectPopulation2(population, newPopulation, fogDevices, cloudletList);
 
-            population.getFittest(0).printGene();
-
-            // Print fittest individual from population
-            System.out.println("\nBest solution of generation " + generation + ": " + population.getFittest(0).getFitness());
-            System.out.println("Makespan: (" + ga.getMinTime() + ")--" + population.getFittest(0).getTime());
-            System.out.println("TotalCost: (" + ga.getMinCost() + ")--" + population.getFittest(0).getCost());
             // Increment the current generation
-            generation++;
+            progress.endIteration(population.getFittest(0));
+            progress.report(population.getFittest(0), population.getPopulationFitness() / population.size());
 //                                     population.printPopulation();
         }
 
@@ -157,48 +216,84 @@ public class SchedulingAlgorithm {
          * ones, as promised.
          */
 
-        System.out.println(">>>>>>>>>>>>>>>>>>>RESULTS<<<<<<<<<<<<<<<<<<<<<");
-        System.out.println("Found solution in " + generation + " generations");
-        population.getFittest(0).printGene();
-        System.out.println("\nBest solution: " + population.getFittest(0).getFitness() );
+        return printResults(progress);
+    }
+
 
-        return population.getFittest(0);
+    // Island GA run: sub-populations evolve on separate threads and exchange elites
+    public static Individual runIslandGeneticAlgorithm(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList) {
+        return runIslandGeneticAlgorithm(fogDevices, cloudletList, new SearchProgress(getDefaultCriteria(ISLAND_GA)));
     }
 
+    public static Individual runIslandGeneticAlgorithm(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList,
+                                                       SearchProgress progress) {
+        progress.start();
+        IslandGeneticAlgorithm islandGA = new IslandGeneticAlgorithm(NUMBER_ISLAND, NUMBER_INDIVIDUAL / NUMBER_ISLAND,
+                MUTATION_RATE, CROSSOVER_RATE, NUMBER_ELITISM_INDIVIDUAL, MIGRATION_INTERVAL, NUMBER_MIGRANT, MIGRATION_TOPOLOGY);
+
+        // Calculate the boundary of time and cost
+        islandGA.calcMinTimeCost(fogDevices, cloudletList);
+
+        // Initialize and evaluate the islands
+        islandGA.setProgress(progress);
+        islandGA.initPopulations(fogDevices, cloudletList);
+
+        islandGA.evolve(fogDevices, cloudletList, progress);
+
+        return printResults(progress);
+    }
 
     //local search algorithm
     public static Individual runLocalSearchAlgorithm(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList) {
+        return runLocalSearchAlgorithm(fogDevices, cloudletList, new SearchProgress(getDefaultCriteria(LOCAL_SEARCH)));
+    }
 
+    public static Individual runLocalSearchAlgorithm(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList,
+                                                     SearchProgress progress) {
+        progress.start();
         LocalSearchAlgorithm localSearch = new LocalSearchAlgorithm();
+        localSearch.setProgress(progress);
         // Calculate the boundary of time and cost
         localSearch.calcMinTimeCost(fogDevices, cloudletList);
 
         //initiate an individual
         Individual individual = new Individual(cloudletList.size(), fogDevices.size() - 1);
-        individual.printGene();
-        individual = localSearch.hillClimbing(individual, fogDevices, cloudletList);
+        localSearch.hillClimbing(individual, fogDevices, cloudletList);
 
-        return individual;
+        return printResults(progress);
     }
 
 
     // Tabu Search algorithm
     public static Individual runTabuSearchAlgorithm(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList) {
+        return runTabuSearchAlgorithm(fogDevices, cloudletList, new SearchProgress(getDefaultCriteria(TABU_SEARCH)));
+    }
+
+    public static Individual runTabuSearchAlgorithm(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList,
+                                                    SearchProgress progress) {
+        progress.start();
         LocalSearchAlgorithm localSearch = new LocalSearchAlgorithm();
+        localSearch.setProgress(progress);
         // Calculate the boundary of time and cost
         localSearch.calcMinTimeCost(fogDevices, cloudletList);
 
         // initiate an individual
         Individual individual = new Individual(cloudletList.size(), fogDevices.size() - 1);
-        individual.printGene();
-        individual = localSearch.tabuSearch(individual, fogDevices, cloudletList, 100, 10000, 20, 30);
-        System.out.println("Time: " + individual.getTime() + "-----Cost: " + individual.getCost());
-        return individual;
+        localSearch.tabuSearch(individual, fogDevices, cloudletList, TABU_MAX_STABLE, TABU_LENGTH);
+        return printResults(progress);
     }
 
     public static Individual runBeeAlgorithm(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList) {
+        return runBeeAlgorithm(fogDevices, cloudletList, new SearchProgress(getDefaultCriteria(BEE)));
+    }
+
+    public static Individual runBeeAlgorithm(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList,
+                                             SearchProgress progress) {
+        progress.start();
         // Create GA object
         BeeAlgorithm beeAlgorithm = new BeeAlgorithm(NUMBER_INDIVIDUAL, MUTATION_RATE, CROSSOVER_RATE, NUMBER_DRONE);
+        beeAlgorithm.setEvaluationPool(getEvaluationPool());
+        beeAlgorithm.setProgress(progress);
 
         // Calculate the boundary of time and cost
         beeAlgorithm.calcMinTimeCost(fogDevices, cloudletList);
@@ -206,12 +301,10 @@ public class SchedulingAlgorithm {
         // Initialize population
         Population population = beeAlgorithm.initPopulation(cloudletList.size(), fogDevices.size() - 1);
         beeAlgorithm.evalPopulation(population, fogDevices, cloudletList);
+        progress.update(population.getFittest(0));
 
-        // Keep track of current generation
-        int generation = 1;
 
-        while (generation < NUMBER_ITERATION) {
-            System.out.println("\n------------- Generation " + generation + " --------------");
+        while (!progress.isTerminated()) {
 
             // Apply crossover
             population = beeAlgorithm.crossoverPopulation(population, fogDevices, cloudletList);
@@ -226,14 +319,9 @@ public class SchedulingAlgorithm {
             // Evaluate population
             beeAlgorithm.evalPopulation(population, fogDevices, cloudletList);
 
-            population.getFittest(0).printGene();
-
-            // Print fittest individual from population
-            System.out.println("\nBest solution of generation " + generation + ": " + population.getFittest(0).getFitness());
-            System.out.println("Makespan: (" + beeAlgorithm.getMinTime() + ")--" + population.getFittest(0).getTime());
-            System.out.println("TotalCost: (" + beeAlgorithm.getMinCost() + ")--" + population.getFittest(0).getCost());
             // Increment the current generation
-            generation++;
+            progress.endIteration(population.getFittest(0));
+            progress.report(population.getFittest(0), population.getPopulationFitness() / population.size());
 //                                      population.printPopulation();
         }
 
@@ -243,17 +331,21 @@ public class SchedulingAlgorithm {
          * ones, as promised.
          */
 
-        System.out.println(">>>>>>>>>>>>>>>>>>>RESULTS<<<<<<<<<<<<<<<<<<<<<");
-        System.out.println("Found solution in " + generation + " generations");
-        population.getFittest(0).printGene();
-        System.out.println("\nBest solution: " + population.getFittest(0).getFitness() );
-        population.printPopulation();
-        return population.getFittest(0);
+        return printResults(progress);
     }
 
     public static Individual runNSGAIIAlgorithm(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList) {
+        return runNSGAIIAlgorithm(fogDevices, cloudletList, new SearchProgress(getDefaultCriteria(NSGAII)));
+    }
+
+    public static Individual runNSGAIIAlgorithm(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList,
+                                                SearchProgress progress) {
+        progress.start();
         // Create NSGAII Object
         NSGAIIAlgorithms nsgaiiAlgorithms = new NSGAIIAlgorithms(NUMBER_INDIVIDUAL, NS_MUTATION_RATE, CROSSOVER_RATE, NUMBER_ELITISM_INDIVIDUAL,K_WAY);
+        nsgaiiAlgorithms.setEvaluationPool(getEvaluationPool());
+        nsgaiiAlgorithms.setProgress(progress);
+        nsgaiiAlgorithms.setSortingMethod(NS_SORTING_METHOD);
 
 
         // Calculate the boundary of time and cost
@@ -264,10 +356,11 @@ public class SchedulingAlgorithm {
 
         // Evaluate population
         nsgaiiAlgorithms.evalPopulation(population, fogDevices, cloudletList);
+        // the fronts are not sorted yet, every individual is offered as the best so far
+        for (Individual individual : population.getPopulation()) {
+            progress.update(individual);
+        }
 
-        population.printPopulation();
-        // Keep track of current generation
-        int generation = 0;
 
 //        System.out.println("Start Iterating");
 
@@ -280,8 +373,7 @@ public class SchedulingAlgorithm {
          * straightforward: if there's a member of the population whose
          * chromosome is all ones, we're done!
          */
-        while (generation < NUMBER_ITERATION) {
-            System.out.println("\n------------- Generation " + generation + " --------------");
+        while (!progress.isTerminated()) {
 //                                    population.printPopulation();
             // select by non-dominated sorting and crowding distance
 //            System.out.println("In Iteration, start selecting");
@@ -302,13 +394,10 @@ public class SchedulingAlgorithm {
 //            System.out.println("After add Best");
 //            System.out.println(population);
 //            population.getFittest(0).printGene();
-            population.getBestFitness().printGene();
-            // Print fittest individual from population
-            System.out.println("\nBest solution of generation " + generation + ": " + population.getBestFitness().getFitness());
-            System.out.println("Makespan: (" + nsgaiiAlgorithms.getMinTime() + ")--" + population.getFittest(0).getTime());
-            System.out.println("TotalCost: (" + nsgaiiAlgorithms.getMinCost() + ")--" + population.getFittest(0).getCost());
             // Increment the current generation
-            generation++;
+            Individual best = population.getBestFitness();
+            progress.endIteration(best);
+            progress.report(best, population.getPopulationFitness() / population.size());
 //                                      population.printPopulation();
         }
 
@@ -318,18 +407,26 @@ public class SchedulingAlgorithm {
          * ones, as promised.
          */
 
-        System.out.println(">>>>>>>>>>>>>>>>>>>RESULTS<<<<<<<<<<<<<<<<<<<<<");
-        System.out.println("Found solution in " + generation + " generations");
 //        population.getBestGlobal().printGene();
 //        System.out.println("\nBest solution: " + population.getBestGlobal().getFitness() );
-        population.getBestFitness().printGene();
-        System.out.println("\nBest solution: " + population.getBestFitness().getFitness() );
-        return population.getFittest(0);
+        return printResults(progress);
     }
 
     public static Individual runMOEAD(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList) {
+        return runMOEAD(fogDevices, cloudletList, new SearchProgress(getDefaultCriteria(MOEAD)));
+    }
+
+    /**
+     * the best-so-far of the progress is the solution of the external population with the best
+     * fitness for {@link #TIME_WEIGHT}
+     */
+    public static Individual runMOEAD(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList,
+                                      SearchProgress progress) {
+        progress.start();
         // Create MOEAD
-        MOEAD moead = new MOEAD(NUM_SUB_PROBLEMS,NUM_NEIGHBORS,cloudletList.size(), fogDevices.size() - 1);
+        MOEAD moead = new MOEAD(NUM_SUB_PROBLEMS,NUM_NEIGHBORS,cloudletList.size(), fogDevices.size() - 1, EXTERNAL_POP_SIZE);
+        moead.setEvaluationPool(getEvaluationPool());
+        moead.setProgress(progress);
 
         // Calculate the boundary of time and cost
         moead.calcMinTimeCost(fogDevices,cloudletList);
@@ -337,10 +434,10 @@ public class SchedulingAlgorithm {
         // Initialize population
         // Evaluate population
         moead.evalPopulation(fogDevices, cloudletList);
+        Pair<Double,Individual> initialBest = moead.getBestSubProblem(SchedulingAlgorithm.TIME_WEIGHT);
+        progress.update(initialBest.second(), initialBest.first());
 
 //        population.printPopulation();
-        // Keep track of current generation
-        int generation = 0;
 
 //        System.out.println("Start Iterating");
 
@@ -353,14 +450,13 @@ public class SchedulingAlgorithm {
          * straightforward: if there's a member of the population whose
          * chromosome is all ones, we're done!
          */
-        while (generation < NUMBER_ITERATION) {
-            System.out.println("\n------------- Generation " + generation + " --------------");
-//            System.out.println("\nBest solution of generation " + generation + ": " + population.getFittest(0).getFitness());
-//            System.out.println("Makespan: (" + moead.getMinTime() + ")--" + population.getFittest(0).getTime());
-//            System.out.println("TotalCost: (" + moead.getMinCost() + ")--" + population.getFittest(0).getCost());
+        while (!progress.isTerminated()) {
             // Increment the current generation
             moead.update(fogDevices,cloudletList);
-            generation++;
+            Pair<Double,Individual> best = moead.getBestFitness(SchedulingAlgorithm.TIME_WEIGHT);
+            progress.endIteration(best.second(), best.first());
+            // the sub-problems weigh time and cost differently, their fitness values have no common mean
+            progress.report(best.second(), best.first(), Double.NaN);
 //                                      population.printPopulation();
         }
 
@@ -370,23 +466,42 @@ public class SchedulingAlgorithm {
          * ones, as promised.
          */
 
-        System.out.println(">>>>>>>>>>>>>>>>>>>RESULTS<<<<<<<<<<<<<<<<<<<<<");
-        System.out.println("Found solution in " + generation + " generations");
-        Pair<Double,Individual> best = moead.getBestFitness(SchedulingAlgorithm.TIME_WEIGHT);
-        System.out.println("BestFitness is "+moead.calcFitness(best.second(),fogDevices,cloudletList,SchedulingAlgorithm.TIME_WEIGHT));
-        System.out.println("Returned value is "+best.first());
-        best.second().printGene();
-        System.out.println("\nBest sub solution: " + best.second().getFitness());
 //        return moead.getBestFitness(SchedulingAlgorithm.TIME_WEIGHT);
-        return best.second();
+        return printResults(progress);
     }
 
     public static Individual runBQTabuSearch(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList){
+        return runBQTabuSearch(fogDevices, cloudletList, new SearchProgress(getDefaultCriteria(BQT)));
+    }
+
+    public static Individual runBQTabuSearch(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList,
+                                             SearchProgress progress) {
+        progress.start();
         // Create MOEAD
         TabuSearch tabuSearch = new TabuSearch(cloudletList.size(), fogDevices.size());
+        tabuSearch.setProgress(progress);
 
         // Calculate the boundary of time and cost
         tabuSearch.calcMinTimeCost(fogDevices,cloudletList);
-        return tabuSearch.search(fogDevices, cloudletList);
+        tabuSearch.setEvaluationPool(getEvaluationPool());
+        tabuSearch.search(fogDevices, cloudletList);
+        return printResults(progress);
+    }
+
+    /**
+     * end a run: tell the listener, then print why the run stopped and its best solution
+     *
+     * @return the best solution, {@code null} if the run stopped before evaluating any solution
+     */
+    private static Individual printResults(SearchProgress progress) {
+        progress.finish();
+        Individual best = progress.getBest();
+        if (best == null) {
+            System.out.println(progress + ", no solution");
+            return null;
+        }
+        System.out.println(progress + ", best solution: " + best.getFitness() + " (makespan " + best.getTime()
+                + ", cost " + best.getCost() + ")");
+        return best;
     }
 }
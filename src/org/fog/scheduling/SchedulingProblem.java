@@ -0,0 +1,205 @@
+package org.fog.scheduling;
+
+import java.util.List;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.fog.entities.FogDevice;
+import org.fog.scheduling.gaEntities.Individual;
+import org.fog.utils.Service;
+
+/**
+ * Immutable snapshot of a task scheduling instance.
+ * <p>
+ * Everything the fitness function needs from the fog devices and the cloudlets
+ * is read once at construction time and stored in flat primitive arrays, so an
+ * evaluation never has to go through {@link FogDevice} or {@link Cloudlet}.
+ * Matrices are stored task-major: the entry of task {@code t} on device
+ * {@code d} is at index {@code t * numDevices + d}.
+ */
+public class SchedulingProblem {
+    private final List<FogDevice> fogDevices;
+    private final List<? extends Cloudlet> cloudletList;
+
+    private final int numTasks;
+    private final int numDevices;
+
+    /**
+     * length of each task (MI)
+     */
+    private final double[] length;
+    /**
+     * total MIPS of each device
+     */
+    private final double[] mips;
+    /**
+     * cost of executing task t on device d, see {@link Service#calcCost(Cloudlet, FogDevice)}
+     */
+    private final double[] cost;
+    /**
+     * time for device d to execute task t alone
+     */
+    private final double[] execTime;
+
+    private final double minTime;
+    private final double minCost;
+
+    /**
+     * per-thread scratch buffers used to group tasks by device in {@link #calcFitness}
+     */
+    private final ThreadLocal<Workspace> workspace = ThreadLocal.withInitial(Workspace::new);
+
+    public SchedulingProblem(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList) {
+        this.fogDevices = fogDevices;
+        this.cloudletList = cloudletList;
+        this.numTasks = cloudletList.size();
+        this.numDevices = fogDevices.size();
+
+        this.length = new double[numTasks];
+        this.mips = new double[numDevices];
+        this.cost = new double[numTasks * numDevices];
+        this.execTime = new double[numTasks * numDevices];
+
+        for (int deviceIdx = 0; deviceIdx < numDevices; deviceIdx++) {
+            mips[deviceIdx] = fogDevices.get(deviceIdx).getHostList().get(0).getTotalMips();
+        }
+
+        int taskIdx = 0;
+        double totalLength = 0;
+        double minCost = 0;
+        for (Cloudlet cloudlet : cloudletList) {
+            length[taskIdx] = cloudlet.getCloudletLength();
+            totalLength += cloudlet.getCloudletLength();
+
+            double minCloudletCost = Double.MAX_VALUE;
+            for (int deviceIdx = 0; deviceIdx < numDevices; deviceIdx++) {
+                int idx = taskIdx * numDevices + deviceIdx;
+                cost[idx] = Service.calcCost(cloudlet, fogDevices.get(deviceIdx));
+                execTime[idx] = length[taskIdx] / mips[deviceIdx];
+                if (minCloudletCost > cost[idx]) {
+                    minCloudletCost = cost[idx];
+                }
+            }
+            // the minCost is defined as the sum of all minCloudletCost
+            minCost += minCloudletCost;
+            taskIdx++;
+        }
+
+        double totalMips = 0;
+        for (int deviceIdx = 0; deviceIdx < numDevices; deviceIdx++) {
+            totalMips += mips[deviceIdx];
+        }
+        this.minTime = totalLength / totalMips;
+        this.minCost = minCost;
+    }
+
+    /**
+     * check whether this problem was built from the given devices and cloudlets
+     */
+    public boolean isBuiltFrom(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList) {
+        return this.fogDevices == fogDevices && this.cloudletList == cloudletList
+                && fogDevices.size() == numDevices && cloudletList.size() == numTasks;
+    }
+
+    public int getNumTasks() {
+        return numTasks;
+    }
+
+    public int getNumDevices() {
+        return numDevices;
+    }
+
+    public double getMinTime() {
+        return minTime;
+    }
+
+    public double getMinCost() {
+        return minCost;
+    }
+
+    public double getLength(int taskIdx) {
+        return length[taskIdx];
+    }
+
+    public double getMips(int deviceIdx) {
+        return mips[deviceIdx];
+    }
+
+    public double getCost(int taskIdx, int deviceIdx) {
+        return cost[taskIdx * numDevices + deviceIdx];
+    }
+
+    public double getExecTime(int taskIdx, int deviceIdx) {
+        return execTime[taskIdx * numDevices + deviceIdx];
+    }
+
+    /**
+     * Calculate makespan, total cost and fitness of an individual and store them in it.
+     * <p>
+     * Tasks are visited device by device, in chromosome order inside each device,
+     * which is the order the former per-device cloudlet lists were summed in, so
+     * the results are bit-identical to the list based evaluation.
+     * <p>
+     * The problem itself is read-only and scratch buffers are per thread, so
+     * different individuals may be evaluated concurrently.
+     *
+     * @param individual the individual to evaluate
+     * @param timeWeight trade-off between time and cost
+     * @return the fitness of the individual
+     */
+    public double calcFitness(Individual individual, double timeWeight) {
+        final int[] chromosome = individual.getChromosome();
+        final Workspace ws = workspace.get();
+        final int[] deviceStart = ws.deviceStart;
+        final int[] deviceNext = ws.deviceNext;
+        final int[] taskOrder = ws.taskOrder;
+
+        // counting sort of the tasks by assigned device
+        for (int deviceIdx = 0; deviceIdx <= numDevices; deviceIdx++) {
+            deviceStart[deviceIdx] = 0;
+        }
+        for (int taskIdx = 0; taskIdx < numTasks; taskIdx++) {
+            deviceStart[chromosome[taskIdx] + 1]++;
+        }
+        for (int deviceIdx = 0; deviceIdx < numDevices; deviceIdx++) {
+            deviceStart[deviceIdx + 1] += deviceStart[deviceIdx];
+            deviceNext[deviceIdx] = deviceStart[deviceIdx];
+        }
+        for (int taskIdx = 0; taskIdx < numTasks; taskIdx++) {
+            taskOrder[deviceNext[chromosome[taskIdx]]++] = taskIdx;
+        }
+
+        //Calculate makespan and cost
+        double makespan = 0;
+        double execTime;
+        double totalCost = 0;
+        for (int deviceIdx = 0; deviceIdx < numDevices; deviceIdx++) {
+            double totalLength = 0;
+            for (int k = deviceStart[deviceIdx]; k < deviceStart[deviceIdx + 1]; k++) {
+                int taskIdx = taskOrder[k];
+                totalLength += length[taskIdx];
+                // the total cost is sum of the cost execution of each cloudlet
+                totalCost += cost[taskIdx * numDevices + deviceIdx];
+            }
+            // execTime is the time that fogDevice finishes its list cloudlet assignment
+            execTime = totalLength / mips[deviceIdx];
+            // makespan is defined as when the last cloudlet finished or when all fogDevices finish its work.
+            if (execTime > makespan) {
+                makespan = execTime;
+            }
+        }
+
+        individual.setTime(makespan);
+        individual.setCost(totalCost);
+
+        double fitness = timeWeight * minTime / makespan
+                + (1 - timeWeight) * minCost / totalCost;
+        individual.setFitness(fitness);
+        return fitness;
+    }
+
+    private class Workspace {
+        private final int[] deviceStart = new int[numDevices + 1];
+        private final int[] deviceNext = new int[numDevices];
+        private final int[] taskOrder = new int[numTasks];
+    }
+}
@@ -0,0 +1,304 @@
+package org.fog.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.fog.scheduling.gaEntities.Individual;
+
+/**
+ * The progress of one run of a scheduling algorithm against its {@link TerminationCriteria}: the
+ * iterations and fitness evaluations done so far, the best solution found so far and the anytime
+ * convergence trace, a point each time the best solution improves.
+ * <p>
+ * The algorithm starts the progress, reports the best solution of each iteration with
+ * {@link #endIteration(Individual)} and stops as soon as {@link #isTerminated()}. Evaluations may
+ * be counted from several threads; the rest is used by the thread running the algorithm.
+ * <p>
+ * The statistics of each iteration go to a {@link ProgressListener}, none by default.
+ */
+public class SearchProgress {
+
+    /**
+     * why a run stopped
+     */
+    public enum StopReason {
+        /** the algorithm reached a local optimum or ran out of moves */
+        CONVERGED,
+        MAX_ITERATION,
+        MAX_EVALUATION,
+        DEADLINE,
+        STAGNATION,
+        TARGET_FITNESS
+    }
+
+    /**
+     * the best fitness after some iterations, evaluations and time
+     */
+    public static class TracePoint {
+        private final int iteration;
+        private final long evaluations;
+        private final long elapsedMillis;
+        private final double bestFitness;
+
+        private TracePoint(int iteration, long evaluations, long elapsedMillis, double bestFitness) {
+            this.iteration = iteration;
+            this.evaluations = evaluations;
+            this.elapsedMillis = elapsedMillis;
+            this.bestFitness = bestFitness;
+        }
+
+        public int getIteration() {
+            return iteration;
+        }
+
+        public long getEvaluations() {
+            return evaluations;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public double getBestFitness() {
+            return bestFitness;
+        }
+    }
+
+    private final TerminationCriteria criteria;
+    private final LongAdder evaluations = new LongAdder();
+    private final List<TracePoint> trace = new ArrayList<>();
+    private long startNanos;
+    private long deadlineNanos;
+    private int iteration;
+    private int lastImprovement;
+    private Individual best;
+    private double bestFitness = Double.NEGATIVE_INFINITY;
+    private StopReason stopReason;
+    private ProgressListener listener = ProgressListener.NONE;
+    private long lastReportNanos;
+    private long lastReportEvaluations;
+
+    public SearchProgress(TerminationCriteria criteria) {
+        this.criteria = criteria;
+        start();
+    }
+
+    public TerminationCriteria getCriteria() {
+        return criteria;
+    }
+
+    /**
+     * start or restart the clock and the counters, the algorithms call it when they begin
+     */
+    public void start() {
+        startNanos = System.nanoTime();
+        deadlineNanos = criteria.getMaxMillis() >= Long.MAX_VALUE / 1000000 ? Long.MAX_VALUE
+                : startNanos + criteria.getMaxMillis() * 1000000;
+        evaluations.reset();
+        trace.clear();
+        iteration = 0;
+        lastImprovement = 0;
+        best = null;
+        bestFitness = Double.NEGATIVE_INFINITY;
+        stopReason = null;
+        lastReportNanos = startNanos;
+        lastReportEvaluations = 0;
+    }
+
+    public ProgressListener getListener() {
+        return listener;
+    }
+
+    /**
+     * @param listener receives the statistics of each iteration, {@link ProgressListener#NONE} for none
+     */
+    public void setListener(ProgressListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * report the iteration which just ended to the listener
+     *
+     * @param candidate   the best solution of the iteration
+     * @param meanFitness the mean fitness of the population
+     * @see ProgressListener#onIteration(int, double, double, double, double, double)
+     */
+    public void report(Individual candidate, double meanFitness) {
+        report(candidate, candidate.getFitness(), meanFitness);
+    }
+
+    /**
+     * report the iteration which just ended, with a solution whose fitness for the run differs from
+     * the fitness it holds
+     */
+    public void report(Individual candidate, double fitness, double meanFitness) {
+        if (listener == ProgressListener.NONE) {
+            return;
+        }
+        long now = System.nanoTime();
+        long evaluationCount = getEvaluations();
+        double evaluationsPerSecond = now == lastReportNanos ? 0
+                : (evaluationCount - lastReportEvaluations) * 1e9 / (now - lastReportNanos);
+        lastReportNanos = now;
+        lastReportEvaluations = evaluationCount;
+        listener.onIteration(iteration, fitness, meanFitness, candidate.getTime(), candidate.getCost(),
+                evaluationsPerSecond);
+    }
+
+    /**
+     * tell the listener that the run has stopped
+     */
+    public void finish() {
+        listener.onFinish(this);
+    }
+
+    /**
+     * count fitness evaluations, from any thread
+     */
+    public void countEvaluations(long count) {
+        evaluations.add(count);
+    }
+
+    /**
+     * offer a solution as the best so far, it is copied if it improves the best one
+     */
+    public void update(Individual candidate) {
+        update(candidate, candidate.getFitness());
+    }
+
+    /**
+     * offer a solution whose fitness for the run differs from the fitness it holds, like a solution
+     * of a sub-problem
+     */
+    public void update(Individual candidate, double fitness) {
+        if (candidate != null && fitness > bestFitness) {
+            best = (Individual) candidate.clone();
+            best.setFitness(fitness);
+            bestFitness = fitness;
+            lastImprovement = iteration;
+            trace.add(new TracePoint(iteration, getEvaluations(), getElapsedMillis(), fitness));
+        }
+    }
+
+    /**
+     * end an iteration
+     *
+     * @param candidate the best solution of the iteration, or {@code null}
+     */
+    public void endIteration(Individual candidate) {
+        endIterations(1, candidate);
+    }
+
+    /**
+     * end several iterations run without checking the criteria, like the generations between two
+     * migrations of an island model
+     *
+     * @param candidate the best solution of the iterations, or {@code null}
+     */
+    public void endIterations(int count, Individual candidate) {
+        iteration += count;
+        if (candidate != null) {
+            update(candidate);
+        }
+    }
+
+    /**
+     * end an iteration of a solution whose fitness for the run differs from the fitness it holds
+     */
+    public void endIteration(Individual candidate, double fitness) {
+        iteration++;
+        update(candidate, fitness);
+    }
+
+    /**
+     * check the criteria, and remember the first one met
+     *
+     * @return true if the run should stop
+     */
+    public boolean isTerminated() {
+        if (stopReason != null) {
+            return true;
+        }
+        if (bestFitness >= criteria.getTargetFitness()) {
+            stopReason = StopReason.TARGET_FITNESS;
+        } else if (iteration >= criteria.getMaxIteration()) {
+            stopReason = StopReason.MAX_ITERATION;
+        } else if (getEvaluations() >= criteria.getMaxEvaluation()) {
+            stopReason = StopReason.MAX_EVALUATION;
+        } else if (iteration - lastImprovement >= criteria.getStagnationWindow()) {
+            stopReason = StopReason.STAGNATION;
+        } else if (deadlineNanos != Long.MAX_VALUE && System.nanoTime() - deadlineNanos >= 0) {
+            stopReason = StopReason.DEADLINE;
+        }
+        return stopReason != null;
+    }
+
+    /**
+     * stop the run because the algorithm has nothing left to do, unless a criterion already stopped it
+     */
+    public void converged() {
+        if (stopReason == null) {
+            stopReason = StopReason.CONVERGED;
+        }
+    }
+
+    /**
+     * @return the criterion which stopped the run, {@code null} while it runs
+     */
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    public int getIteration() {
+        return iteration;
+    }
+
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+
+    public long getElapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1000000;
+    }
+
+    /**
+     * @return a copy of the best solution so far, {@code null} before the first one
+     */
+    public Individual getBest() {
+        return best;
+    }
+
+    public double getBestFitness() {
+        return bestFitness;
+    }
+
+    /**
+     * @return the convergence trace, a point each time the best solution improved
+     */
+    public List<TracePoint> getTrace() {
+        return Collections.unmodifiableList(trace);
+    }
+
+    /**
+     * @return why the run stopped, after how many iterations, evaluations and milliseconds
+     */
+    @Override
+    public String toString() {
+        return "Stopped by " + stopReason + " after " + iteration + " iterations, " + getEvaluations()
+                + " evaluations, " + getElapsedMillis() + " ms (" + criteria + ")";
+    }
+
+    /**
+     * print why the run stopped and its convergence trace
+     */
+    public void printSummary() {
+        System.out.println(this);
+        System.out.println("Convergence trace (iteration, evaluations, ms, best fitness):");
+        for (TracePoint point : trace) {
+            System.out.println(point.getIteration() + ", " + point.getEvaluations() + ", " + point.getElapsedMillis()
+                    + ", " + point.getBestFitness());
+        }
+    }
+}
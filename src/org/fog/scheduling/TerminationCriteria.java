@@ -0,0 +1,137 @@
+package org.fog.scheduling;
+
+/**
+ * When a scheduling algorithm stops: after a number of iterations (generations, rounds or
+ * steps), a number of fitness evaluations, a wall-clock deadline, a number of iterations without
+ * improvement of the best solution, or when the best solution reaches a target fitness. The
+ * first criterion met stops the run; a criterion left unset never stops it.
+ * <p>
+ * The criteria are checked between iterations, so a run may exceed its evaluation budget or its
+ * deadline by at most one iteration.
+ *
+ * @see SearchProgress
+ */
+public class TerminationCriteria {
+    private int maxIteration = Integer.MAX_VALUE;
+    private long maxEvaluation = Long.MAX_VALUE;
+    private long maxMillis = Long.MAX_VALUE;
+    private int stagnationWindow = Integer.MAX_VALUE;
+    private double targetFitness = Double.POSITIVE_INFINITY;
+
+    /**
+     * criteria which never stop a run, until some are set
+     */
+    public TerminationCriteria() {
+    }
+
+    /**
+     * @param criteria the criteria to copy, so that changing one does not change the other
+     */
+    public TerminationCriteria(TerminationCriteria criteria) {
+        this.maxIteration = criteria.maxIteration;
+        this.maxEvaluation = criteria.maxEvaluation;
+        this.maxMillis = criteria.maxMillis;
+        this.stagnationWindow = criteria.stagnationWindow;
+        this.targetFitness = criteria.targetFitness;
+    }
+
+    /**
+     * @param maxIteration the number of iterations
+     * @return criteria stopping after that number of iterations
+     */
+    public static TerminationCriteria maxIteration(int maxIteration) {
+        return new TerminationCriteria().setMaxIteration(maxIteration);
+    }
+
+    public int getMaxIteration() {
+        return maxIteration;
+    }
+
+    public TerminationCriteria setMaxIteration(int maxIteration) {
+        if (maxIteration < 0) {
+            throw new IllegalArgumentException("The number of iterations should not be negative, but is:" + maxIteration);
+        }
+        this.maxIteration = maxIteration;
+        return this;
+    }
+
+    public long getMaxEvaluation() {
+        return maxEvaluation;
+    }
+
+    /**
+     * @param maxEvaluation the number of fitness evaluations, a full evaluation or the evaluation of
+     *                      a single-gene move each counting as one
+     */
+    public TerminationCriteria setMaxEvaluation(long maxEvaluation) {
+        if (maxEvaluation < 0) {
+            throw new IllegalArgumentException("The number of evaluations should not be negative, but is:" + maxEvaluation);
+        }
+        this.maxEvaluation = maxEvaluation;
+        return this;
+    }
+
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+
+    /**
+     * @param maxMillis the wall-clock time of the run in milliseconds
+     */
+    public TerminationCriteria setMaxMillis(long maxMillis) {
+        if (maxMillis < 0) {
+            throw new IllegalArgumentException("The time limit should not be negative, but is:" + maxMillis);
+        }
+        this.maxMillis = maxMillis;
+        return this;
+    }
+
+    public int getStagnationWindow() {
+        return stagnationWindow;
+    }
+
+    /**
+     * @param stagnationWindow the number of consecutive iterations without improvement of the best
+     *                         solution after which the run stops
+     */
+    public TerminationCriteria setStagnationWindow(int stagnationWindow) {
+        if (stagnationWindow < 1) {
+            throw new IllegalArgumentException("The stagnation window should be positive, but is:" + stagnationWindow);
+        }
+        this.stagnationWindow = stagnationWindow;
+        return this;
+    }
+
+    public double getTargetFitness() {
+        return targetFitness;
+    }
+
+    /**
+     * @param targetFitness the fitness at which the best solution is good enough
+     */
+    public TerminationCriteria setTargetFitness(double targetFitness) {
+        this.targetFitness = targetFitness;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        if (maxIteration != Integer.MAX_VALUE) {
+            builder.append(" maxIteration=").append(maxIteration);
+        }
+        if (maxEvaluation != Long.MAX_VALUE) {
+            builder.append(" maxEvaluation=").append(maxEvaluation);
+        }
+        if (maxMillis != Long.MAX_VALUE) {
+            builder.append(" maxMillis=").append(maxMillis);
+        }
+        if (stagnationWindow != Integer.MAX_VALUE) {
+            builder.append(" stagnationWindow=").append(stagnationWindow);
+        }
+        if (targetFitness != Double.POSITIVE_INFINITY) {
+            builder.append(" targetFitness=").append(targetFitness);
+        }
+        return builder.length() == 0 ? "unbounded" : builder.substring(1);
+    }
+}
@@ -0,0 +1,137 @@
+package org.fog.scheduling;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.UtilizationModel;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+
+/**
+ * Bag of tasks read from a data file, stored column by column.
+ * <p>
+ * Each task attribute is kept in its own primitive array indexed by the task
+ * position in the file. The {@link Cloudlet} objects CloudSim works with are
+ * created once and exposed through a random-access, read-only list view, so
+ * {@code get(index)} is O(1) wherever the schedulers look a task up by gene index.
+ */
+public class Workload {
+    private static final String COMMA_DELIMITER = ",";
+
+    private final int size;
+    private final int[] id;
+    private final long[] length;
+    private final long[] fileSize;
+    private final long[] outputSize;
+    private final long[] memRequired;
+
+    private final Cloudlet[] cloudlets;
+    private final List<Cloudlet> cloudletList;
+
+    public Workload(int[] id, long[] length, long[] fileSize, long[] outputSize, long[] memRequired) {
+        this.size = id.length;
+        this.id = id;
+        this.length = length;
+        this.fileSize = fileSize;
+        this.outputSize = outputSize;
+        this.memRequired = memRequired;
+
+        int pesNumber = 1;
+        UtilizationModel utilizationModel = new UtilizationModelFull();
+        this.cloudlets = new Cloudlet[size];
+        for (int taskIdx = 0; taskIdx < size; taskIdx++) {
+            cloudlets[taskIdx] = new Cloudlet(id[taskIdx], length[taskIdx], pesNumber, fileSize[taskIdx],
+                    outputSize[taskIdx], memRequired[taskIdx], utilizationModel, utilizationModel, utilizationModel);
+        }
+        this.cloudletList = new CloudletListView();
+    }
+
+    /**
+     * read a task file, each line is "id,length,fileSize,outputSize,memRequired"
+     *
+     * @param filename path of the task file
+     * @return the workload, empty if the file cannot be read
+     */
+    public static Workload readFile(String filename) {
+        int count = 0;
+        int[] id = new int[64];
+        long[] length = new long[64];
+        long[] fileSize = new long[64];
+        long[] outputSize = new long[64];
+        long[] memRequired = new long[64];
+
+        try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (count == id.length) {
+                    int capacity = count << 1;
+                    id = Arrays.copyOf(id, capacity);
+                    length = Arrays.copyOf(length, capacity);
+                    fileSize = Arrays.copyOf(fileSize, capacity);
+                    outputSize = Arrays.copyOf(outputSize, capacity);
+                    memRequired = Arrays.copyOf(memRequired, capacity);
+                }
+                String[] splitData = line.split(COMMA_DELIMITER);
+                id[count] = Integer.parseInt(splitData[0]);
+                length[count] = Long.parseLong(splitData[1]);
+                fileSize[count] = Long.parseLong(splitData[2]);
+                outputSize[count] = Long.parseLong(splitData[3]);
+                memRequired[count] = Long.parseLong(splitData[4]);
+                count++;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        return new Workload(Arrays.copyOf(id, count), Arrays.copyOf(length, count), Arrays.copyOf(fileSize, count),
+                Arrays.copyOf(outputSize, count), Arrays.copyOf(memRequired, count));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getId(int taskIdx) {
+        return id[taskIdx];
+    }
+
+    public long getLength(int taskIdx) {
+        return length[taskIdx];
+    }
+
+    public long getFileSize(int taskIdx) {
+        return fileSize[taskIdx];
+    }
+
+    public long getOutputSize(int taskIdx) {
+        return outputSize[taskIdx];
+    }
+
+    public long getMemRequired(int taskIdx) {
+        return memRequired[taskIdx];
+    }
+
+    /**
+     * @return read-only, random-access view of the tasks as cloudlets
+     */
+    public List<Cloudlet> getCloudletList() {
+        return cloudletList;
+    }
+
+    private class CloudletListView extends AbstractList<Cloudlet> implements RandomAccess {
+        @Override
+        public Cloudlet get(int index) {
+            return cloudlets[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -6,7 +6,9 @@ import java.util.List;
 import org.cloudbus.cloudsim.Cloudlet;
 import org.fog.entities.FogDevice;
 import org.fog.scheduling.AbstractAlgorithm;
+import org.fog.scheduling.IncrementalEvaluator;
 import org.fog.scheduling.SchedulingAlgorithm;
+import org.fog.scheduling.gaEntities.ChromosomeIndex;
 import org.fog.scheduling.gaEntities.Individual;
 import org.fog.scheduling.gaEntities.Population;
 import org.fog.utils.Service;
@@ -72,12 +74,10 @@ public class BeeAlgorithm extends AbstractAlgorithm {
      */
     public Population evalPopulation(Population population, List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList) {
 
-        double populationFitness = 0;
+        ensureProblem(fogDevices, cloudletList);
 
-        // Loop over population evaluating individuals and summing population fitness
-        for (Individual individual : population.getPopulation()) {
-            populationFitness += calcFitness(individual, fogDevices, cloudletList,SchedulingAlgorithm.TIME_WEIGHT);
-        }
+        // Evaluate individuals, possibly in parallel, and sum population fitness
+        double populationFitness = evalIndividuals(population.getPopulation(), SchedulingAlgorithm.TIME_WEIGHT);
 
         //sort population with increasing fitness value
         population.sortPopulation();
@@ -118,7 +118,7 @@ public class BeeAlgorithm extends AbstractAlgorithm {
 
         // Spin roulette wheel
         double populationFitness = population.getPopulationFitness();
-        double rouletteWheelPosition = Math.random() * populationFitness;
+        double rouletteWheelPosition = Service.random().nextDouble() * populationFitness;
 
         // Find parent
         double spinWheel = 0;
@@ -139,21 +139,25 @@ public class BeeAlgorithm extends AbstractAlgorithm {
      */
     public Population crossoverPopulation(Population population, List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList) {
         Individual queen = population.getFittest(0);
+        // index the population once, so duplicate checks are constant time
+        ChromosomeIndex index = new ChromosomeIndex(population);
         // Loop over current population by fitness
         for (int dronesIndex = 1; dronesIndex < (numberDrones + 1); dronesIndex++) {
             Individual husband = population.getFittest(dronesIndex);
 
             // Apply crossover to this individual?
-            if (this.crossoverRate > Math.random()) {
+            if (this.crossoverRate > Service.random().nextDouble()) {
                 // Initialize offspring
                 Individual offspring = new Individual(husband.getChromosomeLength());
 
                 offspring = crossover2Point(husband, queen);
 
                 if (husband.getFitness() <= calcFitness(offspring, fogDevices, cloudletList,SchedulingAlgorithm.TIME_WEIGHT)
-                        && !doesPopupationIncludeIndividual(population, offspring)) {
+                        && !index.contains(offspring)) {
                     population.getPopulation().remove(husband);
                     population.getPopulation().add(offspring);
+                    index.remove(husband);
+                    index.add(offspring);
                 }
             }
         }
@@ -252,7 +256,7 @@ public class BeeAlgorithm extends AbstractAlgorithm {
         // Loop over current population by fitness
         for (int populationIndex = 1; populationIndex < population.size(); populationIndex++) {
             // if the current individual is selected to mutation phase
-            if (this.mutationRate > Math.random()) {
+            if (this.mutationRate > Service.random().nextDouble()) {
                 Individual individual = population.getFittest(populationIndex);
                 individual = this.mutateIndividual(individual);
             }
@@ -267,34 +271,17 @@ public class BeeAlgorithm extends AbstractAlgorithm {
     }
 
     public boolean doesPopupationIncludeIndividual(Population population, Individual individual) {
-        boolean include = false;
         for (int index = 0; index < population.size(); index++) {
-            boolean similar = true;
-            if (individual.getFitness() == population.getIndividual(index).getFitness()) {
-                for (int geneIndex = 0; geneIndex < individual.getChromosomeLength(); geneIndex++) {
-                    if (individual.getGene(geneIndex) != population.getIndividual(index).getGene(geneIndex)) {
-                        similar = false;
-                    }
-                }
-                if (similar) {
-                    include = true;
-                    break;
-                }
+            Individual other = population.getIndividual(index);
+            if (individual.getFitness() == other.getFitness() && individual.hasSameChromosome(other)) {
+                return true;
             }
-            if (include) break;
         }
-        return include;
+        return false;
     }
 
     public boolean isSameIndividual(Individual individual1, Individual individual2) {
-        boolean same = true;
-        for (int geneIndex = 0; geneIndex < individual1.getChromosomeLength(); geneIndex++) {
-            if (individual1.getGene(geneIndex) != individual2.getGene(geneIndex)) {
-                same = false;
-                break;
-            }
-        }
-        return same;
+        return individual1.hasSameChromosome(individual2);
     }
 
     //find food sources - done by workers
@@ -312,13 +299,23 @@ public class BeeAlgorithm extends AbstractAlgorithm {
         for (int geneIndex = 0; geneIndex < newIndividual.getChromosomeLength(); geneIndex++) {
             newIndividual.setGene(geneIndex, individual.getGene(geneIndex));
         }
+        // every try changes two genes, evaluate them as moves instead of a whole chromosome
+        ensureProblem(fogDevices, cloudletList);
+        IncrementalEvaluator evaluator = getIncrementalEvaluator(SchedulingAlgorithm.TIME_WEIGHT);
+        evaluator.load(newIndividual);
         int count = 100;
         do {
-            newIndividual.setGene(Service.rand(0, individual.getChromosomeLength() - 1), Service.rand(0, individual.getMaxValue()));
-            newIndividual.setGene(Service.rand(0, individual.getChromosomeLength() - 1), Service.rand(0, individual.getMaxValue()));
+            for (int change = 0; change < 2; change++) {
+                int cloudletId = Service.rand(0, individual.getChromosomeLength() - 1);
+                int fogId = Service.rand(0, individual.getMaxValue());
+                newIndividual.setGene(cloudletId, fogId);
+                evaluator.move(cloudletId, fogId);
+            }
             count--;
-        } while (calcFitness(newIndividual, fogDevices, cloudletList,SchedulingAlgorithm.TIME_WEIGHT) < individual.getFitness()
+        } while (evaluator.getFitness() < individual.getFitness()
                 && count > 0);
+        countEvaluations(1 + 100 - count);
+        evaluator.store(newIndividual);
         individual = newIndividual;
         return individual;
     }
@@ -1,156 +1,173 @@
-package org.fog.scheduling.bqtsearch;
-
-import org.cloudbus.cloudsim.Cloudlet;
-import org.fog.entities.FogDevice;
-import org.fog.scheduling.gaEntities.Individual;
-import org.fog.utils.Service;
-
-import java.util.Arrays;
-import java.util.List;
-
-public class Solution extends Individual {
-    public static List<? extends Cloudlet> cloudletsList;
-    public static List<FogDevice> fogDevices;
-    public static double timeWeight, minTime, minCost;
-
-    private double[] extTimeNodes;
-    private double[] costTasks;
-
-
-    public Solution(int chromosomeLength, int maxValue) {
-        super(chromosomeLength, maxValue);
-        extTimeNodes = new double[maxValue+1];
-        costTasks = new double[chromosomeLength];
-        calExecTimeAndCostTaskAndFitness();
-    }
-
-    /**
-     * update currLoad, Violation and Objection following the information of the move
-     *
-     * @param moveInfo a 3-elements integer array
-     *                 first: index of task
-     *                 second: index of the old node assigned to this task
-     *                 third: index of the new node assigned to this task
-     */
-    protected void updateExecTimeAndCostTaskAndFitness(int[] moveInfo) {
-        int idxTask = moveInfo[0];
-        int oldNode = moveInfo[1];
-        int newNode = moveInfo[2];
-
-        extTimeNodes[oldNode] -= ((double) cloudletsList.get(idxTask).getCloudletLength()) /
-                fogDevices.get(oldNode).getHostList().get(0).getTotalMips();
-        extTimeNodes[newNode] += ((double) cloudletsList.get(idxTask).getCloudletLength()) /
-                fogDevices.get(newNode).getHostList().get(0).getTotalMips();
-
-        double time = 0;
-        for (double extTime : extTimeNodes) {
-            time = Math.max(time, extTime);
-        }
-        setTime(time);
-
-        double costChanged = 0;
-        costChanged -= costTasks[idxTask];
-        costTasks[idxTask] = Service.calcCost(cloudletsList.get(idxTask), fogDevices.get(newNode));
-        costChanged += costTasks[idxTask];
-        setCost(getCost() + costChanged);
-        // update objective
-
-        double fitness = timeWeight * minTime / time
-                + (1 - timeWeight) * minCost / getCost();
-        setFitness(fitness);
-    }
-
-    /**
-     * update solution by a new move
-     *
-     * @param moveInfo a 3-elements integer array
-     *                 first: index of task
-     *                 second: index of the old node assigned to this task
-     *                 third: index of the new node assigned to this task
-     */
-    protected void update(int[] moveInfo) {
-        setGene(moveInfo[0], moveInfo[2]);
-        updateExecTimeAndCostTaskAndFitness(moveInfo);
-    }
-
-    /**
-     * 1st time calculate diffLoad
-     * , violation, totalDistance and objective
-     */
-
-    protected void calExecTimeAndCostTaskAndFitness() {
-        Arrays.fill(extTimeNodes,0);
-        Arrays.fill(costTasks,0);
-
-        double time=0, cost=0;
-        int idxNode;
-        for (int idxTask = 0; idxTask < getChromosomeLength(); idxTask++) {
-            idxNode = getGene(idxTask);
-            extTimeNodes[idxNode]+=cloudletsList.get(idxTask).getCloudletLength();
-            costTasks[idxTask]= Service.calcCost(cloudletsList.get(idxTask),fogDevices.get(idxNode));
-            cost += costTasks[idxTask];
-        }
-
-        for ( idxNode=0;idxNode< extTimeNodes.length;++idxNode){
-            extTimeNodes[idxNode]/=fogDevices.get(idxNode).getHostList().get(0).getTotalMips();
-            time = Math.max(extTimeNodes[idxNode], time);
-        }
-
-        setTime(time);
-        setCost(cost);
-
-        double fitness = timeWeight * minTime / time
-                + (1 - timeWeight) * minCost / cost;
-        setFitness(fitness);
-    }
-
-
-    /**
-     * find the best neighbor
-     *
-     * @param tabu array of tabu
-     * @return moveInfo a 3-elements integer array
-     *                 first: index of task
-     *                 second: index of the old node assigned to this task
-     *                 third: index of the new node assigned to this task
-     */
-    protected int[] findBestNeighbor(int[] tabu) {
-        int selectTaskIdx = -1;
-        int selectOldNode = -1;
-        int selectNewNode = -1;
-
-        double neighBestObj = 0;
-
-        final int maxValue = getMaxValue();
-        int oldNode;
-        for (int taskIdx = 0; taskIdx < getChromosomeLength(); ++taskIdx) {
-            if (tabu[taskIdx] > 0) {
-                continue;
-            }
-            oldNode = getGene(taskIdx);
-            for (int newNode = 0; newNode < maxValue; ++newNode) {
-                if (newNode != oldNode) {
-                    updateExecTimeAndCostTaskAndFitness(new int[]{taskIdx, oldNode, newNode});
-                    if (getFitness() > neighBestObj) {
-                        neighBestObj = getFitness();
-                        selectTaskIdx = taskIdx;
-                        selectOldNode = oldNode;
-                        selectNewNode = newNode;
-                    }
-                    updateExecTimeAndCostTaskAndFitness(new int[]{taskIdx, newNode, oldNode});
-                }
-            }
-        }
-        return new int[]{selectTaskIdx, selectOldNode, selectNewNode};
-    }
-
-    @Override
-    public Object clone() {
-        Solution cloned;
-        cloned = (Solution) super.clone();
-
-        cloned.extTimeNodes = extTimeNodes.clone();
-        cloned.costTasks = costTasks.clone();
-        return cloned;
-    }
-}
+package org.fog.scheduling.bqtsearch;
+
+import org.fog.scheduling.IncrementalEvaluator;
+import org.fog.scheduling.SchedulingProblem;
+import org.fog.scheduling.gaEntities.Individual;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class Solution extends Individual {
+    private IncrementalEvaluator evaluator;
+
+
+    /**
+     * create a random solution of a problem
+     *
+     * @param problem    the scheduling problem, owned by the search creating the solution
+     * @param timeWeight weight of the makespan in the fitness
+     */
+    public Solution(int chromosomeLength, int maxValue, SchedulingProblem problem, double timeWeight) {
+        super(chromosomeLength, maxValue);
+        evaluator = new IncrementalEvaluator(problem, timeWeight);
+        calExecTimeAndCostTaskAndFitness();
+    }
+
+    /**
+     * update currLoad, Violation and Objection following the information of the move
+     *
+     * @param moveInfo a 3-elements integer array
+     *                 first: index of task
+     *                 second: index of the old node assigned to this task
+     *                 third: index of the new node assigned to this task
+     */
+    protected void updateExecTimeAndCostTaskAndFitness(int[] moveInfo) {
+        evaluator.move(moveInfo[0], moveInfo[2]);
+        evaluator.store(this);
+    }
+
+    /**
+     * update solution by a new move
+     *
+     * @param moveInfo a 3-elements integer array
+     *                 first: index of task
+     *                 second: index of the old node assigned to this task
+     *                 third: index of the new node assigned to this task
+     */
+    protected void update(int[] moveInfo) {
+        setGene(moveInfo[0], moveInfo[2]);
+        updateExecTimeAndCostTaskAndFitness(moveInfo);
+    }
+
+    /**
+     * 1st time calculate diffLoad
+     * , violation, totalDistance and objective
+     */
+
+    protected void calExecTimeAndCostTaskAndFitness() {
+        evaluator.load(this);
+    }
+
+
+    /**
+     * find the best neighbor, the solution itself is not changed and nothing is allocated
+     *
+     * @param tabu     array of tabu
+     * @param moveInfo a 3-elements integer array receiving the best move, all -1 if there is none
+     *                 first: index of task
+     *                 second: index of the old node assigned to this task
+     *                 third: index of the new node assigned to this task
+     */
+    protected void findBestNeighbor(int[] tabu, int[] moveInfo) {
+        findBestNeighbor(tabu, 0, getChromosomeLength(), moveInfo);
+    }
+
+    /**
+     * find the best neighbor, splitting the tasks over the workers of a pool
+     * <p>
+     * Ties are resolved like in the sequential scan, so both return the same move.
+     *
+     * @param tabu     array of tabu
+     * @param moveInfo a 3-elements integer array receiving the best move, all -1 if there is none
+     * @param pool     pool to scan with, the scan is sequential when it is {@code null}
+     */
+    protected void findBestNeighbor(int[] tabu, int[] moveInfo, ForkJoinPool pool) {
+        if (pool == null || pool.getParallelism() < 2
+                || getChromosomeLength() < (NeighborScan.THRESHOLD << 1)) {
+            findBestNeighbor(tabu, moveInfo);
+            return;
+        }
+        NeighborScan scan = new NeighborScan(tabu, 0, getChromosomeLength());
+        pool.invoke(scan);
+        System.arraycopy(scan.moveInfo, 0, moveInfo, 0, moveInfo.length);
+    }
+
+    /**
+     * scan the moves of the tasks in [fromTask, toTask)
+     *
+     * @return fitness of the best move, 0 if there is none
+     */
+    private double findBestNeighbor(int[] tabu, int fromTask, int toTask, int[] moveInfo) {
+        moveInfo[0] = -1;
+        moveInfo[1] = -1;
+        moveInfo[2] = -1;
+
+        double neighBestObj = 0;
+
+        final int maxValue = getMaxValue();
+        int oldNode;
+        for (int taskIdx = fromTask; taskIdx < toTask; ++taskIdx) {
+            if (tabu[taskIdx] > 0) {
+                continue;
+            }
+            oldNode = getGene(taskIdx);
+            for (int newNode = 0; newNode < maxValue; ++newNode) {
+                if (newNode != oldNode) {
+                    double fitness = evaluator.fitnessIfMoved(taskIdx, newNode);
+                    if (fitness > neighBestObj) {
+                        neighBestObj = fitness;
+                        moveInfo[0] = taskIdx;
+                        moveInfo[1] = oldNode;
+                        moveInfo[2] = newNode;
+                    }
+                }
+            }
+        }
+        return neighBestObj;
+    }
+
+    private class NeighborScan extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * number of tasks scanned by one task without splitting further
+         */
+        private static final int THRESHOLD = 64;
+
+        private final int[] tabu;
+        private final int fromTask, toTask;
+        private final int[] moveInfo = new int[3];
+        private double fitness;
+
+        private NeighborScan(int[] tabu, int fromTask, int toTask) {
+            this.tabu = tabu;
+            this.fromTask = fromTask;
+            this.toTask = toTask;
+        }
+
+        @Override
+        protected void compute() {
+            if (toTask - fromTask <= THRESHOLD) {
+                fitness = findBestNeighbor(tabu, fromTask, toTask, moveInfo);
+                return;
+            }
+            int midTask = (fromTask + toTask) >>> 1;
+            NeighborScan left = new NeighborScan(tabu, fromTask, midTask);
+            NeighborScan right = new NeighborScan(tabu, midTask, toTask);
+            invokeAll(left, right);
+            // the right half wins only when strictly better, like in the sequential scan
+            NeighborScan best = right.fitness > left.fitness ? right : left;
+            fitness = best.fitness;
+            System.arraycopy(best.moveInfo, 0, moveInfo, 0, moveInfo.length);
+        }
+    }
+
+    @Override
+    public Object clone() {
+        Solution cloned;
+        cloned = (Solution) super.clone();
+
+        cloned.evaluator = new IncrementalEvaluator(evaluator);
+        return cloned;
+    }
+}
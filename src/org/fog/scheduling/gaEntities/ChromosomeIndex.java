@@ -0,0 +1,64 @@
+package org.fog.scheduling.gaEntities;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hash index over the individuals of a population, keyed by chromosome hash.
+ * <p>
+ * Looking up whether the population already holds an individual costs one hash
+ * lookup on average; the genes are compared only for individuals whose hash
+ * collides. The index has to be told about every individual added to or removed
+ * from the population while it is in use.
+ */
+public class ChromosomeIndex {
+	private final Map<Long, List<Individual>> buckets;
+
+	public ChromosomeIndex(Population population) {
+		this.buckets = new HashMap<>(population.size() * 2);
+		for (Individual individual : population.getPopulation()) {
+			add(individual);
+		}
+	}
+
+	public void add(Individual individual) {
+		buckets.computeIfAbsent(individual.getChromosomeHash(), hash -> new ArrayList<>(1)).add(individual);
+	}
+
+	/**
+	 * remove this very individual (compared by reference) from the index
+	 */
+	public void remove(Individual individual) {
+		List<Individual> bucket = buckets.get(individual.getChromosomeHash());
+		if (bucket == null) {
+			return;
+		}
+		for (int index = 0; index < bucket.size(); index++) {
+			if (bucket.get(index) == individual) {
+				bucket.remove(index);
+				break;
+			}
+		}
+		if (bucket.isEmpty()) {
+			buckets.remove(individual.getChromosomeHash());
+		}
+	}
+
+	/**
+	 * check whether an indexed individual has the same fitness and the same genes
+	 */
+	public boolean contains(Individual individual) {
+		List<Individual> bucket = buckets.get(individual.getChromosomeHash());
+		if (bucket == null) {
+			return false;
+		}
+		for (Individual other : bucket) {
+			if (other.getFitness() == individual.getFitness() && other.hasSameChromosome(individual)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
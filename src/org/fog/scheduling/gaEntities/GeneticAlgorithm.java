@@ -88,12 +88,10 @@ public class GeneticAlgorithm extends AbstractAlgorithm {
      */
     public Population evalPopulation(Population population, List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList) {
 
-        double populationFitness = 0;
+        ensureProblem(fogDevices, cloudletList);
 
-        // Loop over population evaluating individuals and summing population fitness
-        for (Individual individual : population.getPopulation()) {
-            populationFitness += calcFitness(individual, fogDevices, cloudletList,SchedulingAlgorithm.TIME_WEIGHT);
-        }
+        // Evaluate individuals, possibly in parallel, and sum population fitness
+        double populationFitness = evalIndividuals(population.getPopulation(), SchedulingAlgorithm.TIME_WEIGHT);
 
         //sort population with increasing fitness value
         population.sortPopulation();
@@ -134,7 +132,7 @@ public class GeneticAlgorithm extends AbstractAlgorithm {
 
         // Spin roulette wheel
         double populationFitness = population.getPopulationFitness();
-        double rouletteWheelPosition = Math.random() * populationFitness;
+        double rouletteWheelPosition = Service.random().nextDouble() * populationFitness;
 
         // Find parent
         double spinWheel = 0;
@@ -171,13 +169,15 @@ public class GeneticAlgorithm extends AbstractAlgorithm {
     public Population crossoverPopulation(Population population, List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList) {
         // Create new population
         List<Individual> newPopulation = new ArrayList<>();
+        // index the current population once, so duplicate checks are constant time
+        ChromosomeIndex index = new ChromosomeIndex(population);
 
         // Loop over current population by fitness
         for (int populationIndex = 0; populationIndex < population.size(); populationIndex++) {
             Individual parent1 = population.getFittest(populationIndex);
 
             // Apply crossover to this individual?
-            if (this.CROSSOVER_RATE > Math.random()) {
+            if (this.CROSSOVER_RATE > Service.random().nextDouble()) {
                 // Initialize offspring
                 Individual offspring = new Individual(parent1.getChromosomeLength());
 
@@ -186,7 +186,7 @@ public class GeneticAlgorithm extends AbstractAlgorithm {
                 offspring = crossover2Point(parent1, parent2);
 
                 if (parent1.getFitness() <= calcFitness(offspring, fogDevices, cloudletList,SchedulingAlgorithm.TIME_WEIGHT)
-                        && !doesPopupationIncludeIndividual(population, offspring)) {
+                        && !index.contains(offspring)) {
                     newPopulation.add(offspring);
                 } else {
                     newPopulation.add(parent1);
@@ -293,7 +293,7 @@ public class GeneticAlgorithm extends AbstractAlgorithm {
         // Loop over current population by fitness
         for (int populationIndex = 0; populationIndex < population.size(); populationIndex++) {
             // if the current individual is selected to mutation phase
-            if (this.MUTATION_RATE > Math.random() && populationIndex >= this.ELITISM_COUNT) {
+            if (this.MUTATION_RATE > Service.random().nextDouble() && populationIndex >= this.ELITISM_COUNT) {
                 Individual individual = population.getFittest(populationIndex);
                 individual.setGene(Service.rand(0, individual.getChromosomeLength() - 1), Service.rand(0, individual.getMaxValue()));
 
@@ -304,48 +304,25 @@ public class GeneticAlgorithm extends AbstractAlgorithm {
     }
 
     public boolean doesPopupationIncludeIndividual(Population population, Individual individual) {
-        boolean include = false;
         for (int index = 0; index < population.size(); index++) {
-            boolean similar = true;
-            if (individual.getFitness() == population.getIndividual(index).getFitness()) {
-                for (int geneIndex = 0; geneIndex < individual.getChromosomeLength(); geneIndex++) {
-                    if (individual.getGene(geneIndex) != population.getIndividual(index).getGene(geneIndex)) {
-                        similar = false;
-                    }
-                }
-                if (similar) {
-                    include = true;
-                    break;
-                }
+            Individual other = population.getIndividual(index);
+            if (individual.getFitness() == other.getFitness() && individual.hasSameChromosome(other)) {
+                return true;
             }
-            if (include) break;
         }
-        return include;
+        return false;
     }
 
     public void selectPopulation(Population population) {
         population.sortPopulation();
 
-        System.out.println("Before Selection: ");
-        population.printPopulation();
-
         while (population.size() > SchedulingAlgorithm.NUMBER_INDIVIDUAL) {
             population.getPopulation().remove(SchedulingAlgorithm.NUMBER_INDIVIDUAL);
         }
-        System.out.println("After Selection: ");
-        population.printPopulation();
-
     }
 
     public boolean isSameIndividual(Individual individual1, Individual individual2) {
-        boolean same = true;
-        for (int geneIndex = 0; geneIndex < individual1.getChromosomeLength(); geneIndex++) {
-            if (individual1.getGene(geneIndex) != individual2.getGene(geneIndex)) {
-                same = false;
-                break;
-            }
-        }
-        return same;
+        return individual1.hasSameChromosome(individual2);
     }
 
     public static void main(String[] args) {
@@ -392,7 +369,7 @@ public class GeneticAlgorithm extends AbstractAlgorithm {
         // Loop over current population by fitness
         for (int populationIndex = 0; populationIndex < newPopulation.size(); populationIndex++) {
             // if the current individual is selected to mutation phase
-            if (this.MUTATION_RATE > Math.random() && populationIndex >= this.ELITISM_COUNT) {
+            if (this.MUTATION_RATE > Service.random().nextDouble() && populationIndex >= this.ELITISM_COUNT) {
                 Individual individual = newPopulation.getFittest(populationIndex);
                 individual.setGene(Service.rand(0, individual.getChromosomeLength() - 1),
                         Service.rand(0, individual.getMaxValue()));
@@ -410,10 +387,6 @@ public class GeneticAlgorithm extends AbstractAlgorithm {
         newPopulation.getPopulation().clear();
         population = this.evalPopulation(population, fogDevices, cloudletList);
 
-
-        System.out.println("Before Selection: ");
-        population.printPopulation();
-
         while (population.size() > SchedulingAlgorithm.NUMBER_INDIVIDUAL) {
             population.getPopulation().remove(SchedulingAlgorithm.NUMBER_INDIVIDUAL);
         }
@@ -11,6 +11,10 @@ public class Individual implements Cloneable{
 	private double time;
 	private double fitness = -1;
 	private int maxValue;
+	/**
+	 * Zobrist-style hash of the chromosome, kept up to date by {@link #setGene(int, int)}
+	 */
+	private long chromosomeHash;
 	
 	public Individual(int chromosomeLength, int maxValue) {
 		this(chromosomeLength);
@@ -81,6 +85,7 @@ public class Individual implements Cloneable{
 	 * @param offset distance from 1st gene
 	 */
 	public void setGene(int offset, int gene) {
+		this.chromosomeHash ^= geneHash(offset, this.chromosome[offset]) ^ geneHash(offset, gene);
 		this.chromosome[offset] = gene;
 	}
 
@@ -94,6 +99,50 @@ public class Individual implements Cloneable{
 		return this.chromosome[offset];
 	}
 
+	/**
+	 * Get the hash of the chromosome, equal chromosomes have equal hashes
+	 * 
+	 * @return chromosome hash
+	 */
+	public long getChromosomeHash() {
+		return chromosomeHash;
+	}
+
+	/**
+	 * Recompute the chromosome hash, needed after writing into the chromosome array directly
+	 */
+	protected void rehash() {
+		long hash = 0;
+		for (int offset = 0; offset < this.chromosome.length; offset++) {
+			hash ^= geneHash(offset, this.chromosome[offset]);
+		}
+		this.chromosomeHash = hash;
+	}
+
+	/**
+	 * Compare chromosomes, the hashes are compared first and genes only when they collide
+	 * 
+	 * @param other individual to compare with
+	 * @return true if both individuals have the same genes
+	 */
+	public boolean hasSameChromosome(Individual other) {
+		return this.chromosomeHash == other.chromosomeHash && Arrays.equals(this.chromosome, other.chromosome);
+	}
+
+	/**
+	 * Hash of one gene at one offset (splitmix64 finalizer). Gene 0 hashes to 0 so
+	 * that a freshly allocated chromosome has hash 0 without any computation.
+	 */
+	private static long geneHash(int offset, int gene) {
+		if (gene == 0) {
+			return 0;
+		}
+		long z = (((long) offset << 32) | (gene & 0xffffffffL)) + 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
 	public int getMaxValue() {
 		return maxValue;
 	}
@@ -0,0 +1,256 @@
+package org.fog.scheduling.gaEntities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.fog.entities.FogDevice;
+import org.fog.scheduling.SchedulingProblem;
+import org.fog.scheduling.SearchProgress;
+import org.fog.scheduling.TerminationCriteria;
+import org.fog.utils.Service;
+
+/**
+ * Island model on top of {@link GeneticAlgorithm}.
+ * <p>
+ * Every island owns a sub-population and a {@link GeneticAlgorithm} instance and
+ * evolves on its own thread with the usual crossover / mutation / evaluation
+ * steps. Every {@code migrationInterval} generations the islands stop, and the
+ * best {@code numberMigrant} individuals of each island replace the worst ones of
+ * the island chosen by the migration topology.
+ */
+public class IslandGeneticAlgorithm {
+
+    public enum MigrationTopology {
+        /**
+         * island i sends its migrants to island i+1
+         */
+        RING,
+        /**
+         * each island sends its migrants to another island chosen at random
+         */
+        RANDOM
+    }
+
+    private final int numberIsland;
+    private final int migrationInterval;
+    private final int numberMigrant;
+    private final MigrationTopology topology;
+    private final GeneticAlgorithm[] islands;
+    private final Random rd = Service.random();
+
+    private Population[] populations;
+
+    public IslandGeneticAlgorithm(int numberIsland, int islandSize, double mutationRate, double crossoverRate,
+                                  int elitismCount, int migrationInterval, int numberMigrant, MigrationTopology topology) {
+        assert (numberMigrant < islandSize);
+        this.numberIsland = numberIsland;
+        this.migrationInterval = migrationInterval;
+        this.numberMigrant = numberMigrant;
+        this.topology = topology;
+        this.islands = new GeneticAlgorithm[numberIsland];
+        for (int islandIdx = 0; islandIdx < numberIsland; islandIdx++) {
+            islands[islandIdx] = new GeneticAlgorithm(islandSize, mutationRate, crossoverRate, elitismCount);
+        }
+    }
+
+    /**
+     * calculate the lower boundary of time and cost once and share the problem between islands
+     */
+    public void calcMinTimeCost(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList) {
+        SchedulingProblem problem = new SchedulingProblem(fogDevices, cloudletList);
+        for (GeneticAlgorithm island : islands) {
+            island.setProblem(problem);
+        }
+    }
+
+    /**
+     * count the evaluations of every island in the progress of the run
+     */
+    public void setProgress(SearchProgress progress) {
+        for (GeneticAlgorithm island : islands) {
+            island.setProgress(progress);
+        }
+    }
+
+    public double getMinTime() {
+        return islands[0].getMinTime();
+    }
+
+    public double getMinCost() {
+        return islands[0].getMinCost();
+    }
+
+    /**
+     * initialize and evaluate the sub-population of every island
+     */
+    public void initPopulations(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList) {
+        populations = new Population[numberIsland];
+        for (int islandIdx = 0; islandIdx < numberIsland; islandIdx++) {
+            populations[islandIdx] = islands[islandIdx].initPopulation(cloudletList.size(), fogDevices.size() - 1);
+            islands[islandIdx].evalPopulation(populations[islandIdx], fogDevices, cloudletList);
+        }
+    }
+
+    /**
+     * Evolve all islands concurrently for the given number of generations, with
+     * a migration every {@code migrationInterval} generations.
+     *
+     * @param numberGeneration total number of generations
+     * @return the best individual over all islands
+     */
+    public Individual evolve(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList, int numberGeneration) {
+        return evolve(fogDevices, cloudletList, new SearchProgress(TerminationCriteria.maxIteration(numberGeneration)));
+    }
+
+    /**
+     * Evolve all islands concurrently until the progress terminates, with a migration every
+     * {@code migrationInterval} generations.
+     * <p>
+     * A generation is an iteration of the progress. The islands count their evaluations in it, but
+     * the criteria are only checked between epochs, so the time and evaluation limits may be
+     * exceeded by up to one epoch.
+     *
+     * @return the best individual over all islands
+     */
+    public Individual evolve(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList, SearchProgress progress) {
+        setProgress(progress);
+        if (populations == null) {
+            initPopulations(fogDevices, cloudletList);
+        }
+        progress.update(getFittest());
+        int numberGeneration = progress.getCriteria().getMaxIteration();
+
+        ExecutorService executor = Executors.newFixedThreadPool(numberIsland);
+        try {
+            int generation = 0;
+            while (!progress.isTerminated()) {
+                final int epochLength = Math.min(migrationInterval, numberGeneration - generation);
+
+                // the pool threads have their own random generators, seed them from the caller's one so
+                // that a seeded run is reproduced whichever thread evolves an island
+                List<Callable<Population>> tasks = new ArrayList<>(numberIsland);
+                for (int islandIdx = 0; islandIdx < numberIsland; islandIdx++) {
+                    final GeneticAlgorithm island = islands[islandIdx];
+                    final Population population = populations[islandIdx];
+                    final long islandSeed = Service.random().nextLong();
+                    tasks.add(() -> evolveIsland(island, population, fogDevices, cloudletList, epochLength, islandSeed));
+                }
+                List<Future<Population>> results = executor.invokeAll(tasks);
+                for (int islandIdx = 0; islandIdx < numberIsland; islandIdx++) {
+                    populations[islandIdx] = results.get(islandIdx).get();
+                }
+                generation += epochLength;
+                progress.endIterations(epochLength, getFittest());
+                progress.report(getFittest(), getMeanFitness());
+
+                if (!progress.isTerminated()) {
+                    migrate(fogDevices, cloudletList);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Island evolution interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Island evolution failed", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+        return progress.getBest();
+    }
+
+    private static Population evolveIsland(GeneticAlgorithm island, Population population, List<FogDevice> fogDevices,
+                                           List<? extends Cloudlet> cloudletList, int numberGeneration, long seed) {
+        Service.setSeed(seed);
+        for (int generation = 0; generation < numberGeneration; generation++) {
+            population = island.crossoverPopulation(population, fogDevices, cloudletList);
+            population = island.mutatePopulation(population, fogDevices, cloudletList);
+            island.evalPopulation(population, fogDevices, cloudletList);
+        }
+        return population;
+    }
+
+    /**
+     * send copies of the best individuals of each island to its target island,
+     * where they replace the worst individuals
+     */
+    private void migrate(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList) {
+        // collect all migrants first, so an island never forwards individuals it just received
+        List<List<Individual>> migrants = new ArrayList<>(numberIsland);
+        for (Population population : populations) {
+            List<Individual> elites = new ArrayList<>(numberMigrant);
+            for (int offset = 0; offset < numberMigrant; offset++) {
+                elites.add((Individual) population.getFittest(offset).clone());
+            }
+            migrants.add(elites);
+        }
+
+        // number of worst individuals already replaced in each island
+        int[] received = new int[numberIsland];
+        for (int islandIdx = 0; islandIdx < numberIsland; islandIdx++) {
+            int targetIdx = targetIsland(islandIdx);
+            List<Individual> individuals = populations[targetIdx].getPopulation();
+            for (Individual migrant : migrants.get(islandIdx)) {
+                if (received[targetIdx] >= individuals.size() - numberMigrant) {
+                    break;
+                }
+                individuals.set(individuals.size() - 1 - received[targetIdx]++, migrant);
+            }
+        }
+
+        // re-sort the islands and refresh their total fitness
+        for (int islandIdx = 0; islandIdx < numberIsland; islandIdx++) {
+            islands[islandIdx].evalPopulation(populations[islandIdx], fogDevices, cloudletList);
+        }
+    }
+
+    private int targetIsland(int islandIdx) {
+        if (numberIsland == 1) {
+            return islandIdx;
+        }
+        switch (topology) {
+            case RANDOM:
+                int target = rd.nextInt(numberIsland - 1);
+                return target >= islandIdx ? target + 1 : target;
+            case RING:
+            default:
+                return (islandIdx + 1) % numberIsland;
+        }
+    }
+
+    /**
+     * @return the best individual over all islands
+     */
+    public Individual getFittest() {
+        Individual best = populations[0].getFittest(0);
+        for (Population population : populations) {
+            if (population.getFittest(0).getFitness() > best.getFitness()) {
+                best = population.getFittest(0);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return the mean fitness over all islands
+     */
+    public double getMeanFitness() {
+        double totalFitness = 0;
+        int size = 0;
+        for (Population population : populations) {
+            totalFitness += population.getPopulationFitness();
+            size += population.size();
+        }
+        return totalFitness / size;
+    }
+
+    public Population[] getPopulations() {
+        return populations;
+    }
+}
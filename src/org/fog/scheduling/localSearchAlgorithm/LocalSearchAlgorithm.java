@@ -7,7 +7,10 @@ import java.util.Random;
 import org.cloudbus.cloudsim.Cloudlet;
 import org.fog.entities.FogDevice;
 import org.fog.scheduling.AbstractAlgorithm;
+import org.fog.scheduling.IncrementalEvaluator;
 import org.fog.scheduling.SchedulingAlgorithm;
+import org.fog.scheduling.SearchProgress;
+import org.fog.scheduling.TerminationCriteria;
 import org.fog.scheduling.gaEntities.Individual;
 import org.fog.utils.Service;
 
@@ -17,36 +20,34 @@ public class LocalSearchAlgorithm extends AbstractAlgorithm {
 
     }
 
+    /**
+     * climb until no single-gene change improves the individual, or until the progress of the run
+     * terminates
+     *
+     * @return the best individual found
+     */
     public Individual hillClimbing(Individual individual, List<FogDevice> fogDevices,
                                    List<? extends Cloudlet> cloudletList) {
+        SearchProgress progress = getProgress(new TerminationCriteria());
 
         // listChange contains which gene change makes the individual better
         List<Pair> listChange = new ArrayList<Pair>();
 
-        int numberRound = 0;
-
         // Start local search loop
         do {
-            numberRound++;
-            System.out.println("\n--------------------------------------");
-            System.out.println("Round " + numberRound + ": ");
             listChange.clear();
             // fitness stores the fitness value of current individual
-            double fitness = calcFitness(individual, fogDevices, cloudletList,SchedulingAlgorithm.TIME_WEIGHT);
+            ensureProblem(fogDevices, cloudletList);
+            IncrementalEvaluator evaluator = getIncrementalEvaluator(SchedulingAlgorithm.TIME_WEIGHT);
+            double fitness = evaluator.load(individual);
+            progress.update(individual);
 
             // consider which gene changed makes individual better
             for (int cloudletId = 0; cloudletId < individual.getChromosomeLength(); cloudletId++) {
                 for (int fogId = 0; fogId < individual.getMaxValue() + 1; fogId++) {
 
-                    // create newIndividual similar to individual
-                    Individual newIndividual = new Individual(individual.getChromosomeLength());
-                    for (int geneIndex = 0; geneIndex < newIndividual.getChromosomeLength(); geneIndex++) {
-                        newIndividual.setGene(geneIndex, individual.getGene(geneIndex));
-                    }
-
-                    // change a gene of individual to form newIndividual
-                    newIndividual.setGene(cloudletId, fogId);
-                    double newFitness = calcFitness(newIndividual, fogDevices, cloudletList,SchedulingAlgorithm.TIME_WEIGHT);
+                    // fitness of individual if this gene were changed
+                    double newFitness = evaluator.fitnessIfMoved(cloudletId, fogId);
                     // if newIndividual is better then individual, store change
                     // in listChange
                     if (newFitness > fitness) {
@@ -54,24 +55,22 @@ public class LocalSearchAlgorithm extends AbstractAlgorithm {
                     }
                 }
             }
+            countEvaluations(1 + (long) individual.getChromosomeLength() * (individual.getMaxValue() + 1));
 
             // if exist any gene make individual better, select randomly a gene
             // change to have newIndividual
-            System.out.println("Number of changelist: " + listChange.size());
             if (!listChange.isEmpty()) {
                 int change = Service.rand(0, listChange.size() - 1);
                 individual.setGene(listChange.get(change).getCloudletId(), listChange.get(change).getFogId());
-                System.out.println("change possition: " + listChange.get(change).getCloudletId() + " "
-                        + listChange.get(change).getFogId());
             }
-            individual.printGene();
+            progress.endIteration(null);
+            progress.report(progress.getBest(), fitness);
 
-            System.out.println("\nFitness value: " + individual.getFitness());
-            System.out.println("Min Time: " + this.getMinTime() + "/// Makespan: " + individual.getTime());
-            System.out.println("Min Cost: " + this.getMinCost() + "/// TotalCost: " + individual.getCost());
-
-        } while (!listChange.isEmpty());
-        return individual;
+        } while (!listChange.isEmpty() && !progress.isTerminated());
+        if (listChange.isEmpty()) {
+            progress.converged();
+        }
+        return progress.getBest();
     }
 
     public void restart(Individual individual, int tabu[][]) {
@@ -86,8 +85,27 @@ public class LocalSearchAlgorithm extends AbstractAlgorithm {
 
     }
 
+    /**
+     * tabu search stopped after a number of steps or a time in seconds
+     *
+     * @see #tabuSearch(Individual, List, List, int, int)
+     */
     public Individual tabuSearch(Individual individual, List<FogDevice> fogDevices,
                                  List<? extends Cloudlet> cloudletList, int maxStable, int maxInteration, int maxTime, int tabuLength) {
+        setProgress(new SearchProgress(TerminationCriteria.maxIteration(maxInteration).setMaxMillis(maxTime * 1000L)));
+        return tabuSearch(individual, fogDevices, cloudletList, maxStable, tabuLength);
+    }
+
+    /**
+     * tabu search, restarting from a random individual after maxStable steps without improvement,
+     * until the progress of the run terminates
+     *
+     * @return the best individual found
+     */
+    public Individual tabuSearch(Individual individual, List<FogDevice> fogDevices,
+                                 List<? extends Cloudlet> cloudletList, int maxStable, int tabuLength) {
+        SearchProgress progress = getProgress(TerminationCriteria.maxIteration(SchedulingAlgorithm.TABU_NUMBER_STEP)
+                .setMaxMillis(SchedulingAlgorithm.TABU_MAX_SECOND * 1000L));
 
         // initiate Tabu metric, the value of each element is -1
         int[][] tabuMetric = new int[individual.getChromosomeLength()][individual.getMaxValue() + 1];
@@ -99,36 +117,31 @@ public class LocalSearchAlgorithm extends AbstractAlgorithm {
 
         Individual bestSolution = new Individual(cloudletList.size(), fogDevices.size() - 1);
         double bestValue = calcFitness(bestSolution, fogDevices, cloudletList,SchedulingAlgorithm.TIME_WEIGHT);
+        progress.update(bestSolution);
 
         // listChange contains which gene change makes the individual better
         List<Pair> listChange = new ArrayList<Pair>();
 
-        double start = System.currentTimeMillis();
         int count = 0;
-        maxTime = maxTime * 1000;
-        Random R = new Random();
+        Random R = Service.random();
         int nic = 0;
 
-        while (System.currentTimeMillis() - start < maxTime && count < maxInteration) {
+        while (!progress.isTerminated()) {
             int sel_i = -1;
             int sel_v = -1;
             listChange.clear();
             double min = -10000;
-            double valueIndividual = calcFitness(individual, fogDevices, cloudletList,SchedulingAlgorithm.TIME_WEIGHT);
+            IncrementalEvaluator evaluator = getIncrementalEvaluator(SchedulingAlgorithm.TIME_WEIGHT);
+            double valueIndividual = evaluator.load(individual);
+            long numberMove = 0;
             // consider which gene changed makes individual better
             for (int cloudletId = 0; cloudletId < individual.getChromosomeLength(); cloudletId++) {
                 for (int fogId = 0; fogId < individual.getMaxValue() + 1; fogId++) {
 
                     if (tabuMetric[cloudletId][fogId] <= count) {
-                        // create newIndividual similar to individual
-                        Individual newIndividual = new Individual(individual.getChromosomeLength());
-                        for (int geneIndex = 0; geneIndex < newIndividual.getChromosomeLength(); geneIndex++) {
-                            newIndividual.setGene(geneIndex, individual.getGene(geneIndex));
-                        }
-
-                        // change a gene of individual to form newIndividual
-                        newIndividual.setGene(cloudletId, fogId);
-                        double newFitness = calcFitness(newIndividual, fogDevices, cloudletList,SchedulingAlgorithm.TIME_WEIGHT);
+                        // fitness of individual if this gene were changed
+                        double newFitness = evaluator.fitnessIfMoved(cloudletId, fogId);
+                        numberMove++;
                         double deltaF = newFitness - valueIndividual;
                         // if newIndividual is better then individual, store change
                         // in listChange
@@ -145,6 +158,7 @@ public class LocalSearchAlgorithm extends AbstractAlgorithm {
 
                 }
             }
+            countEvaluations(1 + numberMove);
             if (listChange.size() > 0) {
                 int k = R.nextInt(listChange.size());
                 Pair p = listChange.get(k);
@@ -153,19 +167,15 @@ public class LocalSearchAlgorithm extends AbstractAlgorithm {
                 individual.setGene(sel_i, sel_v);
                 tabuMetric[sel_i][sel_v] = count + tabuLength;
                 valueIndividual = calcFitness(individual, fogDevices, cloudletList,SchedulingAlgorithm.TIME_WEIGHT);
-                System.out.println("Step: " + count + "----Current value: " + valueIndividual + "----Best value: " + bestValue + "----Delta: " + min + "----Nic: " + nic);
 
                 if (valueIndividual > bestValue) {
                     bestValue = valueIndividual;
-                    for (int geneIndex = 0; geneIndex < individual.getChromosomeLength(); geneIndex++) {
-                        bestSolution.setGene(geneIndex, individual.getGene(geneIndex));
-                    }
+                    progress.update(individual);
                 }
                 if (valueIndividual <= bestValue) {
                     nic++;
                     if (nic > maxStable) {
                         nic = 0;
-                        System.out.println("Tabu restart:");
 //                                              restart(individual, tabuMetric);
                         individual = new Individual(individual.getChromosomeLength(), individual.getMaxValue());
                         for (int cloudletId = 0; cloudletId < individual.getChromosomeLength(); cloudletId++) {
@@ -177,7 +187,6 @@ public class LocalSearchAlgorithm extends AbstractAlgorithm {
                 }
             } else {
                 nic = 0;
-                System.out.println("Tabu restart:");
 //                              restart(individual, tabuMetric);
                 individual = new Individual(individual.getChromosomeLength(), individual.getMaxValue());
                 for (int cloudletId = 0; cloudletId < individual.getChromosomeLength(); cloudletId++) {
@@ -187,8 +196,10 @@ public class LocalSearchAlgorithm extends AbstractAlgorithm {
                 }
             }
             count++;
+            progress.endIteration(null);
+            progress.report(progress.getBest(), valueIndividual);
         }
-        return bestSolution;
+        return progress.getBest();
 
     }
 
@@ -15,10 +15,18 @@ public class MOEAD extends AbstractAlgorithm {
     public final int NUM_NEIGHBOR;
     private final List<Integer> oneToNArray;
     private final SubProblem[] subProblems;
-    private final List<Individual> externalPop = new LinkedList<>();
-    Random rd = new Random();
+    private final ParetoArchive externalPop;
+    Random rd = Service.random();
 
     public MOEAD(int numSubProblem, int numNeighbor,int chromosomeLength, int maxValue){
+        this(numSubProblem, numNeighbor, chromosomeLength, maxValue, 0);
+    }
+
+    /**
+     * @param externalPopSize maximal size of the external population, 0 for an unbounded one
+     */
+    public MOEAD(int numSubProblem, int numNeighbor,int chromosomeLength, int maxValue, int externalPopSize){
+        externalPop = new ParetoArchive(externalPopSize);
         NUM_SUB_PROBLEM = numSubProblem;
         NUM_NEIGHBOR = numNeighbor;
         oneToNArray = new ArrayList<>(NUM_NEIGHBOR);
@@ -34,7 +42,7 @@ public class MOEAD extends AbstractAlgorithm {
      */
     private double[][] genWeightVector(){
         double[][] weightVector = new double[NUM_SUB_PROBLEM][2];
-        Random rd = new Random();
+        Random rd = Service.random();
 //        final double FACTOR = rd.nextDouble();
         for (int i=0;i<NUM_SUB_PROBLEM-1;++i){
             weightVector[i][0]=((double) (i+1))/(double) NUM_SUB_PROBLEM;
@@ -90,19 +98,22 @@ public class MOEAD extends AbstractAlgorithm {
     }
 
     public void evalPopulation(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList){
+        ensureProblem(fogDevices, cloudletList);
+        List<Individual> individuals = new ArrayList<>(NUM_SUB_PROBLEM);
+        double[] timeWeights = new double[NUM_SUB_PROBLEM];
         for (int i=0;i<NUM_SUB_PROBLEM;++i){
-            calcFitness(subProblems[i].getIndividual(),fogDevices,cloudletList,subProblems[i].TIME_WEIGHT);
+            individuals.add(subProblems[i].getIndividual());
+            timeWeights[i] = subProblems[i].TIME_WEIGHT;
         }
+        evalIndividuals(individuals, timeWeights);
     }
 
     public void update(List<FogDevice> fogDevices, List<? extends Cloudlet> cloudletList){
         double auxFitness; // store fitness for a new solution in a sub-problem
         SubProblem auxSubProblem; // store a neighbor sub-problem
-        boolean isAdded; // whether a new offspring is added to EP
-        MOEADIndividual auxInd; // store a temporary individual in EP
         for (int i = 0; i < NUM_SUB_PROBLEM; i++) {
             int idxSubPro1, idxSubPro2;
-            Collections.shuffle(oneToNArray);
+            Collections.shuffle(oneToNArray, rd);
             idxSubPro1 = subProblems[i].getIdxNeighbor(oneToNArray.get(0));
             idxSubPro2 = subProblems[i].getIdxNeighbor(oneToNArray.get(1));
 
@@ -125,20 +136,8 @@ public class MOEAD extends AbstractAlgorithm {
                 }
             }
 
-            isAdded = true;
-            Iterator<Individual> iterator = externalPop.iterator();
-            while (iterator.hasNext()){
-                auxInd = (MOEADIndividual) iterator.next();
-                if (auxInd.isDominating(offspringInd)){
-                    isAdded = false;
-                }
-                if (offspringInd.isDominating(auxInd)){
-                    iterator.remove();
-                }
-            }
-            if (isAdded){
-                externalPop.add(offspringInd);
-            }
+            // add offspring to EP unless it is dominated, and remove the solutions it dominates
+            externalPop.add(offspringInd);
 
         }
 
@@ -158,20 +157,30 @@ public class MOEAD extends AbstractAlgorithm {
         return individual.getFitness();
     }
 
-    private ArrayList<Pair<Double,Individual>> sortEP(double timeWeight){
-        Iterator<Individual> iterator = externalPop.iterator();
-        MOEADIndividual auxInd;
-        ArrayList<Pair<Double,Individual>> externalPopArray = new ArrayList<>();
-        while(iterator.hasNext()){
-            auxInd = (MOEADIndividual) iterator.next();
-            externalPopArray.add(new Pair<>(updateFitnessWithoutSaving(auxInd,timeWeight),auxInd));
+    public ParetoArchive getExternalPop() {
+        return externalPop;
+    }
+
+    /**
+     * the solution of the sub-problems with the best fitness for a weight, the external population
+     * is empty until the first update
+     *
+     * @return the fitness for the weight and the solution
+     */
+    public Pair<Double,Individual> getBestSubProblem(double timeWeight){
+        Individual best = null;
+        double bestFitness = Double.NEGATIVE_INFINITY;
+        for (SubProblem subProblem : subProblems) {
+            double fitness = updateFitnessWithoutSaving(subProblem.getIndividual(), timeWeight);
+            if (fitness > bestFitness) {
+                bestFitness = fitness;
+                best = subProblem.getIndividual();
+            }
         }
-        externalPopArray.sort(Comparator.comparingDouble(Pair<Double,Individual>::first).reversed());
-        return externalPopArray;
+        return new Pair<>(bestFitness, best);
     }
 
     public Pair<Double,Individual> getBestFitness(double timeWeight){
-        ArrayList<Pair<Double,Individual>> externalPopArray=sortEP(timeWeight);
-        return externalPopArray.get(0);
+        return externalPop.getBest(timeWeight, getMinTime(), getMinCost());
     }
 }
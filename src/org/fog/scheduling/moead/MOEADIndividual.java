@@ -22,7 +22,7 @@ public class MOEADIndividual extends MOIndividual{
         super(chromosomeLength);
         this.setMaxValue(maxValue);
         for (int i=0;i<chromosomeLength;++i){
-            chromosome[i]=Math.min(maxValue,Service.poissonRand(lambda));
+            setGene(i, Math.min(maxValue,Service.poissonRand(lambda)));
         }
     }
 
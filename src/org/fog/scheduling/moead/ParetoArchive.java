@@ -0,0 +1,181 @@
+package org.fog.scheduling.moead;
+
+import org.fog.scheduling.gaEntities.Individual;
+import org.fog.utils.Pair;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Set of mutually non-dominated individuals for the two objectives time and cost.
+ * <p>
+ * Individuals are kept in a {@link TreeMap} by increasing time, so their costs are
+ * strictly decreasing. An individual is dominated iff the member with the largest
+ * time not above its own has a cost not above its own, and the members it dominates
+ * are the ones right after its time with a cost not below its own. Adding an
+ * individual is therefore O(log N) plus the removed members. An individual with the
+ * same time and cost as a member is not added.
+ * <p>
+ * The weighted fitness {@code w * minTime / time + (1 - w) * minCost / cost} is
+ * linear in (1 / time, 1 / cost), so its maximum is reached on the convex hull of
+ * these points. The hull is rebuilt in O(N) after the archive changed and each
+ * query is a binary search over it.
+ */
+public class ParetoArchive {
+    private final TreeMap<Double, Individual> members = new TreeMap<>();
+    /**
+     * maximal number of members, 0 for an unbounded archive
+     */
+    private final int capacity;
+
+    private Individual[] hull = new Individual[0];
+    private int hullSize;
+    private boolean hullValid;
+
+    /**
+     * create an unbounded archive
+     */
+    public ParetoArchive() {
+        this(0);
+    }
+
+    /**
+     * create an archive that keeps at most {@code capacity} members, the most crowded
+     * member is dropped when it is full
+     *
+     * @param capacity maximal number of members, 0 for an unbounded archive
+     */
+    public ParetoArchive(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int size() {
+        return members.size();
+    }
+
+    /**
+     * @return the members by increasing time, read-only
+     */
+    public Collection<Individual> getIndividuals() {
+        return Collections.unmodifiableCollection(members.values());
+    }
+
+    /**
+     * check whether a member dominates the individual or has the same time and cost
+     */
+    public boolean isDominated(Individual individual) {
+        Map.Entry<Double, Individual> floor = members.floorEntry(individual.getTime());
+        return floor != null && floor.getValue().getCost() <= individual.getCost();
+    }
+
+    /**
+     * Add an individual unless it is dominated, and remove the members it dominates.
+     *
+     * @param individual the individual to add, it must not be modified while in the archive
+     * @return {@code true} if the individual is a member after this call
+     */
+    public boolean add(Individual individual) {
+        if (isDominated(individual)) {
+            return false;
+        }
+        Iterator<Individual> dominated = members.tailMap(individual.getTime(), true).values().iterator();
+        while (dominated.hasNext() && dominated.next().getCost() >= individual.getCost()) {
+            dominated.remove();
+        }
+        members.put(individual.getTime(), individual);
+        hullValid = false;
+
+        if (capacity > 0 && members.size() > capacity) {
+            return removeMostCrowded() != individual;
+        }
+        return true;
+    }
+
+    /**
+     * remove the member with the smallest crowding-distance, the two extreme members are never removed
+     */
+    private Individual removeMostCrowded() {
+        if (members.size() < 3) {
+            return null;
+        }
+        final double timeRange = members.lastKey() - members.firstKey();
+        final double costRange = members.firstEntry().getValue().getCost() - members.lastEntry().getValue().getCost();
+
+        Iterator<Individual> iterator = members.values().iterator();
+        Individual pre = iterator.next(), curr = iterator.next(), post;
+        Individual mostCrowded = null;
+        double minDistance = Double.POSITIVE_INFINITY;
+        while (iterator.hasNext()) {
+            post = iterator.next();
+            double distance = (post.getTime() - pre.getTime()) / timeRange
+                    + (pre.getCost() - post.getCost()) / costRange;
+            if (distance < minDistance) {
+                minDistance = distance;
+                mostCrowded = curr;
+            }
+            pre = curr;
+            curr = post;
+        }
+        members.remove(mostCrowded.getTime());
+        return mostCrowded;
+    }
+
+    /**
+     * Find the member with the best weighted fitness, the members are not changed.
+     *
+     * @param timeWeight trade-off between time and cost
+     * @param minTime    lower boundary of time
+     * @param minCost    lower boundary of cost
+     * @return the best weighted fitness and the member reaching it, {@code null} if the archive is empty
+     */
+    public Pair<Double, Individual> getBest(double timeWeight, double minTime, double minCost) {
+        if (members.isEmpty()) {
+            return null;
+        }
+        if (!hullValid) {
+            buildHull();
+        }
+        // the fitness is unimodal along the hull
+        int low = 0, high = hullSize - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (fitness(hull[mid + 1], timeWeight, minTime, minCost) > fitness(hull[mid], timeWeight, minTime, minCost)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return new Pair<>(fitness(hull[low], timeWeight, minTime, minCost), hull[low]);
+    }
+
+    private static double fitness(Individual individual, double timeWeight, double minTime, double minCost) {
+        return timeWeight * minTime / individual.getTime() + (1 - timeWeight) * minCost / individual.getCost();
+    }
+
+    /**
+     * build the upper-right convex hull of the points (1 / time, 1 / cost), visited by increasing time
+     */
+    private void buildHull() {
+        if (hull.length < members.size()) {
+            hull = new Individual[members.size()];
+        }
+        hullSize = 0;
+        for (Individual individual : members.values()) {
+            while (hullSize >= 2 && cross(hull[hullSize - 2], hull[hullSize - 1], individual) <= 0) {
+                hullSize--;
+            }
+            hull[hullSize++] = individual;
+        }
+        Arrays.fill(hull, hullSize, hull.length, null);
+        hullValid = true;
+    }
+
+    private static double cross(Individual origin, Individual a, Individual b) {
+        final double ox = 1 / origin.getTime(), oy = 1 / origin.getCost();
+        return (1 / a.getTime() - ox) * (1 / b.getCost() - oy) - (1 / a.getCost() - oy) * (1 / b.getTime() - ox);
+    }
+}
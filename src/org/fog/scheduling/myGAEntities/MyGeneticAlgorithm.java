@@ -20,6 +20,9 @@ public class MyGeneticAlgorithm {
 	private double minTime; // Lower boundary of time
 	private double minCost; // Lower boundary of cost
 
+	// Individuals dropped by the previous generations, reused for copies and offsprings
+	private final MyIndividualPool pool = new MyIndividualPool();
+
 	
 	/**
 	 * Initializes an object for managing all GA methods
@@ -99,7 +102,7 @@ public class MyGeneticAlgorithm {
 		
 		for (int offspringIndex = 0; offspringIndex < this.offspringSize; offspringIndex++) {
 			randomIndex = MyService.rand(0, size-1);
-			myClonedIndividual = (MyIndividual) MyService.deepCopy(population.getIndividual(randomIndex));
+			myClonedIndividual = pool.copyOf(population.getIndividual(randomIndex));
 			offsprings.add(myClonedIndividual);
 		}
 		
@@ -115,7 +118,7 @@ public class MyGeneticAlgorithm {
 		MyIndividual myClonedIndividual;
 		
 		for (int offspringIndex = 0; offspringIndex < this.offspringSize; offspringIndex++) {
-			myClonedIndividual = (MyIndividual) MyService.deepCopy(population.getIndividual(offspringIndex));
+			myClonedIndividual = pool.copyOf(population.getIndividual(offspringIndex));
 			offsprings.add(myClonedIndividual);
 		}
 		
@@ -135,7 +138,7 @@ public class MyGeneticAlgorithm {
 		MyService.shuffleArray(array);
 		
 		for (int offspringIndex = 0; offspringIndex < this.offspringSize; offspringIndex++) {
-			myClonedIndividual = (MyIndividual) MyService.deepCopy(population.getIndividual(array[offspringIndex]));
+			myClonedIndividual = pool.copyOf(population.getIndividual(array[offspringIndex]));
 			offsprings.add(myClonedIndividual);
 		}
 		
@@ -180,7 +183,7 @@ public class MyGeneticAlgorithm {
 		while (true) {
 			
 			if (sum2 < sum1) {
-				myClonedIndividual = (MyIndividual) MyService.deepCopy(population.getIndividual(array[i]));
+				myClonedIndividual = pool.copyOf(population.getIndividual(array[i]));
 				offsprings.add(myClonedIndividual);
 				sum2 += delta;
 				if (offsprings.size() >= this.offspringSize)
@@ -231,8 +234,8 @@ public class MyGeneticAlgorithm {
 		
 		int chromosomeLength = parent1.getChromosomeLength();
 		int maxValue = parent1.getMaxValue();
-		MyIndividual child1 = new MyIndividual(chromosomeLength, maxValue, false);
-		MyIndividual child2 = new MyIndividual(chromosomeLength, maxValue, false);
+		MyIndividual child1 = pool.acquire(chromosomeLength, maxValue);
+		MyIndividual child2 = pool.acquire(chromosomeLength, maxValue);
 		
 		int randomCutPoint = MyService.rand(1, chromosomeLength-1);
 		for (int geneIndex = 0; geneIndex < chromosomeLength; geneIndex++) {
@@ -284,8 +287,8 @@ public class MyGeneticAlgorithm {
 
 		int chromosomeLength = parent1.getChromosomeLength();
 		int maxValue = parent1.getMaxValue();
-		MyIndividual child1 = new MyIndividual(chromosomeLength, maxValue, false);
-		MyIndividual child2 = new MyIndividual(chromosomeLength, maxValue, false);
+		MyIndividual child1 = pool.acquire(chromosomeLength, maxValue);
+		MyIndividual child2 = pool.acquire(chromosomeLength, maxValue);
 		
 		int randomCutPoint1 = MyService.rand(0, chromosomeLength - 2);
 		int randomCutPoint2 = MyService.rand(randomCutPoint1 + 1, chromosomeLength - 1);
@@ -341,8 +344,8 @@ public class MyGeneticAlgorithm {
 		
 		int chromosomeLength = parent1.getChromosomeLength();
 		int maxValue = parent1.getMaxValue();
-		MyIndividual child1 = new MyIndividual(chromosomeLength, maxValue, false);
-		MyIndividual child2 = new MyIndividual(chromosomeLength, maxValue, false);
+		MyIndividual child1 = pool.acquire(chromosomeLength, maxValue);
+		MyIndividual child2 = pool.acquire(chromosomeLength, maxValue);
 		
 //		int quantityDigitsOne = MyService.rand(0,(int) chromosomeLength/2);
 		int quantityDigitsOne = (int) (chromosomeLength*digitsOneRate);
@@ -393,9 +396,21 @@ public class MyGeneticAlgorithm {
 		return parents;
 	}
 	
+	/**
+	 * Gives the individuals of a population which is not used anymore back to the pool
+	 * 
+	 * @param population
+	 */
+	public void recycle(MyPopulation population) {
+		pool.releaseAll(population.getPopulation());
+	}
+	
 	/**
 	 * Selects the best individuals for next generation
 	 * 
+	 * The individuals which are not selected are given back to the pool, so
+	 * neither of the given populations may be used afterwards.
+	 * 
 	 * @param parentsPopulation
 	 * @param offsprings
 	 * @param fogDevices
@@ -446,6 +461,14 @@ public class MyGeneticAlgorithm {
 			newGenerationIndex++;
 		}
 		
+		// Recycles the individuals which are not selected
+		for (; parentIndex < parentSize; parentIndex++) {
+			pool.release(parentsPopulation.getIndividual(parentIndex));
+		}
+		for (; offspringIndex < offspringSize; offspringIndex++) {
+			pool.release(offsprings.getIndividual(offspringIndex));
+		}
+		
 		return (new MyPopulation(nextGeneration));
 	}
 	
@@ -50,6 +50,29 @@ public class MyIndividual implements java.io.Serializable{
 		}
 	}
 	
+	/**
+	 * Copy constructor, the chromosome is copied with System.arraycopy
+	 * 
+	 * @param other : The individual to copy
+	 */
+	public MyIndividual(MyIndividual other) {
+		this.chromosome = new int[other.getChromosomeLength()];
+		copyFrom(other);
+	}
+	
+	/**
+	 * Overwrite the genes, evaluation and value domain of this individual with
+	 * the ones of another individual of the same chromosome length
+	 * 
+	 * @param other : The individual to copy
+	 */
+	public void copyFrom(MyIndividual other) {
+		System.arraycopy(other.chromosome, 0, this.chromosome, 0, this.chromosome.length);
+		this.cost = other.cost;
+		this.time = other.time;
+		this.fitness = other.fitness;
+		this.maxValue = other.maxValue;
+	}
 	
 	/**
 	 * Print the chain of ADN (a solution) to screen
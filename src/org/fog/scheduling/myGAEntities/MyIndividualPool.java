@@ -0,0 +1,76 @@
+package org.fog.scheduling.myGAEntities;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * Recycles the individuals dropped at the end of a generation, so that the
+ * offsprings of the next generation reuse their chromosome arrays instead of
+ * allocating new ones.
+ * <p>
+ * An individual must not be used anymore once it has been released.
+ */
+public class MyIndividualPool {
+	private final ArrayDeque<MyIndividual> freeIndividuals = new ArrayDeque<>();
+
+	/**
+	 * Get an individual whose genes are not initialized
+	 *
+	 * @param chromosomeLength : Number of genes in DNA
+	 * @param maxValue : value domain of each gene
+	 * @return A recycled individual, or a new one if there is none of this length
+	 */
+	public MyIndividual acquire(int chromosomeLength, int maxValue) {
+		MyIndividual individual = freeIndividuals.poll();
+		if (individual == null || individual.getChromosomeLength() != chromosomeLength) {
+			return new MyIndividual(chromosomeLength, maxValue, false);
+		}
+		individual.setMaxValue(maxValue);
+		individual.setCost(0);
+		individual.setTime(0);
+		individual.setFitness(-1);
+		return individual;
+	}
+
+	/**
+	 * Get a copy of an individual
+	 *
+	 * @param individual : The individual to copy
+	 * @return A recycled individual holding the same genes and evaluation
+	 */
+	public MyIndividual copyOf(MyIndividual individual) {
+		MyIndividual copy = freeIndividuals.poll();
+		if (copy == null || copy.getChromosomeLength() != individual.getChromosomeLength()) {
+			return new MyIndividual(individual);
+		}
+		copy.copyFrom(individual);
+		return copy;
+	}
+
+	/**
+	 * Give back an individual which is not referenced anymore
+	 *
+	 * @param individual
+	 */
+	public void release(MyIndividual individual) {
+		freeIndividuals.push(individual);
+	}
+
+	/**
+	 * Give back all individuals of a list which is not used anymore
+	 *
+	 * @param individuals
+	 */
+	public void releaseAll(List<MyIndividual> individuals) {
+		for (MyIndividual individual : individuals) {
+			freeIndividuals.push(individual);
+		}
+	}
+
+	/**
+	 * @return The number of individuals ready to be reused
+	 */
+	public int size() {
+		return freeIndividuals.size();
+	}
+}
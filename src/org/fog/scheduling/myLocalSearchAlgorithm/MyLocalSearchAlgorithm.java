@@ -47,7 +47,7 @@ public class MyLocalSearchAlgorithm {
 				bestFitness = fitness;
 			
 			// Create a new neighbor
-			neighborIndividual = (MyIndividual) MyService.deepCopy(individual);
+			neighborIndividual = new MyIndividual(individual);
 
 			// Choose the better neighbors
 			int oldGeneValue;
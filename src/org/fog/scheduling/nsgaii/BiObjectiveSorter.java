@@ -0,0 +1,269 @@
+package org.fog.scheduling.nsgaii;
+
+import org.fog.scheduling.gaEntities.Individual;
+
+import java.util.List;
+
+/**
+ * Non-dominated sorting and crowding distance specialised for the two objectives
+ * time and cost, both minimized.
+ * <p>
+ * Individuals are swept in increasing (time, cost) order. The last individual
+ * added to a front is the one with the lowest cost so far, and a front dominates
+ * the current individual iff its last individual does. If front k+1 dominates an
+ * individual then front k does too, so the rank of each individual is found with
+ * a binary search over the fronts, which gives O(N log N) in total. Everything is
+ * computed over primitive arrays that are reused between generations.
+ * <p>
+ * The members of the fronts are ordered as {@link NSGAIIPopulation#fastNonDominatedSorting()}
+ * discovers them. The first front is in population order. An individual of front k+1 is
+ * discovered when the last of its dominators in front k is visited, and its dominators in
+ * front k are consecutive in (time, cost) order, so it is found with a sliding window maximum.
+ */
+class BiObjectiveSorter {
+    private double[] time = new double[0];
+    private double[] cost = new double[0];
+    private double[] distance = new double[0];
+    private double[] negDistance = new double[0];
+    private int[] rank = new int[0];
+    private int[] order = new int[0];
+    private int[] buffer = new int[0];
+    /**
+     * individual indexes grouped by front, in discovery order inside a front
+     */
+    private int[] members = new int[0];
+    /**
+     * individual indexes grouped by front, in increasing (time, cost) order inside a front
+     */
+    private int[] stairs = new int[0];
+    private int[] position = new int[0];
+    private double[] discovery = new double[0];
+    private int[] window = new int[0];
+    private int[] frontStart = new int[1];
+    private int[] frontNext = new int[0];
+    private double[] frontLastTime = new double[0];
+    private double[] frontLastCost = new double[0];
+
+    private void ensureCapacity(int size) {
+        if (time.length < size) {
+            time = new double[size];
+            cost = new double[size];
+            distance = new double[size];
+            negDistance = new double[size];
+            rank = new int[size];
+            order = new int[size];
+            buffer = new int[size];
+            members = new int[size];
+            stairs = new int[size];
+            position = new int[size];
+            discovery = new double[size];
+            window = new int[size];
+            frontStart = new int[size + 1];
+            frontNext = new int[size];
+            frontLastTime = new double[size];
+            frontLastCost = new double[size];
+        }
+    }
+
+    /**
+     * compute the front index of every individual and group the individuals by front
+     *
+     * @param individuals evaluated individuals
+     * @return the number of fronts
+     */
+    int sortRanks(List<Individual> individuals) {
+        final int size = individuals.size();
+        ensureCapacity(size);
+        for (int idx = 0; idx < size; idx++) {
+            time[idx] = individuals.get(idx).getTime();
+            cost[idx] = individuals.get(idx).getCost();
+            order[idx] = idx;
+        }
+        sort(order, 0, size, time, cost);
+
+        int numFronts = 0;
+        for (int k = 0; k < size; k++) {
+            int idx = order[k];
+            // first front whose last individual does not dominate this one
+            int low = 0, high = numFronts;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (isDominating(frontLastTime[mid], frontLastCost[mid], time[idx], cost[idx])) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            rank[idx] = low;
+            frontLastTime[low] = time[idx];
+            frontLastCost[low] = cost[idx];
+            if (low == numFronts) {
+                numFronts++;
+            }
+        }
+
+        // counting sort by front, stable so a front keeps the population order,
+        // then the (time, cost) order
+        for (int front = 0; front <= numFronts; front++) {
+            frontStart[front] = 0;
+        }
+        for (int idx = 0; idx < size; idx++) {
+            frontStart[rank[idx] + 1]++;
+        }
+        for (int front = 0; front < numFronts; front++) {
+            frontStart[front + 1] += frontStart[front];
+            frontNext[front] = frontStart[front];
+        }
+        for (int idx = 0; idx < size; idx++) {
+            members[frontNext[rank[idx]]++] = idx;
+        }
+        for (int front = 0; front < numFronts; front++) {
+            frontNext[front] = frontStart[front];
+        }
+        for (int k = 0; k < size; k++) {
+            stairs[frontNext[rank[order[k]]]++] = order[k];
+        }
+
+        for (int k = frontStart[0]; k < frontStart[1]; k++) {
+            position[members[k]] = k;
+        }
+        for (int front = 1; front < numFronts; front++) {
+            orderByDiscovery(front);
+        }
+        return numFronts;
+    }
+
+    /**
+     * reorder the members of a front by the position of their last dominator in the previous
+     * front, then in population order
+     */
+    private void orderByDiscovery(int front) {
+        final int previousEnd = frontStart[front];
+        // the dominators of the current individual are the stairs [first, next) of the previous
+        // front, the window keeps their stairs by decreasing position
+        int first = frontStart[front - 1], next = first;
+        int head = 0, tail = 0;
+        for (int k = frontStart[front]; k < frontStart[front + 1]; k++) {
+            int idx = stairs[k];
+            while (next < previousEnd && time[stairs[next]] <= time[idx]) {
+                while (tail > head && position[stairs[window[tail - 1]]] < position[stairs[next]]) {
+                    tail--;
+                }
+                window[tail++] = next++;
+            }
+            while (cost[stairs[first]] > cost[idx]) {
+                first++;
+            }
+            while (window[head] < first) {
+                head++;
+            }
+            discovery[idx] = position[stairs[window[head]]];
+        }
+
+        sort(members, frontStart[front], frontStart[front + 1], discovery, null);
+        for (int k = frontStart[front]; k < frontStart[front + 1]; k++) {
+            position[members[k]] = k;
+        }
+    }
+
+    /**
+     * position of the first member of a front
+     */
+    int getFrontStart(int front) {
+        return frontStart[front];
+    }
+
+    /**
+     * position after the last member of a front
+     */
+    int getFrontEnd(int front) {
+        return frontStart[front + 1];
+    }
+
+    /**
+     * index of the individual at a position of the grouped fronts
+     */
+    int getMember(int position) {
+        return members[position];
+    }
+
+    /**
+     * assign crowding-distance to the individuals of a front, the members of the front are reordered
+     */
+    void crowdingDistanceAssignment(int front) {
+        final int from = frontStart[front], to = frontStart[front + 1];
+        for (int k = from; k < to; k++) {
+            distance[members[k]] = 0;
+        }
+        accumulateDistance(from, to, time, cost);
+        accumulateDistance(from, to, cost, time);
+    }
+
+    /**
+     * crowding-distance of an individual, valid after {@link #crowdingDistanceAssignment}
+     */
+    double getDistance(int idx) {
+        return distance[idx];
+    }
+
+    /**
+     * reorder the members of a front by decreasing crowding-distance
+     */
+    void sortByDistance(int front) {
+        final int from = frontStart[front], to = frontStart[front + 1];
+        for (int k = from; k < to; k++) {
+            negDistance[members[k]] = -distance[members[k]];
+        }
+        sort(members, from, to, negDistance, null);
+    }
+
+    private void accumulateDistance(int from, int to, double[] objective, double[] secondary) {
+        final int lastIdx = to - 1;
+        sort(members, from, to, objective, secondary);
+        distance[members[from]] = Double.POSITIVE_INFINITY;
+        distance[members[lastIdx]] = Double.POSITIVE_INFINITY;
+        double range = objective[members[lastIdx]] - objective[members[from]];
+        if (range <= 0) {
+            return;
+        }
+        for (int k = from + 1; k < lastIdx; k++) {
+            distance[members[k]] += (objective[members[k + 1]] - objective[members[k - 1]]) / range;
+        }
+    }
+
+    private static boolean isDominating(double time, double cost, double otherTime, double otherCost) {
+        return (time < otherTime && cost <= otherCost) || (time <= otherTime && cost < otherCost);
+    }
+
+    /**
+     * stable merge sort of indexes by increasing (primary, secondary) keys
+     */
+    private void sort(int[] indexes, int from, int to, double[] primary, double[] secondary) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        sort(indexes, from, mid, primary, secondary);
+        sort(indexes, mid, to, primary, secondary);
+        if (compare(indexes[mid - 1], indexes[mid], primary, secondary) <= 0) {
+            return;
+        }
+        System.arraycopy(indexes, from, buffer, from, to - from);
+        int left = from, right = mid;
+        for (int k = from; k < to; k++) {
+            if (right >= to || (left < mid && compare(buffer[left], buffer[right], primary, secondary) <= 0)) {
+                indexes[k] = buffer[left++];
+            } else {
+                indexes[k] = buffer[right++];
+            }
+        }
+    }
+
+    private static int compare(int idx1, int idx2, double[] primary, double[] secondary) {
+        int result = Double.compare(primary[idx1], primary[idx2]);
+        if (result == 0 && secondary != null) {
+            result = Double.compare(secondary[idx1], secondary[idx2]);
+        }
+        return result;
+    }
+}
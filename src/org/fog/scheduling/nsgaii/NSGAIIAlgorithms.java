@@ -14,7 +14,8 @@ public class NSGAIIAlgorithms extends GeneticAlgorithm {
      * tournament selection parameter
      */
     private int kWay = 2;
-    private final Random rd = new Random();
+    private NSGAIIPopulation.SortingMethod sortingMethod = NSGAIIPopulation.SortingMethod.NAIVE;
+    private final Random rd = Service.random();
 
     public NSGAIIAlgorithms(int populationSize, double mutationRate, double crossoverRate, int elitismCount) {
         super(populationSize, mutationRate, crossoverRate, elitismCount);
@@ -26,9 +27,19 @@ public class NSGAIIAlgorithms extends GeneticAlgorithm {
         this.kWay = kWay;
     }
 
+    public NSGAIIPopulation.SortingMethod getSortingMethod() {
+        return sortingMethod;
+    }
+
+    public void setSortingMethod(NSGAIIPopulation.SortingMethod sortingMethod) {
+        this.sortingMethod = sortingMethod;
+    }
+
     @Override
     public NSGAIIPopulation initPopulation(int chromosomeLength, int maxValue) {
-        return new NSGAIIPopulation(this.POPULATION_SIZE, chromosomeLength, maxValue);
+        NSGAIIPopulation population = new NSGAIIPopulation(this.POPULATION_SIZE, chromosomeLength, maxValue);
+        population.setSortingMethod(sortingMethod);
+        return population;
     }
 
     public void selectPopulation(NSGAIIPopulation nsgaiiPopulation) {
@@ -79,7 +90,7 @@ public class NSGAIIAlgorithms extends GeneticAlgorithm {
         for (int i = 0; i < POPULATION_SIZE; i++) {
             idxes.add(i);
         }
-        Collections.shuffle(idxes);
+        Collections.shuffle(idxes, rd);
         for (int i = 0; i < kWay; i++) {
             nsgaiiIndividuals[i] = (NSGAIIIndividual) nsgaiiIndividualList.get(idxes.get(i));
         }
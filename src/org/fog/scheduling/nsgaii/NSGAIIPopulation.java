@@ -8,8 +8,28 @@ import java.util.List;
 import java.util.Random;
 
 public class NSGAIIPopulation extends Population {
+
+    /**
+     * how the fronts are built in {@link #select()}
+     */
+    public enum SortingMethod {
+        /**
+         * compare every pair of individuals, O(N^2)
+         */
+        NAIVE,
+        /**
+         * sweep specialised for the two objectives time and cost, O(N log N),
+         * see {@link BiObjectiveSorter}. The fronts are the same as {@link #NAIVE}, but the last
+         * front is cut keeping the individuals with the largest crowding-distance, so the
+         * selection differs
+         */
+        BI_OBJECTIVE
+    }
+
     private final int POPULATION_SIZE;
     private List<List<Individual>> fronts;
+    private SortingMethod sortingMethod = SortingMethod.NAIVE;
+    private BiObjectiveSorter sorter;
 //    private final Individual bestGlobal;
     /**
      * Initializes population of individuals
@@ -33,6 +53,21 @@ public class NSGAIIPopulation extends Population {
 //        bestGlobal = new NSGAIIIndividual(chromosomeLength,maxValue);
     }
 
+    public SortingMethod getSortingMethod() {
+        return sortingMethod;
+    }
+
+    public void setSortingMethod(SortingMethod sortingMethod) {
+        this.sortingMethod = sortingMethod;
+    }
+
+    /**
+     * fronts built by the last sorting
+     */
+    protected List<List<Individual>> getFronts() {
+        return fronts;
+    }
+
     protected void fastNonDominatedSorting(){
         fronts = new ArrayList<>();
         fronts.add(new ArrayList<>());
@@ -85,6 +120,37 @@ public class NSGAIIPopulation extends Population {
 //        }
     }
 
+    /**
+     * Build the same fronts as {@link #fastNonDominatedSorting()} with a {@link BiObjectiveSorter}.
+     * <p>
+     * Fronts are added while fewer than {@code POPULATION_SIZE} individuals are sorted,
+     * and the individuals of a front are in the order {@link #fastNonDominatedSorting()}
+     * discovers them, see {@code org.fog.test.perfeval.SortingCheck}.
+     */
+    protected void biObjectiveSorting() {
+        if (sorter == null) {
+            sorter = new BiObjectiveSorter();
+        }
+        List<Individual> population = getPopulation();
+        int numFronts = sorter.sortRanks(population);
+
+        fronts = new ArrayList<>();
+        int sortedNum = 0; // number of sorted individual
+        for (int front = 0; front < numFronts; front++) {
+            if (front > 0 && sortedNum >= POPULATION_SIZE) {
+                break;
+            }
+            List<Individual> individuals = new ArrayList<>(sorter.getFrontEnd(front) - sorter.getFrontStart(front));
+            for (int position = sorter.getFrontStart(front); position < sorter.getFrontEnd(front); position++) {
+                NSGAIIIndividual individual = (NSGAIIIndividual) population.get(sorter.getMember(position));
+                individual.setRank(front);
+                individuals.add(individual);
+            }
+            fronts.add(individuals);
+            sortedNum += individuals.size();
+        }
+    }
+
     /**
      * assign crowding-distance to each individual of a front
      *
@@ -146,6 +212,10 @@ public class NSGAIIPopulation extends Population {
      * select top N {@code POPULATION_SIZE} individual from this Population currently in size of 2*N
      */
     protected void select(){
+        if (sortingMethod == SortingMethod.BI_OBJECTIVE) {
+            selectBiObjective();
+            return;
+        }
         fastNonDominatedSorting();
 //        saveBest();
 //        System.out.println("Sorted");
@@ -170,6 +240,35 @@ public class NSGAIIPopulation extends Population {
         setPopulation(selectedPop);
     }
 
+    /**
+     * {@link #select()} over the fronts of {@link #biObjectiveSorting()}, with the crowding-distance
+     * computed on primitive arrays. The last front is cut keeping the individuals
+     * with the largest crowding-distance.
+     */
+    private void selectBiObjective() {
+        biObjectiveSorting();
+        List<Individual> population = getPopulation();
+        List<Individual> selectedPop = new ArrayList<>(POPULATION_SIZE<<1);
+        for (int front = 0; front < fronts.size(); front++) {
+            sorter.crowdingDistanceAssignment(front);
+            for (int position = sorter.getFrontStart(front); position < sorter.getFrontEnd(front); position++) {
+                int idx = sorter.getMember(position);
+                population.get(idx).setFitness(sorter.getDistance(idx));
+            }
+
+            int end = sorter.getFrontEnd(front);
+            int supplementNum = POPULATION_SIZE - selectedPop.size();
+            if (end - sorter.getFrontStart(front) > supplementNum) {
+                sorter.sortByDistance(front);
+                end = sorter.getFrontStart(front) + supplementNum;
+            }
+            for (int position = sorter.getFrontStart(front); position < end; position++) {
+                selectedPop.add(population.get(sorter.getMember(position)));
+            }
+        }
+        setPopulation(selectedPop);
+    }
+
     @Override
     public void sortPopulation() {
 //        assert (fronts!=null);
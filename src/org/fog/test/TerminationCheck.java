@@ -0,0 +1,45 @@
+package org.fog.test;
+
+import java.util.Calendar;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.fog.entities.FogBroker;
+import org.fog.scheduling.FogSchedulingExample;
+import org.fog.scheduling.SchedulingAlgorithm;
+import org.fog.scheduling.SearchProgress;
+import org.fog.scheduling.TerminationCriteria;
+import org.fog.scheduling.gaEntities.Individual;
+
+/**
+ * Checks that every scheduling algorithm stopped by an evaluation budget smaller than its first
+ * population still returns the best solution evaluated so far, and a stop reason.
+ * <p>
+ * Throws on the first algorithm which returns no solution or fails.
+ */
+public class TerminationCheck {
+	public static String infrastructure = "data_infrucstructure/fog15";
+	public static String workload = "data/data100";
+	public static String[] algorithms = {SchedulingAlgorithm.GA, SchedulingAlgorithm.LOCAL_SEARCH,
+			SchedulingAlgorithm.TABU_SEARCH, SchedulingAlgorithm.BEE, SchedulingAlgorithm.NSGAII,
+			SchedulingAlgorithm.MOEAD, SchedulingAlgorithm.BQT, SchedulingAlgorithm.ISLAND_GA};
+
+	private static final long MAX_EVALUATION = 10;
+
+	public static void main(String[] args) throws Exception {
+		Log.disable();
+		for (String algorithm : algorithms) {
+			CloudSim.init(1, Calendar.getInstance(), false);
+			FogBroker broker = new FogBroker("broker");
+			broker.setFogDevices(FogSchedulingExample.jsonToInfrucstruture(infrastructure));
+			broker.setCloudletList(FogSchedulingExample.createCloudlet(workload));
+
+			SearchProgress progress = new SearchProgress(new TerminationCriteria().setMaxEvaluation(MAX_EVALUATION));
+			Individual best = broker.assignCloudlet(algorithm, progress);
+			if (best == null || progress.getStopReason() == null) {
+				throw new IllegalStateException(algorithm + " returned " + best + " after " + progress);
+			}
+		}
+		System.out.println("every algorithm returns a solution");
+	}
+}
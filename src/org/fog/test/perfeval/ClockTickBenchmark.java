@@ -0,0 +1,114 @@
+package org.fog.test.perfeval;
+
+import java.util.Calendar;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.FutureQueue;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.SimEvent;
+
+/**
+ * Measures the cost of a simulation tick when only a few entities have something to do.
+ * <p>
+ * A ticker entity sends itself an event every time unit and wakes one idle entity at each tick,
+ * among 100 to 100 000 idle entities. The time per tick should stay flat as the number of
+ * entities grows, since only the woken entities are run.
+ * <p>
+ * Usage: ClockTickBenchmark [TREE_SET|HEAP|CALENDAR]
+ */
+public class ClockTickBenchmark {
+	static int[] numbersOfEntities = {100, 1000, 10000, 100000};
+	static int NUMBER_OF_TICKS = 20000;
+
+	static final int TICK = 1;
+	static final int WAKE_UP = 2;
+
+	public static void main(String[] args) {
+		FutureQueue.Implementation implementation = args.length > 0
+				? FutureQueue.Implementation.valueOf(args[0]) : FutureQueue.Implementation.TREE_SET;
+		Log.disable();
+
+		System.out.printf("%10s %12s %12s%n", "entities", "ms", "us/tick");
+		for (int numberOfEntities : numbersOfEntities) {
+			// a first run to warm up the JIT
+			run(numberOfEntities, implementation);
+			double ms = run(numberOfEntities, implementation) / 1e6;
+			System.out.printf("%10d %12.1f %12.3f%n", numberOfEntities, ms, ms * 1000 / NUMBER_OF_TICKS);
+		}
+	}
+
+	/**
+	 * @return the duration of the simulation in nanoseconds, without creating the entities
+	 */
+	private static long run(int numberOfEntities, FutureQueue.Implementation implementation) {
+		CloudSim.init(1, Calendar.getInstance(), false, implementation);
+		int firstId = -1;
+		for (int i = 0; i < numberOfEntities; i++) {
+			IdleEntity entity = new IdleEntity("idle-" + i);
+			if (firstId == -1) {
+				firstId = entity.getId();
+			}
+		}
+		new Ticker("ticker", firstId, numberOfEntities);
+		long start = System.nanoTime();
+		CloudSim.startSimulation();
+		return System.nanoTime() - start;
+	}
+
+	/**
+	 * Entity that only counts the events it receives.
+	 */
+	static class IdleEntity extends SimEntity {
+		int numberOfEvents = 0;
+
+		public IdleEntity(String name) {
+			super(name);
+		}
+
+		@Override
+		public void startEntity() {
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			numberOfEvents++;
+		}
+
+		@Override
+		public void shutdownEntity() {
+		}
+	}
+
+	/**
+	 * Entity that ticks every time unit and wakes the idle entities in turn.
+	 */
+	static class Ticker extends SimEntity {
+		int firstId;
+		int numberOfEntities;
+		int numberOfTicks = 0;
+
+		public Ticker(String name, int firstId, int numberOfEntities) {
+			super(name);
+			this.firstId = firstId;
+			this.numberOfEntities = numberOfEntities;
+		}
+
+		@Override
+		public void startEntity() {
+			schedule(getId(), 1, TICK);
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			if (ev.getTag() == TICK && ++numberOfTicks < NUMBER_OF_TICKS) {
+				schedule(firstId + numberOfTicks % numberOfEntities, 0.5, WAKE_UP);
+				schedule(getId(), 1, TICK);
+			}
+		}
+
+		@Override
+		public void shutdownEntity() {
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package org.fog.test.perfeval;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.fog.scheduling.MySchedulingAlgorithm;
+import org.fog.scheduling.myGAEntities.MyGeneticAlgorithm;
+import org.fog.scheduling.myGAEntities.MyIndividual;
+import org.fog.scheduling.myGAEntities.MyIndividualPool;
+import org.fog.scheduling.myGAEntities.MyPopulation;
+import org.fog.scheduling.myGAEntities.MyService;
+
+/**
+ * Compares the cost of copying the selected parents of one generation of
+ * {@link MyGeneticAlgorithm}: {@code OFFSPRING_SIZE} copies out of a population
+ * of {@code POPULATION_SIZE} individuals, which are dropped at the end of the
+ * generation.
+ * <p>
+ * Prints the time and the bytes allocated per generation for the serialization
+ * round trip of {@link MyService#deepCopy}, the copy constructor, and the copy
+ * constructor backed by a {@link MyIndividualPool}.
+ */
+public class CopyBenchmark {
+	public static int[] chromosomeLengths = {40, 200, 500};
+	public static int maxValue = 14;
+
+	private static final int WARMUP_GENERATIONS = 20;
+	private static final int MEASURE_GENERATIONS = 50;
+
+	private interface Copier {
+		void generation(MyPopulation population, List<MyIndividual> offsprings);
+	}
+
+	public static void main(String[] args) {
+		System.out.printf("%8s %22s %22s %22s%n", "genes", "deepCopy ms | KB", "arraycopy ms | KB", "pool ms | KB");
+		for (int chromosomeLength : chromosomeLengths) {
+			MyPopulation population = new MyPopulation(MySchedulingAlgorithm.POPULATION_SIZE, chromosomeLength, maxValue);
+			final int offspringSize = MySchedulingAlgorithm.OFFSPRING_SIZE;
+
+			Copier serialization = (parents, offsprings) -> {
+				for (int index = 0; index < offspringSize; index++) {
+					offsprings.add((MyIndividual) MyService.deepCopy(parents.getIndividual(index)));
+				}
+				offsprings.clear();
+			};
+			Copier arraycopy = (parents, offsprings) -> {
+				for (int index = 0; index < offspringSize; index++) {
+					offsprings.add(new MyIndividual(parents.getIndividual(index)));
+				}
+				offsprings.clear();
+			};
+			final MyIndividualPool pool = new MyIndividualPool();
+			Copier pooled = (parents, offsprings) -> {
+				for (int index = 0; index < offspringSize; index++) {
+					offsprings.add(pool.copyOf(parents.getIndividual(index)));
+				}
+				pool.releaseAll(offsprings);
+				offsprings.clear();
+			};
+
+			System.out.printf("%8d %22s %22s %22s%n", chromosomeLength,
+					measure(serialization, population), measure(arraycopy, population), measure(pooled, population));
+		}
+	}
+
+	private static String measure(Copier copier, MyPopulation population) {
+		List<MyIndividual> offsprings = new ArrayList<>(MySchedulingAlgorithm.OFFSPRING_SIZE);
+		for (int generation = 0; generation < WARMUP_GENERATIONS; generation++) {
+			copier.generation(population, offsprings);
+		}
+		long startBytes = allocatedBytes();
+		long start = System.nanoTime();
+		for (int generation = 0; generation < MEASURE_GENERATIONS; generation++) {
+			copier.generation(population, offsprings);
+		}
+		double ms = (System.nanoTime() - start) / 1e6 / MEASURE_GENERATIONS;
+		double kb = (allocatedBytes() - startBytes) / 1024.0 / MEASURE_GENERATIONS;
+		return String.format("%9.3f | %9.1f", ms, kb);
+	}
+
+	private static long allocatedBytes() {
+		return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+				.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+}
@@ -46,6 +46,7 @@ public class DCNSFog {
 	static List<Actuator> actuators = new ArrayList<Actuator>();
 	static int numOfAreas = 3;
 	static int numOfCamerasPerArea = 4;
+	static int numOfThreads = 1; // more than 1 simulates each area on its own in parallel
 	
 	private static boolean CLOUD = false;
 	
@@ -92,6 +93,9 @@ public class DCNSFog {
 					(CLOUD)?(new ModulePlacementMapping(fogDevices, application, moduleMapping))
 							:(new ModulePlacementEdgewards(fogDevices, sensors, actuators, application, moduleMapping)));
 			
+			if(numOfThreads > 1)
+				controller.enableParallelExecution(numOfThreads);
+			
 			TimeKeeper.getInstance().setSimulationStartTime(Calendar.getInstance().getTimeInMillis());
 			
 			CloudSim.startSimulation();
@@ -0,0 +1,88 @@
+package org.fog.test.perfeval;
+
+import java.util.Calendar;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.fog.entities.FogDevice;
+import org.fog.scheduling.FogSchedulingExample;
+import org.fog.scheduling.SchedulingAlgorithm;
+import org.fog.scheduling.SchedulingProblem;
+import org.fog.scheduling.gaEntities.Individual;
+import org.fog.scheduling.myGAEntities.MyIndividual;
+import org.fog.scheduling.myGAEntities.MyService;
+
+/**
+ * Measures the cost of one fitness evaluation for every data set from data40 to data500.
+ * <p>
+ * Both the {@link SchedulingProblem} path and the list based {@link MyService#calcFitness}
+ * path are timed. The "ns/task" columns should stay roughly flat when the evaluation
+ * is linear in the number of tasks.
+ */
+public class EvaluationBenchmark {
+	public static String fileName = "data_infrucstructure/fog15";
+	public static int[] numberCloudlets = {40, 50, 60, 70, 80, 100, 120, 150, 170, 200, 300, 350, 400, 450, 500};
+
+	private static final int NUMBER_INDIVIDUAL = 64;
+	private static final int WARMUP_ROUNDS = 200;
+	private static final int MEASURE_ROUNDS = 500;
+
+	public static void main(String[] args) {
+		Log.disable();
+		CloudSim.init(1, Calendar.getInstance(), false);
+		List<FogDevice> fogDevices = FogSchedulingExample.jsonToInfrucstruture(fileName);
+
+		System.out.printf("%8s %14s %14s %14s %14s%n", "tasks", "problem ns", "ns/task", "list ns", "ns/task");
+		for (int numberCloudlet : numberCloudlets) {
+			List<Cloudlet> cloudletList = FogSchedulingExample.createCloudlet("data/data" + numberCloudlet);
+			SchedulingProblem problem = new SchedulingProblem(fogDevices, cloudletList);
+
+			Individual[] individuals = new Individual[NUMBER_INDIVIDUAL];
+			MyIndividual[] myIndividuals = new MyIndividual[NUMBER_INDIVIDUAL];
+			for (int i = 0; i < NUMBER_INDIVIDUAL; i++) {
+				individuals[i] = new Individual(cloudletList.size(), fogDevices.size() - 1);
+				myIndividuals[i] = new MyIndividual(cloudletList.size(), fogDevices.size() - 1, true);
+			}
+
+			double problemNs = timeProblem(problem, individuals);
+			double listNs = timeList(problem, myIndividuals, fogDevices, cloudletList);
+			System.out.printf("%8d %14.1f %14.2f %14.1f %14.2f%n", numberCloudlet,
+					problemNs, problemNs / numberCloudlet, listNs, listNs / numberCloudlet);
+		}
+	}
+
+	private static double timeProblem(SchedulingProblem problem, Individual[] individuals) {
+		for (int round = 0; round < WARMUP_ROUNDS; round++) {
+			for (Individual individual : individuals) {
+				problem.calcFitness(individual, SchedulingAlgorithm.TIME_WEIGHT);
+			}
+		}
+		long start = System.nanoTime();
+		for (int round = 0; round < MEASURE_ROUNDS; round++) {
+			for (Individual individual : individuals) {
+				problem.calcFitness(individual, SchedulingAlgorithm.TIME_WEIGHT);
+			}
+		}
+		return (double) (System.nanoTime() - start) / (MEASURE_ROUNDS * individuals.length);
+	}
+
+	private static double timeList(SchedulingProblem problem, MyIndividual[] individuals,
+								   List<FogDevice> fogDevices, List<Cloudlet> cloudletList) {
+		// the list based path is much slower, a tenth of the rounds is enough
+		final int warmupRounds = WARMUP_ROUNDS / 10, measureRounds = MEASURE_ROUNDS / 10;
+		for (int round = 0; round < warmupRounds; round++) {
+			for (MyIndividual individual : individuals) {
+				MyService.calcFitness(individual, problem.getMinTime(), problem.getMinCost(), fogDevices, cloudletList);
+			}
+		}
+		long start = System.nanoTime();
+		for (int round = 0; round < measureRounds; round++) {
+			for (MyIndividual individual : individuals) {
+				MyService.calcFitness(individual, problem.getMinTime(), problem.getMinCost(), fogDevices, cloudletList);
+			}
+		}
+		return (double) (System.nanoTime() - start) / (measureRounds * individuals.length);
+	}
+}
@@ -0,0 +1,97 @@
+package org.fog.test.perfeval;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.fog.entities.FogDevice;
+import org.fog.scheduler.StreamOperatorScheduler;
+import org.fog.utils.Config;
+import org.fog.utils.SimulationRandom;
+
+/**
+ * Checks that the in place allocation of {@link StreamOperatorScheduler} gives the same results as
+ * deallocating the MIPS of all the operators and allocating them again in turn.
+ * <p>
+ * {@link DCNSFog} and {@link VRGameFog} are run with the same seed, once with each allocation
+ * (see {@link Config#IN_PLACE_MIPS_ALLOCATION}), each run in a new {@link SimulationContext}.
+ * Throws if the energy consumed or the cost of any device differs, and prints the totals of both
+ * runs otherwise.
+ * <p>
+ * Usage: MipsAllocationCheck [seed]
+ */
+public class MipsAllocationCheck {
+
+	public static void main(String[] args) {
+		long seed = args.length > 0 ? Long.parseLong(args[0]) : 42;
+		Log.disable();
+
+		System.out.printf("%10s %12s %22s %18s%n", "app", "allocation", "energy", "cloud cost");
+		check("DCNSFog", seed, () -> {
+			DCNSFog.fogDevices.clear();
+			DCNSFog.sensors.clear();
+			DCNSFog.actuators.clear();
+			DCNSFog.main(new String[0]);
+			return DCNSFog.fogDevices;
+		});
+		check("VRGameFog", seed, () -> {
+			VRGameFog.fogDevices.clear();
+			VRGameFog.sensors.clear();
+			VRGameFog.actuators.clear();
+			VRGameFog.main(new String[0]);
+			return VRGameFog.fogDevices;
+		});
+		System.out.println("energy and cost are identical");
+	}
+
+	private static void check(String app, long seed, Supplier<List<FogDevice>> simulation) {
+		Map<String, double[]> inPlace = run(app, seed, true, simulation);
+		Map<String, double[]> reallocated = run(app, seed, false, simulation);
+		if (!inPlace.keySet().equals(reallocated.keySet())) {
+			throw new IllegalStateException(app + " has devices " + inPlace.keySet() + " and " + reallocated.keySet());
+		}
+		for (String device : inPlace.keySet()) {
+			double[] expected = reallocated.get(device), actual = inPlace.get(device);
+			if (actual[0] != expected[0] || actual[1] != expected[1]) {
+				throw new IllegalStateException(app + ": " + device + " consumes " + actual[0] + " and costs "
+						+ actual[1] + " with the in place allocation instead of " + expected[0] + " and " + expected[1]);
+			}
+		}
+	}
+
+	/**
+	 * @return the energy consumed and the cost of each device, by name
+	 */
+	private static Map<String, double[]> run(String app, long seed, boolean inPlace,
+			Supplier<List<FogDevice>> simulation) {
+		Map<String, double[]> results = new LinkedHashMap<String, double[]>();
+		boolean inPlaceAllocation = Config.IN_PLACE_MIPS_ALLOCATION;
+		PrintStream out = System.out;
+		Config.IN_PLACE_MIPS_ALLOCATION = inPlace;
+		System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+		try {
+			new SimulationContext().run(() -> {
+				SimulationRandom.setSeed(seed);
+				for (FogDevice fogDevice : simulation.get()) {
+					results.put(fogDevice.getName(), new double[] {fogDevice.getEnergyConsumption(), fogDevice.getTotalCost()});
+				}
+			});
+		} finally {
+			System.setOut(out);
+			Config.IN_PLACE_MIPS_ALLOCATION = inPlaceAllocation;
+		}
+
+		double energy = 0;
+		for (double[] result : results.values()) {
+			energy += result[0];
+		}
+		System.out.printf("%10s %12s %22.6f %18.6f%n", app, inPlace ? "in place" : "reallocate", energy,
+				results.get("cloud")[1]);
+		return results;
+	}
+}
@@ -0,0 +1,83 @@
+package org.fog.test.perfeval;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.fog.utils.SimulationRandom;
+
+/**
+ * Measures the speed-up of the parallel execution of {@link DCNSFog} as the number of areas grows.
+ * <p>
+ * Each area is simulated by its own logical process, and every sweep point runs with 1 to 8
+ * threads in a new {@link SimulationContext}, with the same seed. The output of every parallel run
+ * is checked against the sequential one, without the execution time it prints. The speed-up is
+ * bounded by the number of available processors.
+ * <p>
+ * Usage: ParallelSpeedupBenchmark [seed]
+ */
+public class ParallelSpeedupBenchmark {
+	static int[] numbersOfAreas = {3, 12, 24};
+	static int[] numbersOfThreads = {1, 2, 4, 8};
+
+	public static void main(String[] args) {
+		long seed = args.length > 0 ? Long.parseLong(args[0]) : 42;
+		Log.disable();
+
+		System.out.println("available processors: " + Runtime.getRuntime().availableProcessors());
+		System.out.printf("%8s %8s %12s %10s%n", "areas", "threads", "ms", "speed-up");
+		for (int numberOfAreas : numbersOfAreas) {
+			// a first run to warm up the JIT
+			run(numberOfAreas, 1, seed, new StringBuilder());
+			StringBuilder sequentialOutput = new StringBuilder();
+			double sequentialMs = run(numberOfAreas, 1, seed, sequentialOutput) / 1e6;
+			System.out.printf("%8d %8d %12.1f %10.2f%n", numberOfAreas, 1, sequentialMs, 1.0);
+			for (int numberOfThreads : numbersOfThreads) {
+				if (numberOfThreads == 1) {
+					continue;
+				}
+				StringBuilder output = new StringBuilder();
+				double ms = run(numberOfAreas, numberOfThreads, seed, output) / 1e6;
+				if (!output.toString().equals(sequentialOutput.toString())) {
+					throw new IllegalStateException(numberOfAreas + " areas on " + numberOfThreads
+							+ " threads give another output than the sequential run:\n" + output);
+				}
+				System.out.printf("%8d %8d %12.1f %10.2f%n", numberOfAreas, numberOfThreads, ms, sequentialMs / ms);
+			}
+		}
+	}
+
+	/**
+	 * @param output receives the output of the simulation, without the execution time
+	 * @return the duration of the simulation in nanoseconds
+	 */
+	private static long run(int numberOfAreas, int numberOfThreads, long seed, StringBuilder output) {
+		DCNSFog.fogDevices.clear();
+		DCNSFog.sensors.clear();
+		DCNSFog.actuators.clear();
+		DCNSFog.numOfAreas = numberOfAreas;
+		DCNSFog.numOfThreads = numberOfThreads;
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		PrintStream out = System.out;
+		long[] duration = new long[1];
+		System.setOut(new PrintStream(bytes));
+		try {
+			new SimulationContext().run(() -> {
+				SimulationRandom.setSeed(seed);
+				long start = System.nanoTime();
+				DCNSFog.main(new String[0]);
+				duration[0] = System.nanoTime() - start;
+			});
+		} finally {
+			System.setOut(out);
+		}
+		for (String line : bytes.toString().split("\n")) {
+			if (!line.startsWith("EXECUTION TIME")) {
+				output.append(line).append('\n');
+			}
+		}
+		return duration[0];
+	}
+}
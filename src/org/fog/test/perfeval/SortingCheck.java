@@ -0,0 +1,120 @@
+package org.fog.test.perfeval;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.fog.scheduling.gaEntities.Individual;
+import org.fog.scheduling.nsgaii.NSGAIIPopulation;
+
+/**
+ * Checks that {@link NSGAIIPopulation#biObjectiveSorting()} builds the same fronts as
+ * {@link NSGAIIPopulation#fastNonDominatedSorting()}: the same number of fronts, and the
+ * same individuals in the same order in every front.
+ * <p>
+ * Populations have either random objectives or objectives drawn from a few integer values,
+ * which gives many ties and duplicated individuals. Throws on the first difference and
+ * prints the time of both sortings otherwise.
+ */
+public class SortingCheck {
+	public static int[] populationSizes = {1, 2, 5, 20, 100, 400, 2000};
+	public static int[] tieValues = {1, 2, 3, 5, 10};
+
+	private static final int ROUNDS = 20;
+	private static final long SEED = 42;
+
+	/**
+	 * gives access to both sortings of the population
+	 */
+	private static class CheckedPopulation extends NSGAIIPopulation {
+		CheckedPopulation(int populationSize) {
+			super(populationSize, 1, 1);
+		}
+
+		List<List<Individual>> sortNaive() {
+			fastNonDominatedSorting();
+			return getFronts();
+		}
+
+		List<List<Individual>> sortBiObjective() {
+			biObjectiveSorting();
+			return getFronts();
+		}
+	}
+
+	public static void main(String[] args) {
+		Random random = new Random(SEED);
+		System.out.printf("%8s %10s %14s %14s%n", "size", "objectives", "naive ms", "bi ms");
+		for (int populationSize : populationSizes) {
+			CheckedPopulation population = new CheckedPopulation(populationSize);
+			long[] randomNs = check(population, random, 0);
+			System.out.printf("%8d %10s %14.3f %14.3f%n", populationSize, "random",
+					randomNs[0] / 1e6 / ROUNDS, randomNs[1] / 1e6 / ROUNDS);
+			for (int values : tieValues) {
+				long[] tiesNs = check(population, random, values);
+				System.out.printf("%8d %10s %14.3f %14.3f%n", populationSize, values + " ties",
+						tiesNs[0] / 1e6 / ROUNDS, tiesNs[1] / 1e6 / ROUNDS);
+			}
+		}
+		System.out.println("fronts are identical");
+	}
+
+	/**
+	 * @param values number of values of each objective, or 0 for random objectives
+	 * @return the time spent in both sortings
+	 */
+	private static long[] check(CheckedPopulation population, Random random, int values) {
+		long[] ns = new long[2];
+		for (int round = 0; round < ROUNDS; round++) {
+			for (Individual individual : population.getPopulation()) {
+				individual.setTime(values == 0 ? random.nextDouble() : random.nextInt(values));
+				individual.setCost(values == 0 ? random.nextDouble() : random.nextInt(values));
+			}
+
+			long start = System.nanoTime();
+			List<List<Individual>> fronts = population.sortNaive();
+			ns[0] += System.nanoTime() - start;
+			List<List<Individual>> expected = new ArrayList<>();
+			for (List<Individual> front : fronts) {
+				expected.add(new ArrayList<>(front));
+			}
+
+			start = System.nanoTime();
+			fronts = population.sortBiObjective();
+			ns[1] += System.nanoTime() - start;
+			compare(expected, fronts, population.getPopulation());
+		}
+		return ns;
+	}
+
+	private static void compare(List<List<Individual>> expected, List<List<Individual>> actual,
+								List<Individual> population) {
+		if (expected.size() != actual.size()) {
+			throw new IllegalStateException("expected " + expected.size() + " fronts but got " + actual.size());
+		}
+		for (int front = 0; front < expected.size(); front++) {
+			List<Individual> expectedFront = expected.get(front), actualFront = actual.get(front);
+			if (expectedFront.size() != actualFront.size()) {
+				throw new IllegalStateException("front " + front + " has " + actualFront.size()
+						+ " individuals instead of " + expectedFront.size());
+			}
+			for (int position = 0; position < expectedFront.size(); position++) {
+				if (expectedFront.get(position) != actualFront.get(position)) {
+					throw new IllegalStateException("front " + front + " differs at " + position + ": expected "
+							+ indexes(expectedFront, population) + " but got " + indexes(actualFront, population));
+				}
+			}
+		}
+	}
+
+	/**
+	 * indexes in the population of the individuals of a front
+	 */
+	private static List<Integer> indexes(List<Individual> front, List<Individual> population) {
+		List<Integer> indexes = new ArrayList<>(front.size());
+		for (Individual individual : front) {
+			indexes.add(population.indexOf(individual));
+		}
+		return indexes;
+	}
+}
@@ -0,0 +1,223 @@
+package org.fog.test.perfeval;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.fog.entities.Actuator;
+import org.fog.entities.FogDevice;
+import org.fog.entities.Sensor;
+import org.fog.entities.Tuple;
+import org.fog.utils.Logger;
+import org.fog.utils.SimulationRandom;
+
+/**
+ * Measures what guarding the debug messages of the tuple hot paths saves when logging is
+ * disabled, against building the messages and letting {@link Logger#debug(String, String)}
+ * discard them.
+ * <p>
+ * Each message of the hot paths is built by both statements for tuples of the Intelligent
+ * Surveillance case study of {@link DCNSFog}, between its entities, with logging disabled. The
+ * number of messages of each kind comes from a run of the case study with logging enabled. The
+ * time both statements take in a run is then compared with a run with logging disabled.
+ * <p>
+ * The times are the best of several rounds, less the time of the same loop without message.
+ * <p>
+ * Usage: TupleArrivalBenchmark [number of areas]
+ */
+public class TupleArrivalBenchmark {
+	static int NUMBER_OF_ROUNDS = 200;
+	static int NUMBER_OF_TUPLES = 4096;
+
+	static String[] tupleTypes = {"CAMERA", "MOTION_VIDEO_STREAM", "DETECTED_OBJECT", "OBJECT_LOCATION", "PTZ_PARAMS"};
+	static String[] moduleNames = {"motion_detector", "object_detector", "user_interface", "object_tracker", "PTZ_CONTROL"};
+
+	/**
+	 * A debug message of a hot path, built for a tuple sent between two entities.
+	 */
+	private interface Message {
+		void log(String name, Tuple tuple, int source, int destination);
+	}
+
+	/**
+	 * A debug message as built by {@link Sensor}, {@link FogDevice} and {@link Actuator}, guarded
+	 * or not.
+	 */
+	private static class Site {
+		final String description;
+		final Message guarded;
+		final Message unguarded;
+		long messagesPerRun;
+
+		Site(String description, Message guarded, Message unguarded) {
+			this.description = description;
+			this.guarded = guarded;
+			this.unguarded = unguarded;
+		}
+	}
+
+	static Site[] sites = {
+		new Site("sensor sends", (name, tuple, source, destination) -> {
+			if (Logger.isDebugEnabled())
+				Logger.debug(name, "Sending tuple with tupleId = " + tuple.getCloudletId());
+		}, (name, tuple, source, destination) -> {
+			Logger.debug(name, "Sending tuple with tupleId = " + tuple.getCloudletId());
+		}),
+		new Site("device receives", (name, tuple, source, destination) -> {
+			if (Logger.isDebugEnabled())
+				Logger.debug(name, "Received tuple " + tuple.getCloudletId() + "with tupleType = " + tuple.getTupleType()
+						+ "\t| Source : " + CloudSim.getEntityName(source) + "|Dest : " + CloudSim.getEntityName(destination));
+		}, (name, tuple, source, destination) -> {
+			Logger.debug(name, "Received tuple " + tuple.getCloudletId() + "with tupleType = " + tuple.getTupleType()
+					+ "\t| Source : " + CloudSim.getEntityName(source) + "|Dest : " + CloudSim.getEntityName(destination));
+		}),
+		new Site("device executes", (name, tuple, source, destination) -> {
+			if (Logger.isDebugEnabled())
+				Logger.debug(name, "Executing tuple on module " + tuple.getDestModuleName());
+		}, (name, tuple, source, destination) -> {
+			Logger.debug(name, "Executing tuple on module " + tuple.getDestModuleName());
+		}),
+		new Site("device completes", (name, tuple, source, destination) -> {
+			if (Logger.isDebugEnabled())
+				Logger.debug(name, "Completed execution of tuple " + tuple.getCloudletId() + "on " + tuple.getDestModuleName());
+		}, (name, tuple, source, destination) -> {
+			Logger.debug(name, "Completed execution of tuple " + tuple.getCloudletId() + "on " + tuple.getDestModuleName());
+		}),
+		new Site("actuator receives", (name, tuple, source, destination) -> {
+			if (Logger.isDebugEnabled())
+				Logger.debug(name, "Received tuple " + tuple.getCloudletId() + "on " + tuple.getDestModuleName());
+		}, (name, tuple, source, destination) -> {
+			Logger.debug(name, "Received tuple " + tuple.getCloudletId() + "on " + tuple.getDestModuleName());
+		}),
+	};
+
+	public static void main(String[] args) throws Exception {
+		if (args.length > 0) {
+			DCNSFog.numOfAreas = Integer.parseInt(args[0]);
+		}
+		Logger.setLogLevel(Logger.DEBUG);
+		PrintStream out = System.out;
+		try {
+			countMessages();
+			out.printf("%18s %14s %14s %14s%n", "message", "per run", "guarded ns", "unguarded ns");
+			double[] msPerRun = new double[2];
+			System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+			// a first run to warm up the JIT
+			simulate();
+			long start = System.nanoTime();
+			simulate();
+			double simulationMs = (System.nanoTime() - start) / 1e6;
+			new SimulationContext().run(() -> {
+				simulate();
+				List<Tuple> tuples = new ArrayList<Tuple>();
+				List<Integer> entityIds = new ArrayList<Integer>();
+				List<String> names = new ArrayList<String>();
+				sample(tuples, entityIds, names);
+				Tuple[] tupleArray = tuples.toArray(new Tuple[0]);
+				int[] idArray = entityIds.stream().mapToInt(Integer::intValue).toArray();
+				String[] nameArray = names.toArray(new String[0]);
+				Message none = (name, tuple, source, destination) -> {
+				};
+				// every message goes through the same call site, which the JIT sees with all of them
+				for (Site site : sites) {
+					measure(site.guarded, tupleArray, idArray, nameArray);
+					measure(site.unguarded, tupleArray, idArray, nameArray);
+				}
+				double loopNs = measure(none, tupleArray, idArray, nameArray);
+				for (Site site : sites) {
+					double guardedNs = Math.max(0, measure(site.guarded, tupleArray, idArray, nameArray) - loopNs);
+					double unguardedNs = Math.max(0, measure(site.unguarded, tupleArray, idArray, nameArray) - loopNs);
+					msPerRun[0] += guardedNs * site.messagesPerRun / 1e6;
+					msPerRun[1] += unguardedNs * site.messagesPerRun / 1e6;
+					out.printf("%18s %14d %14.1f %14.1f%n", site.description, site.messagesPerRun, guardedNs, unguardedNs);
+				}
+			});
+			out.printf("run with logging disabled: %.1f ms, of which the messages take %.2f ms guarded"
+					+ " and would take %.2f ms unguarded (%.1f%% of the run)%n", simulationMs, msPerRun[0],
+					msPerRun[1], msPerRun[1] * 100 / simulationMs);
+		} finally {
+			System.setOut(out);
+			Logger.ENABLED = false;
+		}
+	}
+
+	/**
+	 * Counts the debug messages of each site in a run with logging enabled.
+	 */
+	private static void countMessages() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(bytes));
+		Logger.ENABLED = true;
+		try {
+			new SimulationContext().run(TupleArrivalBenchmark::simulate);
+		} finally {
+			Logger.ENABLED = false;
+		}
+		for (String line : bytes.toString().split("\n")) {
+			if (line.contains(" : Sending tuple with tupleId = ")) {
+				sites[0].messagesPerRun++;
+			} else if (line.contains(" : Received tuple ")) {
+				sites[line.contains("with tupleType = ") ? 1 : 4].messagesPerRun++;
+			} else if (line.contains(" : Executing tuple on module ")) {
+				sites[2].messagesPerRun++;
+			} else if (line.contains(" : Completed execution of tuple ")) {
+				sites[3].messagesPerRun++;
+			}
+		}
+	}
+
+	private static void simulate() {
+		DCNSFog.fogDevices.clear();
+		DCNSFog.sensors.clear();
+		DCNSFog.actuators.clear();
+		SimulationRandom.setSeed(42);
+		DCNSFog.main(new String[0]);
+	}
+
+	/**
+	 * Samples tuples of the case study and the entities of the simulation which has just run.
+	 */
+	private static void sample(List<Tuple> tuples, List<Integer> entityIds, List<String> names) {
+		for (FogDevice fogDevice : DCNSFog.fogDevices) {
+			entityIds.add(fogDevice.getId());
+			names.add(fogDevice.getName());
+		}
+		for (Sensor sensor : DCNSFog.sensors) {
+			entityIds.add(sensor.getId());
+			names.add(sensor.getName());
+		}
+		for (Actuator actuator : DCNSFog.actuators) {
+			entityIds.add(actuator.getId());
+			names.add(actuator.getName());
+		}
+		UtilizationModelFull full = new UtilizationModelFull();
+		for (int i = 0; i < NUMBER_OF_TUPLES; i++) {
+			Tuple tuple = new Tuple("dcns", 100000 + 37 * i, Tuple.UP, 1000, 1, 20000, 100, full, full, full);
+			tuple.setTupleType(tupleTypes[i % tupleTypes.length]);
+			tuple.setDestModuleName(moduleNames[i % moduleNames.length]);
+			tuples.add(tuple);
+		}
+	}
+
+	/**
+	 * @return the best time of a round divided by its number of messages, in nanoseconds
+	 */
+	private static double measure(Message message, Tuple[] tuples, int[] entityIds, String[] names) {
+		long best = Long.MAX_VALUE;
+		for (int round = 0; round < NUMBER_OF_ROUNDS; round++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < tuples.length; i++) {
+				int source = i % entityIds.length;
+				int destination = (i + round + 1) % entityIds.length;
+				message.log(names[destination], tuples[i], entityIds[source], entityIds[destination]);
+			}
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		return (double) best / tuples.length;
+	}
+}
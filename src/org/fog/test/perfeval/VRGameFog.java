@@ -49,6 +49,7 @@ public class VRGameFog {
 	
 	static int numOfDepts = 4;
 	static int numOfMobilesPerDept = 6;
+	static int numOfThreads = 1; // more than 1 simulates each department on its own in parallel
 	static double EEG_TRANSMISSION_TIME = 5.1;
 	//static double EEG_TRANSMISSION_TIME = 10;
 	
@@ -102,6 +103,9 @@ public class VRGameFog {
 					(CLOUD)?(new ModulePlacementMapping(fogDevices, application, moduleMapping))
 							:(new ModulePlacementEdgewards(fogDevices, sensors, actuators, application, moduleMapping)));
 
+			if(numOfThreads > 1)
+				controller.enableParallelExecution(numOfThreads);
+			
 			TimeKeeper.getInstance().setSimulationStartTime(Calendar.getInstance().getTimeInMillis());
 
 			CloudSim.startSimulation();
@@ -13,4 +13,10 @@ public class Config {
 	public static double FOG_DEVICE_COST_PER_MEMORY = 0.05;
 	public static double FOG_DEVICE_COST_PER_STORAGE = 0.001;
 	public static double FOG_DEVICE_COST_PER_BW = 0.0;
+	/** the largest number of queued tuples a fog device sends at once on a free link; 1 sends them one by one */
+	public static int LINK_BATCH_SIZE = 1;
+	/** the largest total network length of the tuples sent at once on a link, unless the first one exceeds it */
+	public static long LINK_BATCH_NW_LENGTH = Long.MAX_VALUE;
+	/** whether the fog devices with a StreamOperatorScheduler allocate again only the operators whose activity changed; false deallocates and allocates all of them */
+	public static boolean IN_PLACE_MIPS_ALLOCATION = true;
 }
@@ -3,13 +3,29 @@ package org.fog.utils;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.cloudbus.cloudsim.core.SimulationContext;
+
 public class FogUtils {
-	private static int TUPLE_ID = 1;
-	private static int ENTITY_ID = 1;
-	private static int ACTUAL_TUPLE_ID = 1;
+	
+	/**
+	 * The id counters of a simulation context, so that concurrent simulations number their
+	 * tuples and entities independently.
+	 */
+	private static class Counters {
+		int tupleId = 1;
+		int entityId = 1;
+		int actualTupleId = 1;
+	}
+	
+	private static Counters getCounters(){
+		return SimulationContext.current().getComponent(Counters.class, Counters::new);
+	}
 	
 	public static int generateTupleId(){
-		return TUPLE_ID++;
+		Counters counters = getCounters();
+		synchronized(counters){
+			return counters.tupleId++;
+		}
 	}
 	
 	public static String getSensorTypeFromSensorName(String sensorName){
@@ -17,11 +33,17 @@ public class FogUtils {
 	}
 	
 	public static int generateEntityId(){
-		return ENTITY_ID++;
+		Counters counters = getCounters();
+		synchronized(counters){
+			return counters.entityId++;
+		}
 	}
 	
 	public static int generateActualTupleId(){
-		return ACTUAL_TUPLE_ID++;
+		Counters counters = getCounters();
+		synchronized(counters){
+			return counters.actualTupleId++;
+		}
 	}
 	
 	public static int USER_ID = 1;
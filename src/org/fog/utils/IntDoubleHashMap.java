@@ -0,0 +1,130 @@
+package org.fog.utils;
+
+import java.util.Arrays;
+
+/**
+ * Map from int keys to double values, with open addressing and linear probing over primitive
+ * arrays, so that an entry costs 12 bytes instead of a node and two boxed objects.
+ * <p>
+ * {@link Integer#MIN_VALUE} cannot be a key. A missing key has the value {@link Double#NaN}.
+ */
+public class IntDoubleHashMap {
+
+	private static final int FREE = Integer.MIN_VALUE;
+
+	private int[] keys;
+	private double[] values;
+	private int size;
+
+	public IntDoubleHashMap(){
+		this(16);
+	}
+
+	/**
+	 * @param expectedSize the number of entries the map holds without growing
+	 */
+	public IntDoubleHashMap(int expectedSize){
+		int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+		keys = new int[capacity];
+		Arrays.fill(keys, FREE);
+		values = new double[capacity];
+	}
+
+	public int size(){
+		return size;
+	}
+
+	public boolean isEmpty(){
+		return size == 0;
+	}
+
+	public boolean containsKey(int key){
+		return keys[slot(key)] == key;
+	}
+
+	/**
+	 * @return the value of the key, or {@link Double#NaN} if the map does not contain it
+	 */
+	public double get(int key){
+		int slot = slot(key);
+		return keys[slot] == key ? values[slot] : Double.NaN;
+	}
+
+	public void put(int key, double value){
+		if(key == FREE)
+			throw new IllegalArgumentException("The key should not be Integer.MIN_VALUE");
+		int slot = slot(key);
+		if(keys[slot] != key){
+			if((size + 1) * 2 > keys.length){
+				grow();
+				slot = slot(key);
+			}
+			keys[slot] = key;
+			size++;
+		}
+		values[slot] = value;
+	}
+
+	/**
+	 * @return the value the key had, or {@link Double#NaN} if the map did not contain it
+	 */
+	public double remove(int key){
+		int slot = slot(key);
+		if(keys[slot] != key)
+			return Double.NaN;
+		double value = values[slot];
+		size--;
+		// shift back the entries of the probe sequence, so that a lookup never stops at the hole
+		int mask = keys.length - 1;
+		int hole = slot;
+		for(int next = (hole + 1) & mask; keys[next] != FREE; next = (next + 1) & mask){
+			int home = hash(keys[next]) & mask;
+			if(((next - home) & mask) >= ((next - hole) & mask)){
+				keys[hole] = keys[next];
+				values[hole] = values[next];
+				hole = next;
+			}
+		}
+		keys[hole] = FREE;
+		return value;
+	}
+
+	public void clear(){
+		Arrays.fill(keys, FREE);
+		size = 0;
+	}
+
+	/**
+	 * @return the slot holding the key, or the free slot where it would be put
+	 */
+	private int slot(int key){
+		int mask = keys.length - 1;
+		int slot = hash(key) & mask;
+		while(keys[slot] != key && keys[slot] != FREE)
+			slot = (slot + 1) & mask;
+		return slot;
+	}
+
+	private void grow(){
+		int[] oldKeys = keys;
+		double[] oldValues = values;
+		keys = new int[oldKeys.length * 2];
+		Arrays.fill(keys, FREE);
+		values = new double[oldKeys.length * 2];
+		for(int i = 0; i < oldKeys.length; i++){
+			if(oldKeys[i] != FREE){
+				int slot = slot(oldKeys[i]);
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	/**
+	 * Spreads the consecutive ids, which would otherwise fill runs of consecutive slots.
+	 */
+	private static int hash(int key){
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
@@ -0,0 +1,114 @@
+package org.fog.utils;
+
+import java.util.Arrays;
+
+/**
+ * Streaming histogram of delays, whose percentiles are known to two significant digits in
+ * constant memory, whatever the number of recorded delays.
+ * <p>
+ * The buckets are log-linear like those of an HDR histogram: each power of two between
+ * 2<sup>-20</sup> and 2<sup>44</sup> is split into 64 buckets of the same width, so a bucket is
+ * at most 1.6% wide relative to its values. Smaller delays fall into a bucket of their own, and
+ * larger ones into the last bucket. The count, the mean, the minimum and the maximum are exact.
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 6;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int MIN_EXPONENT = -20;
+	private static final int MAX_EXPONENT = 43;
+	/** bucket 0 holds the delays below 2^MIN_EXPONENT */
+	private static final int NUMBER_OF_BUCKETS = 1 + (MAX_EXPONENT - MIN_EXPONENT + 1) * SUB_BUCKETS;
+
+	private final long[] counts = new long[NUMBER_OF_BUCKETS];
+	private long count;
+	private double mean;
+	private double min = Double.POSITIVE_INFINITY;
+	private double max = Double.NEGATIVE_INFINITY;
+
+	public void record(double delay){
+		counts[index(delay)]++;
+		mean = (mean*count + delay)/(count+1);
+		count++;
+		if(delay < min)
+			min = delay;
+		if(delay > max)
+			max = delay;
+	}
+
+	public long getCount(){
+		return count;
+	}
+
+	/**
+	 * @return the mean delay, or 0 if no delay was recorded
+	 */
+	public double getMean(){
+		return mean;
+	}
+
+	/**
+	 * @return the smallest delay, or {@link Double#NaN} if no delay was recorded
+	 */
+	public double getMin(){
+		return count == 0 ? Double.NaN : min;
+	}
+
+	/**
+	 * @return the largest delay, or {@link Double#NaN} if no delay was recorded
+	 */
+	public double getMax(){
+		return count == 0 ? Double.NaN : max;
+	}
+
+	/**
+	 * @param percentile between 0 and 100
+	 * @return the delay which the given percentage of the recorded delays do not exceed, within
+	 *         the width of a bucket, or {@link Double#NaN} if no delay was recorded
+	 */
+	public double getValueAtPercentile(double percentile){
+		if(percentile < 0 || percentile > 100)
+			throw new IllegalArgumentException("The percentile should be between 0 and 100, but is:" + percentile);
+		if(count == 0)
+			return Double.NaN;
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+		if(rank == count)
+			return max;
+		long seen = 0;
+		for(int i = 0; i < counts.length; i++){
+			seen += counts[i];
+			if(seen >= rank)
+				return Math.min(max, Math.max(min, middle(i)));
+		}
+		return max;
+	}
+
+	public void clear(){
+		Arrays.fill(counts, 0);
+		count = 0;
+		mean = 0;
+		min = Double.POSITIVE_INFINITY;
+		max = Double.NEGATIVE_INFINITY;
+	}
+
+	private static int index(double delay){
+		int exponent = Math.getExponent(delay);
+		if(!(delay > 0) || exponent < MIN_EXPONENT)
+			return 0;
+		if(exponent > MAX_EXPONENT)
+			return NUMBER_OF_BUCKETS - 1;
+		int subBucket = (int) (Double.doubleToRawLongBits(delay) >>> (52 - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return 1 + (exponent - MIN_EXPONENT) * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * @return the middle of a bucket
+	 */
+	private static double middle(int index){
+		if(index == 0)
+			return 0;
+		int exponent = (index - 1) / SUB_BUCKETS + MIN_EXPONENT;
+		int subBucket = (index - 1) % SUB_BUCKETS;
+		return Math.scalb(1 + (subBucket + 0.5) / SUB_BUCKETS, exponent);
+	}
+}
@@ -1,9 +1,18 @@
 package org.fog.utils;
 
 import java.text.DecimalFormat;
+import java.util.function.Supplier;
 
 import org.cloudbus.cloudsim.core.CloudSim;
 
+/**
+ * Debug and error messages of the fog entities, prefixed with the simulation clock and the name
+ * of the entity. Logging is disabled by default.
+ * <p>
+ * Building a message costs more than printing nothing, so code on the hot paths of the simulation
+ * checks {@link #isDebugEnabled()} before building it, and other code may pass a
+ * {@link Supplier} which is only called when the message is printed.
+ */
 public class Logger {
 	
 	public static final int ERROR = 1;
@@ -18,17 +27,48 @@ public class Logger {
 		Logger.LOG_LEVEL = level;
 	}
 	
+	/**
+	 * @return true if debug messages are printed
+	 */
+	public static boolean isDebugEnabled(){
+		return ENABLED && Logger.LOG_LEVEL <= Logger.DEBUG;
+	}
+	
+	/**
+	 * @return true if error messages are printed
+	 */
+	public static boolean isErrorEnabled(){
+		return ENABLED && Logger.LOG_LEVEL <= Logger.ERROR;
+	}
+	
 	public static void debug(String name, String message){
-		if(!ENABLED)
-			return;
-		if(Logger.LOG_LEVEL <= Logger.DEBUG)
-			System.out.println(df.format(CloudSim.clock())+" : "+name+" : "+message);
+		if(isDebugEnabled())
+			print(name, message);
+	}
+	
+	/**
+	 * @param message builds the message, only if debug messages are printed
+	 */
+	public static void debug(String name, Supplier<String> message){
+		if(isDebugEnabled())
+			print(name, message.get());
 	}
+	
 	public static void error(String name, String message){
-		if(!ENABLED)
-			return;
-		if(Logger.LOG_LEVEL <= Logger.ERROR)
-			System.out.println(df.format(CloudSim.clock())+" : "+name+" : "+message);
+		if(isErrorEnabled())
+			print(name, message);
+	}
+	
+	/**
+	 * @param message builds the message, only if error messages are printed
+	 */
+	public static void error(String name, Supplier<String> message){
+		if(isErrorEnabled())
+			print(name, message.get());
+	}
+	
+	private static void print(String name, String message){
+		System.out.println(df.format(CloudSim.clock())+" : "+name+" : "+message);
 	}
 	
 }
@@ -1,14 +1,31 @@
 package org.fog.utils;
 
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimulationContext;
+
 public class NetworkUsageMonitor {
 
-	private static double networkUsage = 0.0;
+	private double networkUsage = 0.0;
+	
+	private NetworkUsageMonitor(){
+	}
+	
+	/**
+	 * Gets the monitor of the simulation run by the calling thread.
+	 * @return the monitor of the current simulation context
+	 */
+	private static NetworkUsageMonitor getInstance(){
+		return SimulationContext.current().getComponent(NetworkUsageMonitor.class, NetworkUsageMonitor::new);
+	}
 	
 	public static void sendingTuple(double latency, double tupleNwSize){
-		networkUsage += latency*tupleNwSize;
+		// Shared by all the devices, added in the order of a sequential run in a parallel one
+		final NetworkUsageMonitor monitor = getInstance();
+		final double usage = latency*tupleNwSize;
+		CloudSim.runInOrder(() -> monitor.networkUsage += usage);
 	}
 	
 	public static double getNetworkUsage(){
-		return networkUsage;
+		return getInstance().networkUsage;
 	}
 }
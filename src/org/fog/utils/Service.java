@@ -8,9 +8,27 @@ import java.util.Random;
 public class Service {
 
     /**
-     * rd object
+     * random generator of each thread
      */
-    private static final Random rd = new Random();
+    private static final ThreadLocal<Random> rd = ThreadLocal.withInitial(Random::new);
+
+    /**
+     * get the random generator of the calling thread, the scheduling algorithms draw from it so
+     * that a run seeded with {@link #setSeed(long)} can be reproduced
+     * @return the random generator of the thread
+     */
+    public static Random random() {
+        return rd.get();
+    }
+
+    /**
+     * seed the random generator of the calling thread
+     * @param seed the seed
+     */
+    public static void setSeed(long seed) {
+        rd.get().setSeed(seed);
+    }
+
     /**
      * generate a random number from min (including) to max (including)
      * @param min lower bound
@@ -20,7 +38,7 @@ public class Service {
 	public static int rand(int min, int max) {
         try {
             int range = max - min + 1;
-            return min + rd.nextInt(range);
+            return min + rd.get().nextInt(range);
         } catch (Exception e) {
             e.printStackTrace();
             return -1;
@@ -45,7 +63,7 @@ public class Service {
     }
 
     public static double binaryParameter(double idxDist){
-        double u = rd.nextDouble();
+        double u = rd.get().nextDouble();
         if (u<=(double)1/2){
             return Math.pow(2*u,(double)1/(idxDist+1));
         } else {
@@ -69,7 +87,7 @@ public class Service {
 
         do{
             k++;
-            p*=Math.random();
+            p*=rd.get().nextDouble();
         } while (p>L);
         return k-1;
     }
@@ -0,0 +1,66 @@
+package org.fog.utils;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.cloudbus.cloudsim.core.SimulationContext;
+
+/**
+ * The random generators of the entities of a simulation, kept in its {@link SimulationContext}.
+ * <p>
+ * Each entity draws from its own generator, seeded from the seed of the simulation and the id of
+ * the entity. An entity handles its events in the same order whether the simulation runs
+ * sequentially or in parallel, so it draws the same numbers in both cases.
+ */
+public class SimulationRandom {
+
+	private final Map<Integer, Random> randomOfEntity = new ConcurrentHashMap<Integer, Random>();
+	private long seed = new Random().nextLong();
+
+	private SimulationRandom(){
+	}
+
+	/**
+	 * Gets the generators of the simulation run by the calling thread.
+	 * @return the generators of the current simulation context
+	 */
+	private static SimulationRandom getInstance(){
+		return SimulationContext.current().getComponent(SimulationRandom.class, SimulationRandom::new);
+	}
+
+	/**
+	 * Seeds the generators of the entities of the current simulation, which are random otherwise.
+	 * To be called before the simulation starts.
+	 * @param seed the seed of the simulation
+	 */
+	public static void setSeed(long seed){
+		SimulationRandom instance = getInstance();
+		instance.seed = seed;
+		instance.randomOfEntity.clear();
+	}
+
+	/**
+	 * Gets the generator of an entity, to be used by the logical process of the entity only.
+	 * @param entityId the id of the entity
+	 * @return the generator of the entity
+	 */
+	public static Random forEntity(int entityId){
+		SimulationRandom instance = getInstance();
+		Random random = instance.randomOfEntity.get(entityId);
+		if(random == null){
+			random = new Random(mix(instance.seed + entityId * 0x9E3779B97F4A7C15L));
+			instance.randomOfEntity.put(entityId, random);
+		}
+		return random;
+	}
+
+	/**
+	 * Spreads the bits of the seeds of neighbouring entities, whose first numbers would be close otherwise.
+	 */
+	private static long mix(long z){
+		z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+		z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		return z ^ (z >>> 33);
+	}
+}
@@ -1,70 +1,138 @@
 package org.fog.utils;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimulationContext;
 import org.fog.entities.Tuple;
 
+/**
+ * The delays of the application loops and the CPU times of the tuples of a simulation.
+ * <p>
+ * Only the tuples in flight are remembered, by id in primitive maps, and the delays go to
+ * streaming histograms, so the memory stays constant however long the simulation runs.
+ */
 public class TimeKeeper {
 
-	private static TimeKeeper instance;
-	
 	private long simulationStartTime;
 	private int count; 
-	private Map<Integer, Double> emitTimes;
-	private Map<Integer, Double> endTimes;
-	private Map<Integer, List<Integer>> loopIdToTupleIds;
-	private Map<Integer, Double> tupleIdToCpuStartTime;
-	private Map<String, Double> tupleTypeToAverageCpuTime;
-	private Map<String, Integer> tupleTypeToExecutedTupleCount;
-	
-	private Map<Integer, Double> loopIdToCurrentAverage;
-	private Map<Integer, Integer> loopIdToCurrentNum;
+	private IntDoubleHashMap emitTimes;
+	private Map<Integer, IntDoubleHashMap> deviceIdToCpuStartTimes;
+	private Map<Integer, LatencyHistogram> loopIdToDelays;
+	private Map<String, LatencyHistogram> tupleTypeToCpuTimes;
 	
+	/**
+	 * Gets the time keeper of the simulation run by the calling thread.
+	 * @return the time keeper of the current simulation context
+	 */
 	public static TimeKeeper getInstance(){
-		if(instance == null)
-			instance = new TimeKeeper();
-		return instance;
+		return SimulationContext.current().getComponent(TimeKeeper.class, TimeKeeper::new);
 	}
 	
-	public int getUniqueId(){
+	public synchronized int getUniqueId(){
 		return count++;
 	}
 	
-	public void tupleStartedExecution(Tuple tuple){
-		tupleIdToCpuStartTime.put(tuple.getCloudletId(), CloudSim.clock());
+	/*
+	 * The statistics are shared by all the devices, so they are updated through
+	 * CloudSim.runInOrder() to stay in the order of a sequential run when the simulation runs in
+	 * parallel. The values are read when the method is called.
+	 */
+	
+	/**
+	 * Records the emission of a tuple starting an application loop.
+	 * @param loopId the id of the loop
+	 * @return the unique id following the tuple around the loop
+	 */
+	public int tupleEmitted(final int loopId){
+		final int tupleId = getUniqueId();
+		final double emitTime = CloudSim.clock();
+		CloudSim.runInOrder(() -> {
+			getLoopDelays(loopId);
+			emitTimes.put(tupleId, emitTime);
+		});
+		return tupleId;
+	}
+	
+	/**
+	 * Records the arrival of a tuple at the end of an application loop, and adds its delay to the
+	 * delays of the loop.
+	 * @param loopId the id of the loop
+	 * @param actualTupleId the unique id of the tuple which started the loop
+	 */
+	public void tupleReachedLoopEnd(final int loopId, final int actualTupleId){
+		final double endTime = CloudSim.clock();
+		CloudSim.runInOrder(() -> {
+			double startTime = emitTimes.remove(actualTupleId);
+			if(Double.isNaN(startTime))
+				return;
+			getLoopDelays(loopId).record(endTime - startTime);
+		});
+	}
+	
+	/*
+	 * The execution start times are kept by device, since a tuple sent down to several children
+	 * is executed by each of them under the same id.
+	 */
+	
+	/**
+	 * Records the start of the execution of a tuple.
+	 * @param deviceId the id of the device executing the tuple
+	 * @param tuple the tuple
+	 */
+	public void tupleStartedExecution(final int deviceId, Tuple tuple){
+		final int tupleId = tuple.getCloudletId();
+		final double startTime = CloudSim.clock();
+		CloudSim.runInOrder(() -> getCpuStartTimes(deviceId).put(tupleId, startTime));
+	}
+	
+	/**
+	 * Records the end of the execution of a tuple, and adds its CPU time to the CPU times of its type.
+	 * @param deviceId the id of the device which executed the tuple
+	 * @param tuple the tuple
+	 */
+	public void tupleEndedExecution(final int deviceId, Tuple tuple){
+		final int tupleId = tuple.getCloudletId();
+		final String tupleType = tuple.getTupleType();
+		final double endTime = CloudSim.clock();
+		CloudSim.runInOrder(() -> {
+			double startTime = getCpuStartTimes(deviceId).remove(tupleId);
+			if(Double.isNaN(startTime))
+				return;
+			LatencyHistogram cpuTimes = tupleTypeToCpuTimes.get(tupleType);
+			if(cpuTimes == null){
+				cpuTimes = new LatencyHistogram();
+				tupleTypeToCpuTimes.put(tupleType, cpuTimes);
+			}
+			cpuTimes.record(endTime - startTime);
+		});
 	}
 	
-	public void tupleEndedExecution(Tuple tuple){
-		if(!tupleIdToCpuStartTime.containsKey(tuple.getCloudletId()))
-			return;
-		double executionTime = CloudSim.clock() - tupleIdToCpuStartTime.get(tuple.getCloudletId());
-		if(!tupleTypeToAverageCpuTime.containsKey(tuple.getTupleType())){
-			tupleTypeToAverageCpuTime.put(tuple.getTupleType(), executionTime);
-			tupleTypeToExecutedTupleCount.put(tuple.getTupleType(), 1);
-		} else{
-			double currentAverage = tupleTypeToAverageCpuTime.get(tuple.getTupleType());
-			int currentCount = tupleTypeToExecutedTupleCount.get(tuple.getTupleType());
-			tupleTypeToAverageCpuTime.put(tuple.getTupleType(), (currentAverage*currentCount+executionTime)/(currentCount+1));
+	private IntDoubleHashMap getCpuStartTimes(int deviceId){
+		IntDoubleHashMap startTimes = deviceIdToCpuStartTimes.get(deviceId);
+		if(startTimes == null){
+			startTimes = new IntDoubleHashMap();
+			deviceIdToCpuStartTimes.put(deviceId, startTimes);
 		}
+		return startTimes;
 	}
 	
-	public Map<Integer, List<Integer>> loopIdToTupleIds(){
-		return getInstance().getLoopIdToTupleIds();
+	private LatencyHistogram getLoopDelays(int loopId){
+		LatencyHistogram delays = loopIdToDelays.get(loopId);
+		if(delays == null){
+			delays = new LatencyHistogram();
+			loopIdToDelays.put(loopId, delays);
+		}
+		return delays;
 	}
 	
 	private TimeKeeper(){
 		count = 1;
-		setEmitTimes(new HashMap<Integer, Double>());
-		setEndTimes(new HashMap<Integer, Double>());
-		setLoopIdToTupleIds(new HashMap<Integer, List<Integer>>());
-		setTupleTypeToAverageCpuTime(new HashMap<String, Double>());
-		setTupleTypeToExecutedTupleCount(new HashMap<String, Integer>());
-		setTupleIdToCpuStartTime(new HashMap<Integer, Double>());
-		setLoopIdToCurrentAverage(new HashMap<Integer, Double>());
-		setLoopIdToCurrentNum(new HashMap<Integer, Integer>());
+		emitTimes = new IntDoubleHashMap();
+		deviceIdToCpuStartTimes = new HashMap<Integer, IntDoubleHashMap>();
+		loopIdToDelays = new HashMap<Integer, LatencyHistogram>();
+		tupleTypeToCpuTimes = new HashMap<String, LatencyHistogram>();
 	}
 	
 	public int getCount() {
@@ -75,54 +143,46 @@ public class TimeKeeper {
 		this.count = count;
 	}
 
-	public Map<Integer, Double> getEmitTimes() {
+	/**
+	 * @return the emission times of the tuples which started a loop and have not reached its end
+	 */
+	public IntDoubleHashMap getEmitTimes() {
 		return emitTimes;
 	}
 
-	public void setEmitTimes(Map<Integer, Double> emitTimes) {
-		this.emitTimes = emitTimes;
-	}
-
-	public Map<Integer, Double> getEndTimes() {
-		return endTimes;
-	}
-
-	public void setEndTimes(Map<Integer, Double> endTimes) {
-		this.endTimes = endTimes;
-	}
-
-	public Map<Integer, List<Integer>> getLoopIdToTupleIds() {
-		return loopIdToTupleIds;
+	/**
+	 * @return the delays of each loop with a tuple emitted, by loop id
+	 */
+	public Map<Integer, LatencyHistogram> getLoopIdToDelays() {
+		return loopIdToDelays;
 	}
 
-	public void setLoopIdToTupleIds(Map<Integer, List<Integer>> loopIdToTupleIds) {
-		this.loopIdToTupleIds = loopIdToTupleIds;
+	/**
+	 * @return the CPU times of the executed tuples, by tuple type
+	 */
+	public Map<String, LatencyHistogram> getTupleTypeToCpuTimes() {
+		return tupleTypeToCpuTimes;
 	}
 
 	public Map<String, Double> getTupleTypeToAverageCpuTime() {
-		return tupleTypeToAverageCpuTime;
-	}
-
-	public void setTupleTypeToAverageCpuTime(
-			Map<String, Double> tupleTypeToAverageCpuTime) {
-		this.tupleTypeToAverageCpuTime = tupleTypeToAverageCpuTime;
+		Map<String, Double> averages = new HashMap<String, Double>();
+		for(Map.Entry<String, LatencyHistogram> entry : tupleTypeToCpuTimes.entrySet())
+			averages.put(entry.getKey(), entry.getValue().getMean());
+		return averages;
 	}
 
 	public Map<String, Integer> getTupleTypeToExecutedTupleCount() {
-		return tupleTypeToExecutedTupleCount;
-	}
-
-	public void setTupleTypeToExecutedTupleCount(
-			Map<String, Integer> tupleTypeToExecutedTupleCount) {
-		this.tupleTypeToExecutedTupleCount = tupleTypeToExecutedTupleCount;
+		Map<String, Integer> counts = new HashMap<String, Integer>();
+		for(Map.Entry<String, LatencyHistogram> entry : tupleTypeToCpuTimes.entrySet())
+			counts.put(entry.getKey(), (int) entry.getValue().getCount());
+		return counts;
 	}
 
-	public Map<Integer, Double> getTupleIdToCpuStartTime() {
-		return tupleIdToCpuStartTime;
-	}
-
-	public void setTupleIdToCpuStartTime(Map<Integer, Double> tupleIdToCpuStartTime) {
-		this.tupleIdToCpuStartTime = tupleIdToCpuStartTime;
+	/**
+	 * @return the execution start times of the tuples which are being executed, by device id then tuple id
+	 */
+	public Map<Integer, IntDoubleHashMap> getDeviceIdToCpuStartTimes() {
+		return deviceIdToCpuStartTimes;
 	}
 
 	public long getSimulationStartTime() {
@@ -133,21 +193,23 @@ public class TimeKeeper {
 		this.simulationStartTime = simulationStartTime;
 	}
 
+	/**
+	 * @return the mean delay of each loop with a tuple which reached its end
+	 */
 	public Map<Integer, Double> getLoopIdToCurrentAverage() {
-		return loopIdToCurrentAverage;
-	}
-
-	public void setLoopIdToCurrentAverage(Map<Integer, Double> loopIdToCurrentAverage) {
-		this.loopIdToCurrentAverage = loopIdToCurrentAverage;
+		Map<Integer, Double> averages = new HashMap<Integer, Double>();
+		for(Map.Entry<Integer, LatencyHistogram> entry : loopIdToDelays.entrySet())
+			if(entry.getValue().getCount() > 0)
+				averages.put(entry.getKey(), entry.getValue().getMean());
+		return averages;
 	}
 
 	public Map<Integer, Integer> getLoopIdToCurrentNum() {
-		return loopIdToCurrentNum;
+		Map<Integer, Integer> counts = new HashMap<Integer, Integer>();
+		for(Map.Entry<Integer, LatencyHistogram> entry : loopIdToDelays.entrySet())
+			if(entry.getValue().getCount() > 0)
+				counts.put(entry.getKey(), (int) entry.getValue().getCount());
+		return counts;
 	}
-
-	public void setLoopIdToCurrentNum(Map<Integer, Integer> loopIdToCurrentNum) {
-		this.loopIdToCurrentNum = loopIdToCurrentNum;
-	}
-	
 	
 }